@@ -24,6 +24,8 @@ package org.zanata.rest.service;
 import java.util.Set;
 import javax.ws.rs.core.Application;
 
+import org.jboss.resteasy.plugins.interceptors.encoding.GZIPDecodingInterceptor;
+
 import com.google.common.collect.ImmutableSet;
 
 /**
@@ -44,7 +46,9 @@ public class MockResourcesApplication extends Application {
                     MockGlossaryResource.class,
                     MockCopyTransResource.class,
                     MockAccountResource.class,
-                    MockAsynchronousProcessResource.class
+                    MockAsynchronousProcessResource.class,
+                    // accept gzip-compressed request bodies
+                    GZIPDecodingInterceptor.class
             );
 
     @Override
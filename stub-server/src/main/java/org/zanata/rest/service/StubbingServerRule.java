@@ -22,10 +22,14 @@
 package org.zanata.rest.service;
 
 import java.net.URI;
+import java.util.EnumSet;
+
+import javax.servlet.DispatcherType;
 
 import org.eclipse.jetty.server.Server;
 import org.eclipse.jetty.servlet.ServletContextHandler;
 import org.eclipse.jetty.servlet.ServletHolder;
+import org.eclipse.jetty.servlets.GzipFilter;
 import org.jboss.resteasy.plugins.server.servlet.HttpServlet30Dispatcher;
 import org.junit.rules.TestRule;
 import org.junit.runner.Description;
@@ -60,6 +64,9 @@ public class StubbingServerRule implements TestRule {
         holder.setInitParameter("javax.ws.rs.Application",
                 MockResourcesApplication.class.getCanonicalName());
         context.addServlet(holder, "/*");
+        // compress responses for clients which accept gzip
+        context.addFilter(GzipFilter.class, "/*",
+                EnumSet.of(DispatcherType.REQUEST));
         server.setHandler(context);
         server.setStopAtShutdown(true);
         try {
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.client.commands;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.zanata.rest.client.RestClientFactory;
+import org.zanata.rest.client.SourceDocResourceClient;
+import org.zanata.rest.dto.resource.ResourceMeta;
+
+/**
+ * State which can be shared by several push/pull commands run against the same
+ * server in one process, such as the push or pull goal running for every
+ * module of a Maven reactor build.
+ * <p>
+ * A session holds a single {@link RestClientFactory} (and therefore a single
+ * connection pool and server version check), and the document list of each
+ * project version, fetched from the server the first time any command asks for
+ * it. Commands which add or delete documents on the server report them here,
+ * so that the list stays accurate for the commands which follow.
+ */
+public class ClientSession {
+    private static final Logger log = LoggerFactory
+            .getLogger(ClientSession.class);
+
+    private final RestClientFactory clientFactory;
+    // project:version -> document name -> document
+    private final Map<String, Map<String, ResourceMeta>> docLists =
+            new HashMap<String, Map<String, ResourceMeta>>();
+
+    public ClientSession(RestClientFactory clientFactory) {
+        this.clientFactory = clientFactory;
+    }
+
+    public RestClientFactory getClientFactory() {
+        return clientFactory;
+    }
+
+    /**
+     * Returns the documents in a project version, fetching them from the
+     * server only if this session has not seen the version before.
+     *
+     * @param client
+     *            source document client for the same project version
+     */
+    public synchronized List<ResourceMeta> getDocList(String project,
+            String version, SourceDocResourceClient client) {
+        String key = key(project, version);
+        Map<String, ResourceMeta> docs = docLists.get(key);
+        if (docs == null) {
+            docs = new LinkedHashMap<String, ResourceMeta>();
+            for (ResourceMeta doc : client.getResourceMeta(null)) {
+                docs.put(doc.getName(), doc);
+            }
+            docLists.put(key, docs);
+        } else {
+            log.debug("using document list for {} from this session", key);
+        }
+        return new ArrayList<ResourceMeta>(docs.values());
+    }
+
+    /**
+     * Records that a document has been created (or updated) on the server.
+     */
+    public synchronized void documentPushed(String project, String version,
+            String docName) {
+        Map<String, ResourceMeta> docs = docLists.get(key(project, version));
+        if (docs != null && !docs.containsKey(docName)) {
+            docs.put(docName, new ResourceMeta(docName));
+        }
+    }
+
+    /**
+     * Records that a document has been deleted from the server.
+     */
+    public synchronized void documentDeleted(String project, String version,
+            String docName) {
+        Map<String, ResourceMeta> docs = docLists.get(key(project, version));
+        if (docs != null) {
+            docs.remove(docName);
+        }
+    }
+
+    private static String key(String project, String version) {
+        return project + ":" + version;
+    }
+}
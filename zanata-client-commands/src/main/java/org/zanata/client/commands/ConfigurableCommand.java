@@ -31,6 +31,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.zanata.client.config.CommandHook;
 import org.zanata.rest.client.RestClientFactory;
+import org.zanata.rest.client.RestMetrics;
 
 /**
  * Base class for commands which supports configuration by the user's zanata.ini
@@ -106,9 +107,30 @@ public abstract class ConfigurableCommand<O extends ConfigurableOptions>
 
     @Override
     public void runWithActions() throws Exception {
-        runBeforeActions();
-        run();
-        runAfterActions();
+        try {
+            runBeforeActions();
+            run();
+            runAfterActions();
+        } finally {
+            logMetrics();
+        }
+    }
+
+    /**
+     * Logs a JSON summary of the REST requests made by this command: at INFO
+     * level if the httpMetrics option is set, otherwise at DEBUG level.
+     */
+    private void logMetrics() {
+        RestMetrics metrics =
+                clientFactory == null ? null : clientFactory.getMetrics();
+        if (metrics == null || metrics.isEmpty()) {
+            return;
+        }
+        if (opts.isHttpMetrics()) {
+            log.info("HTTP request metrics:\n{}", metrics.toJson());
+        } else if (log.isDebugEnabled()) {
+            log.debug("HTTP request metrics:\n{}", metrics.toJson());
+        }
     }
 
     /**
@@ -58,4 +58,96 @@ public interface ConfigurableOptions extends BasicOptions {
 
     public
             void setDisableSSLCert(boolean disableSSLCert);
+
+    /**
+     * Use a pool of keep-alive HTTP connections.
+     */
+    boolean isHttpPool();
+
+    void setHttpPool(boolean httpPool);
+
+    /**
+     * Maximum number of pooled HTTP connections, or null for the default.
+     */
+    Integer getHttpMaxConnections();
+
+    void setHttpMaxConnections(Integer httpMaxConnections);
+
+    /**
+     * Seconds after which idle pooled HTTP connections are closed, or null for
+     * the default.
+     */
+    Integer getHttpIdleTimeout();
+
+    void setHttpIdleTimeout(Integer httpIdleTimeout);
+
+    /**
+     * HTTP connect timeout in milliseconds, or null for no timeout.
+     */
+    Integer getHttpConnectTimeout();
+
+    void setHttpConnectTimeout(Integer httpConnectTimeout);
+
+    /**
+     * HTTP read timeout in milliseconds, or null for no timeout.
+     */
+    Integer getHttpReadTimeout();
+
+    void setHttpReadTimeout(Integer httpReadTimeout);
+
+    /**
+     * Request bodies larger than this many bytes are gzip-compressed (negative
+     * to disable), or null for the default.
+     */
+    Integer getHttpGzipThreshold();
+
+    void setHttpGzipThreshold(Integer httpGzipThreshold);
+
+    /**
+     * Maximum number of retries for idempotent requests which fail with a
+     * connection error or transient server error (0 to disable), or null for
+     * the default.
+     */
+    Integer getHttpRetries();
+
+    void setHttpRetries(Integer httpRetries);
+
+    /**
+     * Whether to show a summary of HTTP request metrics at the end of the
+     * command.
+     */
+    boolean isHttpMetrics();
+
+    void setHttpMetrics(boolean httpMetrics);
+
+    /**
+     * File to capture HTTP requests and responses to, or null for no
+     * capture.
+     */
+    File getHttpCapture();
+
+    void setHttpCapture(File httpCapture);
+
+    /**
+     * Maximum number of bytes of each captured body, or null for the default.
+     */
+    Integer getHttpCaptureBodyLimit();
+
+    void setHttpCaptureBodyLimit(Integer httpCaptureBodyLimit);
+
+    /**
+     * How long (in seconds) to cache server metadata such as the server
+     * version, if the server does not say (0 to disable the cache), or null
+     * for the default.
+     */
+    Integer getMetadataCacheTtl();
+
+    void setMetadataCacheTtl(Integer metadataCacheTtl);
+
+    /**
+     * Whether to discard cached server metadata before running the command.
+     */
+    boolean isRefreshMetadata();
+
+    void setRefreshMetadata(boolean refreshMetadata);
 }
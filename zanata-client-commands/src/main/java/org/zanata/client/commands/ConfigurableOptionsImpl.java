@@ -24,6 +24,7 @@ import java.io.File;
 import java.net.URL;
 
 import org.kohsuke.args4j.Option;
+import org.zanata.rest.client.HttpConnectionConfig;
 
 /**
  * Base options for commands which support configuration by the user's
@@ -60,6 +61,18 @@ public abstract class ConfigurableOptionsImpl extends BasicOptionsImpl
      */
     private boolean logHttp;
     private boolean disableSSLCert;
+    private boolean httpPool;
+    private Integer httpMaxConnections;
+    private Integer httpIdleTimeout;
+    private Integer httpConnectTimeout;
+    private Integer httpReadTimeout;
+    private Integer httpGzipThreshold;
+    private Integer httpRetries;
+    private boolean httpMetrics;
+    private File httpCapture;
+    private Integer httpCaptureBodyLimit;
+    private Integer metadataCacheTtl;
+    private boolean refreshMetadata;
 
     public ConfigurableOptionsImpl() {
     }
@@ -137,4 +150,159 @@ public abstract class ConfigurableOptionsImpl extends BasicOptionsImpl
         this.disableSSLCert = disableSSLCert;
     }
 
+    @Override
+    public boolean isHttpPool() {
+        return httpPool;
+    }
+
+    @Override
+    @Option(name = "--http-pool",
+            usage = "Use a pool of keep-alive HTTP connections.")
+    public void setHttpPool(boolean httpPool) {
+        this.httpPool = httpPool;
+    }
+
+    @Override
+    public Integer getHttpMaxConnections() {
+        return httpMaxConnections;
+    }
+
+    @Override
+    @Option(name = "--http-max-connections", metaVar = "N",
+            usage = "Maximum number of pooled HTTP connections (default: "
+                    + HttpConnectionConfig.DEFAULT_MAX_CONNECTIONS + ").")
+    public void setHttpMaxConnections(Integer httpMaxConnections) {
+        this.httpMaxConnections = httpMaxConnections;
+    }
+
+    @Override
+    public Integer getHttpIdleTimeout() {
+        return httpIdleTimeout;
+    }
+
+    @Override
+    @Option(name = "--http-idle-timeout", metaVar = "SECONDS",
+            usage = "Close pooled HTTP connections after they have been idle this long (default: "
+                    + HttpConnectionConfig.DEFAULT_IDLE_TIMEOUT_SECONDS
+                    + ").")
+    public void setHttpIdleTimeout(Integer httpIdleTimeout) {
+        this.httpIdleTimeout = httpIdleTimeout;
+    }
+
+    @Override
+    public Integer getHttpConnectTimeout() {
+        return httpConnectTimeout;
+    }
+
+    @Override
+    @Option(name = "--http-connect-timeout", metaVar = "MILLIS",
+            usage = "HTTP connect timeout (default: no timeout).")
+    public void setHttpConnectTimeout(Integer httpConnectTimeout) {
+        this.httpConnectTimeout = httpConnectTimeout;
+    }
+
+    @Override
+    public Integer getHttpReadTimeout() {
+        return httpReadTimeout;
+    }
+
+    @Override
+    @Option(name = "--http-read-timeout", metaVar = "MILLIS",
+            usage = "HTTP read timeout (default: no timeout).")
+    public void setHttpReadTimeout(Integer httpReadTimeout) {
+        this.httpReadTimeout = httpReadTimeout;
+    }
+
+    @Override
+    public Integer getHttpGzipThreshold() {
+        return httpGzipThreshold;
+    }
+
+    @Override
+    @Option(name = "--http-gzip-threshold", metaVar = "BYTES",
+            usage = "Compress request bodies larger than this, or -1 to never compress (default: "
+                    + HttpConnectionConfig.DEFAULT_GZIP_THRESHOLD_BYTES
+                    + ").")
+    public void setHttpGzipThreshold(Integer httpGzipThreshold) {
+        this.httpGzipThreshold = httpGzipThreshold;
+    }
+
+    @Override
+    public Integer getHttpRetries() {
+        return httpRetries;
+    }
+
+    @Override
+    @Option(name = "--http-retries", metaVar = "N",
+            usage = "Retry requests which fail with a connection error or temporary server error up to N times, or 0 to never retry (default: "
+                    + HttpConnectionConfig.DEFAULT_MAX_RETRIES
+                    + ").")
+    public void setHttpRetries(Integer httpRetries) {
+        this.httpRetries = httpRetries;
+    }
+
+    @Override
+    public boolean isHttpMetrics() {
+        return httpMetrics;
+    }
+
+    @Override
+    @Option(name = "--http-metrics",
+            usage = "Show request counts, latencies, sizes and status codes for each REST endpoint (as JSON) when the command finishes.")
+    public void setHttpMetrics(boolean httpMetrics) {
+        this.httpMetrics = httpMetrics;
+    }
+
+    @Override
+    public File getHttpCapture() {
+        return httpCapture;
+    }
+
+    @Override
+    @Option(name = "--http-capture", metaVar = "FILE",
+            usage = "Write HTTP requests and responses (with bodies truncated, and API key masked) to FILE, one HAR entry per line. The file is rotated when it reaches 10 MB.")
+    public void setHttpCapture(File httpCapture) {
+        this.httpCapture = httpCapture;
+    }
+
+    @Override
+    public Integer getHttpCaptureBodyLimit() {
+        return httpCaptureBodyLimit;
+    }
+
+    @Override
+    @Option(name = "--http-capture-body-limit", metaVar = "BYTES",
+            usage = "Maximum number of bytes of each body to write with --http-capture (default: "
+                    + HttpConnectionConfig.DEFAULT_CAPTURE_BODY_LIMIT_BYTES
+                    + ").")
+    public void setHttpCaptureBodyLimit(Integer httpCaptureBodyLimit) {
+        this.httpCaptureBodyLimit = httpCaptureBodyLimit;
+    }
+
+    @Override
+    public Integer getMetadataCacheTtl() {
+        return metadataCacheTtl;
+    }
+
+    @Override
+    @Option(name = "--metadata-cache-ttl", metaVar = "SECONDS",
+            usage = "Cache server metadata (such as accepted file types) for this long, unless the server says otherwise, or 0 to disable the cache (default: "
+                    + HttpConnectionConfig.DEFAULT_METADATA_CACHE_TTL_SECONDS
+                    + ").")
+    public void setMetadataCacheTtl(Integer metadataCacheTtl) {
+        this.metadataCacheTtl = metadataCacheTtl;
+    }
+
+    @Override
+    public boolean isRefreshMetadata() {
+        return refreshMetadata;
+    }
+
+    @Override
+    @Option(name = "--refresh-metadata",
+            usage = "Discard cached server metadata and fetch it again.")
+    public void setRefreshMetadata(boolean refreshMetadata) {
+        this.refreshMetadata = refreshMetadata;
+    }
+
 }
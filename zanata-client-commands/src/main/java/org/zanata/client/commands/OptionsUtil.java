@@ -3,9 +3,7 @@ package org.zanata.client.commands;
 import java.io.File;
 import java.net.URISyntaxException;
 
-import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
-import javax.xml.bind.Unmarshaller;
 
 import org.apache.commons.configuration.ConfigurationException;
 import org.apache.commons.configuration.HierarchicalINIConfiguration;
@@ -17,6 +15,8 @@ import org.zanata.client.config.FileMappingRule;
 import org.zanata.client.config.LocaleList;
 import org.zanata.client.config.ZanataConfig;
 import org.zanata.client.exceptions.ConfigException;
+import org.zanata.client.util.JaxbPool;
+import org.zanata.rest.client.HttpConnectionConfig;
 import org.zanata.rest.client.RestClientFactory;
 import org.zanata.util.VersionUtility;
 import com.google.common.annotations.VisibleForTesting;
@@ -46,15 +46,14 @@ public class OptionsUtil {
             ConfigurableProjectOptions projOpts =
                     (ConfigurableProjectOptions) opts;
             if (projOpts.getProjectConfig() != null) {
-                JAXBContext jc = JAXBContext.newInstance(ZanataConfig.class);
-                Unmarshaller unmarshaller = jc.createUnmarshaller();
                 File projectConfigFile = projOpts.getProjectConfig();
                 if (projectConfigFile.exists()) {
                     log.info("Loading project config from {}",
                             projectConfigFile);
                     ZanataConfig projectConfig =
-                            (ZanataConfig) unmarshaller
-                                    .unmarshal(projectConfigFile);
+                            JaxbPool.forClasses(ZanataConfig.class)
+                                    .unmarshal(projectConfigFile,
+                                            ZanataConfig.class);
                     // local project config is supposed to override user's
                     // zanata.ini,
                     // so we apply it first
@@ -252,6 +251,37 @@ public class OptionsUtil {
             if (quiet != null)
                 opts.setQuiet(quiet);
         }
+        if (!opts.isHttpPool()) {
+            opts.setHttpPool(config.getBoolean("defaults.httpPool", false));
+        }
+        if (opts.getHttpMaxConnections() == null) {
+            opts.setHttpMaxConnections(config.getInteger(
+                    "defaults.httpMaxConnections", null));
+        }
+        if (opts.getHttpIdleTimeout() == null) {
+            opts.setHttpIdleTimeout(config.getInteger(
+                    "defaults.httpIdleTimeout", null));
+        }
+        if (opts.getHttpConnectTimeout() == null) {
+            opts.setHttpConnectTimeout(config.getInteger(
+                    "defaults.httpConnectTimeout", null));
+        }
+        if (opts.getHttpReadTimeout() == null) {
+            opts.setHttpReadTimeout(config.getInteger(
+                    "defaults.httpReadTimeout", null));
+        }
+        if (opts.getHttpGzipThreshold() == null) {
+            opts.setHttpGzipThreshold(config.getInteger(
+                    "defaults.httpGzipThreshold", null));
+        }
+        if (opts.getHttpRetries() == null) {
+            opts.setHttpRetries(config.getInteger("defaults.httpRetries",
+                    null));
+        }
+        if (opts.getMetadataCacheTtl() == null) {
+            opts.setMetadataCacheTtl(config.getInteger(
+                    "defaults.metadataCacheTtl", null));
+        }
         if ((opts.getUsername() == null || opts.getKey() == null)
                 && opts.getUrl() != null) {
             SubnodeConfiguration servers = config.getSection("servers");
@@ -268,6 +298,68 @@ public class OptionsUtil {
         }
     }
 
+    private static HttpConnectionConfig createConnectionConfig(
+            ConfigurableOptions opts) {
+        HttpConnectionConfig connectionConfig = new HttpConnectionConfig();
+        connectionConfig.setPooled(opts.isHttpPool());
+        if (opts.getHttpMaxConnections() != null) {
+            connectionConfig.setMaxConnections(opts.getHttpMaxConnections());
+        }
+        if (opts.getHttpIdleTimeout() != null) {
+            connectionConfig.setIdleTimeoutSeconds(opts.getHttpIdleTimeout());
+        }
+        if (opts.getHttpConnectTimeout() != null) {
+            connectionConfig.setConnectTimeoutMillis(opts
+                    .getHttpConnectTimeout());
+        }
+        if (opts.getHttpReadTimeout() != null) {
+            connectionConfig.setReadTimeoutMillis(opts.getHttpReadTimeout());
+        }
+        if (opts.getHttpGzipThreshold() != null) {
+            connectionConfig.setGzipThresholdBytes(opts.getHttpGzipThreshold());
+        }
+        if (opts.getHttpRetries() != null) {
+            connectionConfig.setMaxRetries(opts.getHttpRetries());
+        }
+        connectionConfig.setCaptureFile(opts.getHttpCapture());
+        if (opts.getUserConfig() != null) {
+            connectionConfig.setMetadataCacheDir(new File(opts
+                    .getUserConfig().getAbsoluteFile().getParentFile(),
+                    "zanata/metadata-cache"));
+        }
+        if (opts.getMetadataCacheTtl() != null) {
+            connectionConfig.setMetadataCacheTtlSeconds(opts
+                    .getMetadataCacheTtl());
+        }
+        connectionConfig.setRefreshMetadata(opts.isRefreshMetadata());
+        if (opts.getHttpCaptureBodyLimit() != null) {
+            connectionConfig.setCaptureBodyLimitBytes(opts
+                    .getHttpCaptureBodyLimit());
+        }
+        return connectionConfig;
+    }
+
+    /**
+     * Returns a key which is the same for two sets of options only if
+     * {@link #createClientFactory} would set up their client factories in the
+     * same way (server, credentials and connection settings), so that one
+     * factory can serve both.
+     */
+    public static String clientFactoryKey(ConfigurableOptions opts) {
+        HttpConnectionConfig config = createConnectionConfig(opts);
+        return Joiner.on('|').useForNull("").join(opts.getUrl(),
+                opts.getUsername(), opts.getKey(), opts.getLogHttp(),
+                opts.isDisableSSLCert(), config.isPooled(),
+                config.getMaxConnections(), config.getIdleTimeoutSeconds(),
+                config.getConnectTimeoutMillis(),
+                config.getReadTimeoutMillis(),
+                config.getGzipThresholdBytes(), config.getMaxRetries(),
+                config.getCaptureFile(), config.getCaptureBodyLimitBytes(),
+                config.getMetadataCacheDir(),
+                config.getMetadataCacheTtlSeconds(),
+                config.isRefreshMetadata());
+    }
+
     private static void checkMandatoryOptsForRequestFactory(
             ConfigurableOptions opts) {
         if (opts.getUrl() == null) {
@@ -305,7 +397,8 @@ public class OptionsUtil {
                             opts.getUsername(), opts.getKey(),
                             VersionUtility.getAPIVersionInfo(),
                             opts.getLogHttp(),
-                            opts.isDisableSSLCert());
+                            opts.isDisableSSLCert(),
+                            createConnectionConfig(opts));
             restClientFactory.performVersionCheck();
             return restClientFactory;
         } catch (URISyntaxException e) {
@@ -327,7 +420,8 @@ public class OptionsUtil {
             return new RestClientFactory(opts.getUrl().toURI(),
                     opts.getUsername(), opts.getKey(),
                     VersionUtility.getAPIVersionInfo(), opts.getLogHttp(),
-                    opts.isDisableSSLCert());
+                    opts.isDisableSSLCert(),
+                    createConnectionConfig(opts));
         } catch (URISyntaxException e) {
             throw new ConfigException(e);
         }
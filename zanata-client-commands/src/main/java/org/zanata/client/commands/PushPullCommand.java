@@ -23,32 +23,37 @@ package org.zanata.client.commands;
 
 import java.io.Console;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.StringWriter;
 import java.net.URI;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.List;
 
-import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
-import javax.xml.bind.Marshaller;
 
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.io.output.NullOutputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.zanata.client.config.LocaleList;
 import org.zanata.client.config.LocaleMapping;
 import org.zanata.client.etag.ETagCache;
-import org.zanata.client.etag.ETagCacheReaderWriter;
+import org.zanata.client.etag.ETagCacheEntry;
+import org.zanata.client.etag.ETagCacheStore;
 import org.zanata.client.exceptions.ConfigException;
+import org.zanata.client.util.FileDigests;
+import org.zanata.client.util.FileStat;
+import org.zanata.client.util.JaxbPool;
 import org.zanata.rest.client.RestClientFactory;
 import org.zanata.rest.client.SourceDocResourceClient;
 import org.zanata.rest.client.TransDocResourceClient;
-import org.zanata.rest.dto.resource.Resource;
 import org.zanata.rest.dto.resource.ResourceMeta;
-import org.zanata.rest.dto.resource.TranslationsResource;
-import org.zanata.util.PathUtil;
+
+import com.google.common.annotations.VisibleForTesting;
 
 /**
  * @author Sean Flanigan <a
@@ -63,10 +68,12 @@ public abstract class PushPullCommand<O extends PushPullOptions> extends
     protected static final String PROJECT_TYPE_OFFLINE_PO = "offlinepo";
 
     protected ETagCache eTagCache;
-    private Marshaller marshaller;
+    private ETagCacheStore eTagCacheStore;
     private String modulePrefix;
+    private File cacheDir;
     protected SourceDocResourceClient sourceDocResourceClient;
     protected TransDocResourceClient transDocResourceClient;
+    private ClientSession clientSession;
 
     public PushPullCommand(O opts, RestClientFactory clientFactory) {
         super(opts, clientFactory);
@@ -87,6 +94,14 @@ public abstract class PushPullCommand<O extends PushPullOptions> extends
                 opts));
     }
 
+    /**
+     * Shares the session's document lists with other commands. The session
+     * should use the same client factory as this command.
+     */
+    public void setClientSession(ClientSession clientSession) {
+        this.clientSession = clientSession;
+    }
+
     protected void confirmWithUser(String message) throws IOException {
         if (getOpts().isInteractiveMode()) {
             Console console = System.console();
@@ -99,11 +114,14 @@ public abstract class PushPullCommand<O extends PushPullOptions> extends
         }
     }
 
+    /**
+     * Logs the XML form of a DTO when debugging is enabled.
+     */
     protected void debug(Object jaxbElement) {
         try {
             if (getOpts().isDebugSet()) {
                 StringWriter writer = new StringWriter();
-                getMarshaller().marshal(jaxbElement, writer);
+                JaxbPool.forDtos().marshal(jaxbElement, writer);
                 log.debug("{}", writer);
             }
         } catch (JAXBException e) {
@@ -112,18 +130,23 @@ public abstract class PushPullCommand<O extends PushPullOptions> extends
     }
 
     /**
-     * @return
-     * @throws JAXBException
+     * Calculates a hash of a DTO's XML form, suitable for detecting changes to
+     * a document. Thread-safe.
+     *
+     * @param jaxbElement
+     *            a Resource or TranslationsResource
+     * @return MD5 hash, in hex
      */
-    private Marshaller getMarshaller() throws JAXBException {
-        if (marshaller == null) {
-            JAXBContext jc =
-                    JAXBContext.newInstance(Resource.class,
-                            TranslationsResource.class);
-            marshaller = jc.createMarshaller();
-            marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
+    protected String contentHash(Object jaxbElement) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("MD5");
+            OutputStream out =
+                    new DigestOutputStream(new NullOutputStream(), md);
+            JaxbPool.forDtos().marshalCompact(jaxbElement, out);
+            return new String(Hex.encodeHex(md.digest()));
+        } catch (NoSuchAlgorithmException | JAXBException e) {
+            throw new RuntimeException(e);
         }
-        return marshaller;
     }
 
     protected String qualifiedDocName(String localDocName) {
@@ -161,11 +184,36 @@ public abstract class PushPullCommand<O extends PushPullOptions> extends
         return docNames;
     }
 
-    // TODO use a cache which will be accessible to all invocations
     protected List<ResourceMeta> getDocListForProjectIterationFromServer() {
+        if (clientSession != null) {
+            return clientSession.getDocList(getOpts().getProj(),
+                    getOpts().getProjectVersion(), sourceDocResourceClient);
+        }
         return sourceDocResourceClient.getResourceMeta(null);
     }
 
+    /**
+     * Keeps the session's document list (if any) up to date after a source
+     * document has been pushed.
+     */
+    protected void documentPushed(String qualifiedDocName) {
+        if (clientSession != null) {
+            clientSession.documentPushed(getOpts().getProj(),
+                    getOpts().getProjectVersion(), qualifiedDocName);
+        }
+    }
+
+    /**
+     * Keeps the session's document list (if any) up to date after a source
+     * document has been deleted.
+     */
+    protected void documentDeleted(String qualifiedDocName) {
+        if (clientSession != null) {
+            clientSession.documentDeleted(getOpts().getProj(),
+                    getOpts().getProjectVersion(), qualifiedDocName);
+        }
+    }
+
     /**
      * Filters the project's list of locales
      *
@@ -207,36 +255,114 @@ public abstract class PushPullCommand<O extends PushPullOptions> extends
         }
     }
 
+    /**
+     * Overrides the local cache directory (normally .zanata-cache in the
+     * current module), and reloads the ETag cache from there.
+     */
+    @VisibleForTesting
+    public void setCacheDir(File cacheDir) {
+        this.cacheDir = cacheDir;
+        loadETagCache();
+    }
+
+    /**
+     * Returns a file in the local cache directory (.zanata-cache) of the
+     * current module.
+     */
+    protected File getCacheFile(String fileName) {
+        if (cacheDir != null) {
+            return new File(cacheDir, fileName);
+        }
+        String location = ".zanata-cache" + File.separator + fileName;
+        if (modulePrefix != null && !modulePrefix.trim().isEmpty()) {
+            location = modulePrefix + File.separator + location;
+        }
+        return new File(location);
+    }
+
     protected void loadETagCache() {
-        try {
-            String location =
-                    ".zanata-cache" + File.separator + "etag-cache.xml";
-            if (modulePrefix != null && !modulePrefix.trim().isEmpty()) {
-                location = modulePrefix + File.separator + location;
-            }
-            eTagCache =
-                    ETagCacheReaderWriter.readCache(new FileInputStream(
-                            location));
-        } catch (Exception e) {
-            // could not read for some reason, use a new one
-            eTagCache = new ETagCache();
+        eTagCacheStore =
+                new ETagCacheStore(getCacheFile("etag-cache.xml"),
+                        getCacheFile("etag-cache.journal"));
+        eTagCache = eTagCacheStore.load();
+    }
+
+    /**
+     * @return the server ETag cached for a local file, if the file still has
+     *         the modification time (and size and file key, if recorded)
+     *         which it had when the cache entry was made, otherwise null
+     */
+    protected String cachedETag(File localFile, ETagCacheEntry entry) {
+        FileStat stat = FileStat.of(localFile);
+        if (stat != null
+                && stat.matchesRecorded(entry.getLocalFileSize(),
+                        entry.getLocalFileTime(), entry.getLocalFileKey())) {
+            return entry.getServerETag();
+        }
+        return null;
+    }
+
+    /**
+     * Checks that a local file still has the contents it had when the cache
+     * entry was made. If the file's size, time and key are unchanged, its
+     * contents are assumed to be too. Otherwise the file's MD5 is checked, and
+     * if that still matches, the entry is updated with the file's new stat so
+     * that it need not be hashed again.
+     */
+    protected boolean localFileUnchanged(File localFile, ETagCacheEntry entry)
+            throws IOException {
+        FileStat stat = FileStat.of(localFile);
+        if (stat == null) {
+            return false;
+        }
+        if (stat.matches(entry.getLocalFileSize(), entry.getLocalFileTime(),
+                entry.getLocalFileKey())) {
+            return true;
+        }
+        String fileChecksum = FileDigests.md5Hex(localFile);
+        if (!fileChecksum.equalsIgnoreCase(entry.getLocalFileMD5())) {
+            return false;
+        }
+        addETagCacheEntry(entry.getLocalFileName(), entry.getLanguage(),
+                localFile, entry.getLocalFileMD5(), entry.getServerETag());
+        return true;
+    }
+
+    /**
+     * Records the server ETag for a local file which has just been written.
+     *
+     * @param language
+     *            locale of a translation file, or null for a source file
+     */
+    protected void addETagCacheEntry(String localDocName, String language,
+            File localFile, String md5, String serverETag) {
+        FileStat stat = FileStat.of(localFile);
+        if (stat != null) {
+            eTagCache.addEntry(new ETagCacheEntry(localDocName, language,
+                    Long.toString(stat.getLastModified()), md5, serverETag,
+                    Long.toString(stat.getSize()), stat.getFileKey()));
         }
     }
 
+    /**
+     * Saves changes to the ETag cache. This only appends the entries added
+     * since the last call, so it is cheap enough to call after each document.
+     */
     protected void storeETagCache() {
         try {
-            String location =
-                    ".zanata-cache" + File.separator + "etag-cache.xml";
-            if (modulePrefix != null && !modulePrefix.trim().isEmpty()) {
-                location = modulePrefix + File.separator + location;
-            }
+            eTagCacheStore.save(eTagCache);
+        } catch (IOException e) {
+            log.warn("Could not create Zanata ETag cache file. Will proceed without it.");
+        }
+    }
 
-            File targetFile = new File(location);
-            if (!targetFile.exists()) {
-                PathUtil.makeDirs(targetFile.getParentFile());
-            }
-            ETagCacheReaderWriter.writeCache(this.eTagCache,
-                    new FileOutputStream(location));
+    /**
+     * Writes the whole ETag cache to etag-cache.xml, eg when a command is
+     * finished with it.
+     */
+    protected void compactETagCache() {
+        try {
+            eTagCacheStore.compact(eTagCache);
         } catch (IOException e) {
             log.warn("Could not create Zanata ETag cache file. Will proceed without it.");
         }
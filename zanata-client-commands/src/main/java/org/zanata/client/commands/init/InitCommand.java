@@ -31,10 +31,7 @@ import java.io.File;
 import java.io.IOException;
 import java.net.URL;
 
-import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
-import javax.xml.bind.Marshaller;
-import javax.xml.bind.Unmarshaller;
 
 import org.apache.commons.configuration.ConfigurationException;
 import org.apache.commons.io.FileUtils;
@@ -48,6 +45,7 @@ import org.zanata.client.commands.ConsoleInteractor;
 import org.zanata.client.commands.ConsoleInteractorImpl;
 import org.zanata.client.commands.OptionsUtil;
 import org.zanata.client.config.ZanataConfig;
+import org.zanata.client.util.JaxbPool;
 import org.zanata.client.util.VersionComparator;
 import org.zanata.rest.client.ProjectIterationClient;
 import org.zanata.rest.client.RestClientFactory;
@@ -250,10 +248,9 @@ public class InitCommand extends ConfigurableCommand<InitOptions> {
     protected void writeToConfig(File srcDir, String includes, String excludes,
             File transDir, File configFile)
             throws Exception {
-        JAXBContext jc = JAXBContext.newInstance(ZanataConfig.class);
-        Unmarshaller unmarshaller = jc.createUnmarshaller();
+        JaxbPool jaxbPool = JaxbPool.forClasses(ZanataConfig.class);
         ZanataConfig currentConfig =
-                (ZanataConfig) unmarshaller.unmarshal(configFile);
+                jaxbPool.unmarshal(configFile, ZanataConfig.class);
         currentConfig.setSrcDir(srcDir.getPath());
         // try to avoid empty tags
         currentConfig.setIncludes(Strings.emptyToNull(includes));
@@ -263,9 +260,7 @@ public class InitCommand extends ConfigurableCommand<InitOptions> {
             currentConfig.setLocales(null);
         }
         currentConfig.setTransDir(transDir.getPath());
-        Marshaller marshaller = jc.createMarshaller();
-        marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
-        marshaller.marshal(currentConfig, configFile);
+        jaxbPool.marshal(currentConfig, configFile);
 
         console.printfln(Confirmation, "Project config created at:%s",
                 getOpts().getProjectConfig());
@@ -21,20 +21,55 @@
 
 package org.zanata.client.commands.pull;
 
+import java.io.BufferedWriter;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
+import javax.xml.bind.JAXBException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.commons.codec.binary.Hex;
 import org.zanata.adapter.po.PoWriter2;
+import org.zanata.client.config.LocaleMapping;
+import org.zanata.client.util.JaxbPool;
+import org.zanata.common.io.FileDetails;
 import org.zanata.rest.StringSet;
+import org.zanata.rest.dto.extensions.gettext.PoTargetHeader;
 import org.zanata.rest.dto.resource.Resource;
+import org.zanata.rest.dto.resource.TextFlow;
+import org.zanata.rest.dto.resource.TextFlowTarget;
+import org.zanata.rest.dto.resource.TranslationsResource;
+import org.zanata.util.PathUtil;
+
+import com.google.common.base.Charsets;
 
 /**
  * @author Sean Flanigan <a
  *         href="mailto:sflaniga@redhat.com">sflaniga@redhat.com</a>
  *
  */
-public abstract class AbstractGettextPullStrategy extends AbstractPullStrategy {
+public abstract class AbstractGettextPullStrategy extends AbstractPullStrategy
+        implements StreamingPullStrategy {
     private final PoWriter2 poWriter;
+    private final JaxbPool jaxbPool = JaxbPool.forClasses(
+            TranslationsResource.class, TextFlowTarget.class,
+            PoTargetHeader.class);
+    private final XMLInputFactory inputFactory = XmlStrategy
+            .createInputFactory();
     private StringSet extensions = new StringSet("gettext;comment");
 
     protected AbstractGettextPullStrategy(PullOptions opts) {
@@ -48,6 +83,13 @@ public abstract class AbstractGettextPullStrategy extends AbstractPullStrategy {
         return poWriter;
     }
 
+    /**
+     * @return whether PO files should use the text flow id as msgctxt
+     */
+    protected boolean isMapIdToMsgctxt() {
+        return false;
+    }
+
     @Override
     public StringSet getExtensions() {
         return extensions;
@@ -66,4 +108,109 @@ public abstract class AbstractGettextPullStrategy extends AbstractPullStrategy {
         getPoWriter().writePotToFile(potFile, doc);
     }
 
+    /**
+     * Writes the PO file while the translations are read, one text flow
+     * target at a time, merging them with the text flows of the source
+     * document. Text flows which the server does not send a target for are
+     * written untranslated. The file is only replaced once the whole
+     * document has been received.
+     *
+     * @throws TranslationsOutOfOrderException
+     *             if the targets do not follow the order of the text flows,
+     *             since they can't be merged as they arrive. No file is
+     *             written, and the caller should fall back to
+     *             {@link #writeTransFile(Resource, String, LocaleMapping,
+     *             TranslationsResource)}.
+     */
+    @Override
+    public FileDetails writeTransFile(Resource doc, String docName,
+            LocaleMapping localeMapping, InputStream translationsXml)
+            throws IOException {
+        File transFile = getTransFileToWrite(docName, localeMapping);
+        PathUtil.makeParents(transFile);
+        File tmpFile =
+                File.createTempFile(transFile.getName(), ".tmp",
+                        transFile.getParentFile());
+        try {
+            MessageDigest md = MessageDigest.getInstance("MD5");
+            try (Writer out =
+                    new BufferedWriter(new OutputStreamWriter(
+                            new DigestOutputStream(new FileOutputStream(
+                                    tmpFile), md), Charsets.UTF_8))) {
+                writePo(doc, translationsXml, new StreamingPoWriter(out,
+                        getOpts().getEncodeTabs(), isMapIdToMsgctxt()));
+            }
+            Files.move(tmpFile.toPath(), transFile.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING);
+            FileDetails details = new FileDetails(transFile);
+            details.setMd5(new String(Hex.encodeHex(md.digest())));
+            return details;
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        } catch (XMLStreamException | JAXBException e) {
+            throw new IOException(e);
+        } finally {
+            Files.deleteIfExists(tmpFile.toPath());
+        }
+    }
+
+    private void writePo(Resource doc, InputStream translationsXml,
+            StreamingPoWriter poWriter) throws IOException,
+            XMLStreamException, JAXBException {
+        List<TextFlow> textFlows = doc.getTextFlows();
+        Map<String, Integer> positions =
+                new HashMap<String, Integer>(textFlows.size() * 2);
+        for (int i = 0; i < textFlows.size(); i++) {
+            positions.put(textFlows.get(i).getId(), i);
+        }
+        XMLStreamReader reader =
+                inputFactory.createXMLStreamReader(translationsXml);
+        try {
+            PoTargetHeader targetHeader = null;
+            boolean headerWritten = false;
+            int next = 0;
+            while (reader.hasNext()) {
+                if (!reader.isStartElement()) {
+                    reader.next();
+                    continue;
+                }
+                String name = reader.getLocalName();
+                if (name.equals("po-target-header")) {
+                    targetHeader =
+                            jaxbPool.unmarshal(reader, PoTargetHeader.class);
+                } else if (name.equals("text-flow-target")) {
+                    TextFlowTarget target =
+                            jaxbPool.unmarshal(reader, TextFlowTarget.class);
+                    Integer pos = positions.get(target.getResId());
+                    if (pos == null) {
+                        // no such text flow in the source document
+                        continue;
+                    }
+                    if (pos < next) {
+                        throw new TranslationsOutOfOrderException(
+                                target.getResId());
+                    }
+                    if (!headerWritten) {
+                        poWriter.writeHeader(doc, targetHeader);
+                        headerWritten = true;
+                    }
+                    for (; next < pos; next++) {
+                        poWriter.writeEntry(textFlows.get(next), null);
+                    }
+                    poWriter.writeEntry(textFlows.get(next++), target);
+                } else {
+                    reader.next();
+                }
+            }
+            if (!headerWritten) {
+                poWriter.writeHeader(doc, targetHeader);
+            }
+            for (; next < textFlows.size(); next++) {
+                poWriter.writeEntry(textFlows.get(next), null);
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
 }
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.client.commands.pull;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import javax.xml.namespace.NamespaceContext;
+import javax.xml.stream.XMLEventFactory;
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLEventWriter;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.events.Characters;
+import javax.xml.stream.events.XMLEvent;
+
+import com.google.common.base.Strings;
+
+/**
+ * An XMLEventWriter which indents elements the way JAXB's formatted output
+ * does. Whitespace-only text between elements is replaced by the
+ * indentation, but text inside an element without child elements (even if
+ * it is only whitespace) is written unchanged.
+ */
+class IndentingXMLEventWriter implements XMLEventWriter {
+    private static final String INDENT = "    ";
+
+    /**
+     * What an open element has contained so far
+     */
+    private enum Content {
+        NOTHING, ELEMENTS, TEXT
+    }
+
+    private final XMLEventWriter delegate;
+    private final XMLEventFactory eventFactory;
+    private final Deque<Content> openElements = new ArrayDeque<Content>();
+    private final StringBuilder pendingWhitespace = new StringBuilder();
+
+    IndentingXMLEventWriter(XMLEventWriter delegate,
+            XMLEventFactory eventFactory) {
+        this.delegate = delegate;
+        this.eventFactory = eventFactory;
+    }
+
+    @Override
+    public void add(XMLEvent event) throws XMLStreamException {
+        if (event.isStartElement()) {
+            if (openElements.peek() == Content.TEXT) {
+                // mixed content: leave it as it is
+                writePendingWhitespace();
+            } else {
+                pendingWhitespace.setLength(0);
+                if (!openElements.isEmpty()) {
+                    setContent(Content.ELEMENTS);
+                }
+                writeIndent(openElements.size());
+            }
+            delegate.add(event);
+            openElements.push(Content.NOTHING);
+        } else if (event.isEndElement()) {
+            if (openElements.pop() == Content.ELEMENTS) {
+                pendingWhitespace.setLength(0);
+                writeIndent(openElements.size());
+            } else {
+                writePendingWhitespace();
+            }
+            delegate.add(event);
+        } else if (event.isCharacters()) {
+            Characters characters = event.asCharacters();
+            if (!characters.isCData() && characters.isWhiteSpace()
+                    && openElements.peek() != Content.TEXT) {
+                // may be content, or may be formatting: decide later
+                pendingWhitespace.append(characters.getData());
+                return;
+            }
+            writePendingWhitespace();
+            delegate.add(event);
+            if (!openElements.isEmpty()) {
+                setContent(Content.TEXT);
+            }
+        } else if (event.isEndDocument()) {
+            pendingWhitespace.setLength(0);
+            delegate.add(eventFactory.createCharacters("\n"));
+            delegate.add(event);
+        } else {
+            writePendingWhitespace();
+            delegate.add(event);
+        }
+    }
+
+    private void setContent(Content content) {
+        openElements.pop();
+        openElements.push(content);
+    }
+
+    private void writeIndent(int depth) throws XMLStreamException {
+        delegate.add(eventFactory.createCharacters("\n"
+                + Strings.repeat(INDENT, depth)));
+    }
+
+    private void writePendingWhitespace() throws XMLStreamException {
+        if (pendingWhitespace.length() > 0) {
+            delegate.add(eventFactory.createCharacters(pendingWhitespace
+                    .toString()));
+            pendingWhitespace.setLength(0);
+        }
+    }
+
+    @Override
+    public void add(XMLEventReader reader) throws XMLStreamException {
+        while (reader.hasNext()) {
+            add(reader.nextEvent());
+        }
+    }
+
+    @Override
+    public void flush() throws XMLStreamException {
+        delegate.flush();
+    }
+
+    @Override
+    public void close() throws XMLStreamException {
+        delegate.close();
+    }
+
+    @Override
+    public String getPrefix(String uri) throws XMLStreamException {
+        return delegate.getPrefix(uri);
+    }
+
+    @Override
+    public void setPrefix(String prefix, String uri)
+            throws XMLStreamException {
+        delegate.setPrefix(prefix, uri);
+    }
+
+    @Override
+    public void setDefaultNamespace(String uri) throws XMLStreamException {
+        delegate.setDefaultNamespace(uri);
+    }
+
+    @Override
+    public void setNamespaceContext(NamespaceContext context)
+            throws XMLStreamException {
+        delegate.setNamespaceContext(context);
+    }
+
+    @Override
+    public NamespaceContext getNamespaceContext() {
+        return delegate.getNamespaceContext();
+    }
+}
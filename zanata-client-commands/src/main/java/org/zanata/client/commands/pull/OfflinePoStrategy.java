@@ -43,6 +43,11 @@ public class OfflinePoStrategy extends GettextDirStrategy {
         return poWriter;
     }
 
+    @Override
+    protected boolean isMapIdToMsgctxt() {
+        return true;
+    }
+
     @Override
     public boolean isTransOnly() {
         return true;
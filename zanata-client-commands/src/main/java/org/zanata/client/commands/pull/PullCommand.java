@@ -4,13 +4,23 @@ import java.io.File;
 import java.io.IOException;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 
 import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
 
 import org.apache.commons.lang.StringUtils;
 import org.slf4j.Logger;
@@ -20,7 +30,9 @@ import org.zanata.client.commands.PushPullType;
 import org.zanata.client.config.LocaleList;
 import org.zanata.client.config.LocaleMapping;
 import org.zanata.client.etag.ETagCacheEntry;
+import org.zanata.client.etag.SourceDocCache;
 import org.zanata.client.exceptions.ConfigException;
+import org.zanata.client.util.BufferedLogger;
 import org.zanata.common.LocaleId;
 import org.zanata.common.io.FileDetails;
 import org.zanata.rest.RestUtil;
@@ -28,8 +40,10 @@ import org.zanata.rest.client.ClientUtil;
 import org.zanata.rest.client.RestClientFactory;
 import org.zanata.rest.dto.resource.Resource;
 import org.zanata.rest.dto.resource.TranslationsResource;
-import org.zanata.util.HashUtil;
 
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.sun.jersey.api.client.ClientResponse;
 
 /**
@@ -55,6 +69,21 @@ public class PullCommand extends PushPullCommand<PullOptions> {
         strategies.put(PROJECT_TYPE_OFFLINE_PO, OfflinePoStrategy.class);
     }
 
+    private final ThreadLocal<PullStrategy> threadStrategy =
+            new ThreadLocal<PullStrategy>() {
+                @Override
+                protected PullStrategy initialValue() {
+                    // strategies are not thread-safe, so each pull thread
+                    // has its own
+                    try {
+                        return createStrategy(getOpts());
+                    } catch (ReflectiveOperationException e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+            };
+    private SourceDocCache sourceDocCache;
+
     public PullCommand(PullOptions opts) {
         super(opts);
     }
@@ -139,7 +168,7 @@ public class PullCommand extends PushPullCommand<PullOptions> {
         LocaleList locales = getOpts().getLocaleMapList();
         if (locales == null && (getOpts().getPullType() != PushPullType.Source))
             throw new ConfigException("no locales specified");
-        PullStrategy strat = createStrategy(
+        final PullStrategy strat = createStrategy(
                 getOpts());
 
         if (strat.isTransOnly()
@@ -201,133 +230,254 @@ public class PullCommand extends PushPullCommand<PullOptions> {
             confirmWithUser("This will overwrite/delete any existing translations in the above directory.\n");
         }
 
+        sourceDocCache =
+                new SourceDocCache(getCacheFile("source-docs"),
+                        getOpts().getUrl() + " " + getOpts().getProj() + " "
+                                + getOpts().getProjectVersion());
         if (getOpts().getPurgeCache()) {
             eTagCache.clear();
+            sourceDocCache.clear();
         }
 
-        for (String qualifiedDocName : docsToPull) {
-            try {
-                Resource doc = null;
-                String localDocName = unqualifiedDocName(qualifiedDocName);
-                // TODO follow a Link instead of generating the URI
-                String docUri =
-                        RestUtil.convertToDocumentURIId(qualifiedDocName);
-                boolean createSkeletons = getOpts().getCreateSkeletons();
-                if (strat.needsDocToWriteTrans() || pullSrc || createSkeletons) {
-                    doc = sourceDocResourceClient.getResource(docUri,
-                            strat.getExtensions());
-                    doc.setName(localDocName);
-                }
+        threadStrategy.set(strat);
+        int threads = Math.max(1, getOpts().getPullThreads());
+        ExecutorService executor = null;
+        if (threads > 1) {
+            log.info("Pulling up to {} documents and locales concurrently",
+                    threads);
+            executor =
+                    Executors.newFixedThreadPool(threads,
+                            new ThreadFactoryBuilder().setDaemon(true)
+                                    .setNameFormat("zanata-pull-%d").build());
+        }
+        boolean buffered = executor != null;
+        Deque<PendingPull> inFlight = new ArrayDeque<PendingPull>(threads);
+        try {
+            for (String qualifiedDocName : docsToPull) {
+                final DocToPull doc =
+                        new DocToPull(qualifiedDocName, strat.getExtensions());
                 if (pullSrc) {
-                    writeSrcDoc(strat, doc);
+                    final BufferedLogger taskLog =
+                            new BufferedLogger(log, buffered);
+                    submitPull(executor, inFlight, threads, qualifiedDocName,
+                            false, taskLog, new Callable<Void>() {
+                                @Override
+                                public Void call() throws IOException {
+                                    writeSrcDoc(threadStrategy.get(),
+                                            doc.sourceDoc.get(), taskLog);
+                                    return null;
+                                }
+                            });
                 }
-
                 if (pullTarget) {
-                    for (LocaleMapping locMapping : locales) {
-                        LocaleId locale = new LocaleId(locMapping.getLocale());
-                        String eTag = null;
-                        File transFile =
-                                strat.getTransFileToWrite(localDocName,
-                                        locMapping);
-                        ETagCacheEntry eTagCacheEntry =
-                                eTagCache.findEntry(localDocName,
-                                        locale.getId());
-
-                        if (getOpts().getUseCache() && eTagCacheEntry != null) {
-                            // Check the last updated date on the file matches
-                            // what's in the cache
-                            // only then use the cached ETag
-                            if (transFile.exists()
-                                    && Long.toString(transFile.lastModified())
-                                            .equals(eTagCacheEntry
-                                                    .getLocalFileTime())) {
-                                eTag = eTagCacheEntry.getServerETag();
-                            }
-                        }
-
-                        ClientResponse transResponse =
-                                transDocResourceClient.getTranslations(docUri,
-                                        locale, strat.getExtensions(),
-                                        createSkeletons, eTag);
-
-                        // ignore 404 (no translation yet for specified
-                        // document)
-                        if (transResponse.getClientResponseStatus() == ClientResponse.Status.NOT_FOUND) {
-                            if (!createSkeletons) {
-                                log.info(
-                                        "No translations found in locale {} for document {}",
-                                        locale, localDocName);
-                            } else {
-                                // Write the skeleton
-                                writeTargetDoc(strat, localDocName, locMapping,
-                                    doc, null,
-                                    transResponse.getHeaders()
-                                        .getFirst(HttpHeaders.ETAG));
-                            }
-                        } else if (transResponse.getClientResponseStatus() == ClientResponse.Status.NOT_MODIFIED) {
-                            // 304 NOT MODIFIED (the document can stay the same)
-                            log.info(
-                                    "No changes in translations for locale {} and document {}",
-                                    locale, localDocName);
-
-                            // Check the file's MD5 matches what's stored in the
-                            // cache. If not, it needs to be fetched again (with
-                            // no etag)
-                            String fileChecksum =
-                                    HashUtil.getMD5Checksum(transFile);
-                            if (!fileChecksum.equals(eTagCacheEntry
-                                    .getLocalFileMD5())) {
-                                transResponse =
-                                        transDocResourceClient.getTranslations(
-                                                docUri, locale,
-                                                strat.getExtensions(),
-                                                createSkeletons, null);
-                                ClientUtil.checkResult(transResponse);
-                                // rewrite the target document
-                                writeTargetDoc(strat, localDocName, locMapping,
-                                    doc, transResponse.getEntity(TranslationsResource.class),
-                                    transResponse.getHeaders()
-                                        .getFirst(HttpHeaders.ETAG));
-                            }
-                        } else {
-                            ClientUtil.checkResult(transResponse);
-                            TranslationsResource targetDoc =
-                                transResponse.getEntity(TranslationsResource.class);
-
-                            // Write the target document
-                            writeTargetDoc(strat, localDocName, locMapping,
-                                    doc, targetDoc,
-                                    transResponse.getHeaders()
-                                            .getFirst(HttpHeaders.ETAG));
-                        }
+                    for (int i = 0; i < locales.size(); i++) {
+                        final LocaleMapping locMapping = locales.get(i);
+                        final BufferedLogger taskLog =
+                                new BufferedLogger(log, buffered);
+                        // the ETag cache is written once the document's last
+                        // locale has been pulled
+                        boolean lastForDoc = i == locales.size() - 1;
+                        submitPull(executor, inFlight, threads,
+                                qualifiedDocName, lastForDoc, taskLog,
+                                new Callable<Void>() {
+                                    @Override
+                                    public Void call() throws IOException {
+                                        pullTranslations(threadStrategy.get(),
+                                                doc, locMapping, taskLog);
+                                        return null;
+                                    }
+                                });
                     }
-
-                    // write the cache
-                    super.storeETagCache();
                 }
+            }
+            while (!inFlight.isEmpty()) {
+                awaitPull(inFlight.removeFirst());
+            }
+        } finally {
+            // after a failure, abandon anything still in flight
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+            if (pullTarget) {
+                compactETagCache();
+            }
+        }
+    }
 
-            } catch (RuntimeException e) {
-                String message =
-                        "Operation failed: " + e.getMessage() + "\n\n"
-                                + "    To retry from the last document, please set the following option(s):\n\n"
-                                + "        ";
-                if (getOpts().getEnableModules()) {
-                    message +=
-                            "--resume-from " + getOpts().getCurrentModule(true)
-                                    + " ";
+    /**
+     * A document being pulled. The source document is only fetched once
+     * something needs it, so that unchanged translations cost one request
+     * each.
+     */
+    private class DocToPull {
+        private final String localDocName;
+        private final String docUri;
+        private final Supplier<Resource> sourceDoc;
+
+        private DocToPull(String qualifiedDocName,
+                final Set<String> extensions) {
+            localDocName = unqualifiedDocName(qualifiedDocName);
+            // TODO follow a Link instead of generating the URI
+            docUri = RestUtil.convertToDocumentURIId(qualifiedDocName);
+            sourceDoc = Suppliers.memoize(new Supplier<Resource>() {
+                @Override
+                public Resource get() {
+                    Resource doc = getSourceDoc(docUri, extensions);
+                    doc.setName(localDocName);
+                    return doc;
                 }
-                // Note: '.' is included after trailing newlines to prevent them
-                // being stripped,
-                // since stripping newlines can cause extra text to be appended
-                // to the options.
-                message +=
-                        getOpts().buildFromDocArgument(qualifiedDocName)
-                                + "\n\n.";
-                log.error(message);
-                throw new RuntimeException(e.getMessage(), e);
-            }
+            });
+        }
+    }
+
+    /**
+     * A source or translation file which has been handed to a pull thread (or
+     * already pulled, when pulling sequentially).
+     */
+    private static class PendingPull {
+        private final String qualifiedDocName;
+        private final BufferedLogger taskLog;
+        private final boolean lastForDoc;
+        private final Future<Void> result;
+
+        private PendingPull(String qualifiedDocName, BufferedLogger taskLog,
+                boolean lastForDoc, Future<Void> result) {
+            this.qualifiedDocName = qualifiedDocName;
+            this.taskLog = taskLog;
+            this.lastForDoc = lastForDoc;
+            this.result = result;
+        }
+    }
+
+    /**
+     * Runs a pull task on the executor, or on this thread if executor is
+     * null, with no more than {@code threads} tasks in flight at any time.
+     */
+    private void submitPull(ExecutorService executor,
+            Deque<PendingPull> inFlight, int threads, String qualifiedDocName,
+            boolean lastForDoc, BufferedLogger taskLog, Callable<Void> task) {
+        if (inFlight.size() >= threads) {
+            awaitPull(inFlight.removeFirst());
+        }
+        Future<Void> result;
+        if (executor == null) {
+            FutureTask<Void> futureTask = new FutureTask<Void>(task);
+            futureTask.run();
+            result = futureTask;
+        } else {
+            result = executor.submit(task);
         }
+        inFlight.addLast(new PendingPull(qualifiedDocName, taskLog,
+                lastForDoc, result));
+    }
+
+    /**
+     * Waits for a pull task and writes out its log. Tasks are awaited in the
+     * order they were submitted, so the log reads as it would for a
+     * sequential pull, and the first failure is reported with the right
+     * --from-doc.
+     */
+    private void awaitPull(PendingPull pull) {
+        try {
+            pull.result.get();
+            pull.taskLog.flush();
+        } catch (ExecutionException e) {
+            pull.taskLog.flush();
+            throw pullFailed(pull.qualifiedDocName, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw pullFailed(pull.qualifiedDocName, e);
+        }
+        if (pull.lastForDoc) {
+            storeETagCache();
+        }
+    }
 
+    /**
+     * Logs instructions for resuming the pull from the failed document, and
+     * returns an exception to be thrown.
+     */
+    private RuntimeException pullFailed(String qualifiedDocName, Throwable e) {
+        String message =
+                "Operation failed: " + e.getMessage() + "\n\n"
+                        + "    To retry from the last document, please set the following option(s):\n\n"
+                        + "        ";
+        if (getOpts().getEnableModules()) {
+            message +=
+                    "--resume-from " + getOpts().getCurrentModule(true)
+                            + " ";
+        }
+        // Note: '.' is included after trailing newlines to prevent them
+        // being stripped,
+        // since stripping newlines can cause extra text to be appended
+        // to the options.
+        message +=
+                getOpts().buildFromDocArgument(qualifiedDocName)
+                        + "\n\n.";
+        log.error(message);
+        return new RuntimeException(e.getMessage(), e);
+    }
+
+    /**
+     * Pulls the translations of a document for one locale, unless they have
+     * not changed since the last pull.
+     */
+    private void pullTranslations(PullStrategy strat, DocToPull doc,
+            LocaleMapping locMapping, BufferedLogger taskLog)
+            throws IOException {
+        String localDocName = doc.localDocName;
+        String docUri = doc.docUri;
+        boolean createSkeletons = getOpts().getCreateSkeletons();
+        boolean needsDocToWriteTrans =
+                strat.needsDocToWriteTrans() || createSkeletons;
+        LocaleId locale = new LocaleId(locMapping.getLocale());
+        String eTag = null;
+        File transFile = strat.getTransFileToWrite(localDocName, locMapping);
+        ETagCacheEntry eTagCacheEntry =
+                eTagCache.findEntry(localDocName, locale.getId());
+
+        if (getOpts().getUseCache() && eTagCacheEntry != null) {
+            eTag = cachedETag(transFile, eTagCacheEntry);
+        }
+
+        ClientResponse transResponse =
+                transDocResourceClient.getTranslations(docUri, locale,
+                        strat.getExtensions(), createSkeletons, eTag);
+
+        // ignore 404 (no translation yet for specified document)
+        if (transResponse.getClientResponseStatus() == ClientResponse.Status.NOT_FOUND) {
+            if (!createSkeletons) {
+                taskLog.info(
+                        "No translations found in locale {} for document {}",
+                        locale, localDocName);
+            } else {
+                // Write the skeleton
+                writeTargetDoc(strat, localDocName, locMapping,
+                        doc.sourceDoc.get(), null, transResponse
+                                .getHeaders().getFirst(HttpHeaders.ETAG),
+                        taskLog);
+            }
+        } else if (transResponse.getClientResponseStatus() == ClientResponse.Status.NOT_MODIFIED) {
+            // 304 NOT MODIFIED (the document can stay the same)
+            taskLog.info(
+                    "No changes in translations for locale {} and document {}",
+                    locale, localDocName);
+
+            // Check the file still matches what's stored in the cache. If
+            // not, it needs to be fetched again (with no etag)
+            if (!localFileUnchanged(transFile, eTagCacheEntry)) {
+                transResponse =
+                        transDocResourceClient.getTranslations(docUri, locale,
+                                strat.getExtensions(), createSkeletons, null);
+                // rewrite the target document
+                writeTargetDoc(strat, doc, locMapping, transResponse,
+                        needsDocToWriteTrans, taskLog);
+            }
+        } else {
+            // Write the target document
+            writeTargetDoc(strat, doc, locMapping, transResponse,
+                    needsDocToWriteTrans, taskLog);
+        }
     }
 
     /**
@@ -354,18 +504,119 @@ public class PullCommand extends PushPullCommand<PullOptions> {
         return docsToPull;
     }
 
-    private void writeSrcDoc(PullStrategy strat, Resource doc)
-            throws IOException {
+    /**
+     * Fetches a source document from the server, unless the cached copy is
+     * still current (according to its ETag).
+     */
+    private Resource getSourceDoc(String docUri, Set<String> extensions) {
+        if (!getOpts().getUseCache()) {
+            return sourceDocResourceClient.getResource(docUri, extensions);
+        }
+        String eTag = sourceDocCache.getETag(docUri, extensions);
+        ClientResponse response =
+                sourceDocResourceClient.getResourceIfNoneMatch(docUri,
+                        extensions, eTag);
+        if (response.getClientResponseStatus() == ClientResponse.Status.NOT_MODIFIED) {
+            response.close();
+            Resource doc = sourceDocCache.getResource(docUri, extensions);
+            if (doc != null) {
+                log.debug("No changes in source document {}; using cached copy",
+                        docUri);
+                return doc;
+            }
+            // the cached copy has gone missing, so fetch it again
+            response =
+                    sourceDocResourceClient.getResourceIfNoneMatch(docUri,
+                            extensions, null);
+        }
+        ClientUtil.checkResult(response);
+        Resource doc = response.getEntity(Resource.class);
+        String newETag = response.getHeaders().getFirst(HttpHeaders.ETAG);
+        if (newETag != null && !getOpts().isDryRun()) {
+            sourceDocCache.put(docUri, extensions, newETag, doc);
+        }
+        return doc;
+    }
+
+    private void writeSrcDoc(PullStrategy strat, Resource doc,
+            BufferedLogger taskLog) throws IOException {
         if (!getOpts().isDryRun()) {
-            log.info("Writing source file for document {}", doc.getName());
+            taskLog.info("Writing source file for document {}", doc.getName());
             strat.writeSrcFile(doc);
         } else {
-            log.info(
+            taskLog.info(
                     "Writing source file for document {} (skipped due to dry run)",
                     doc.getName());
         }
     }
 
+    /**
+     * Writes the translations from a server response. If the strategy can
+     * write them straight from the XML, the response is streamed to the file
+     * without building a TranslationsResource, so that large documents are
+     * not held in memory. If the streamed targets turn out to be out of
+     * order, the translations are fetched again and written from a
+     * TranslationsResource.
+     */
+    private void writeTargetDoc(PullStrategy strat, DocToPull doc,
+            LocaleMapping locMapping, ClientResponse transResponse,
+            boolean needsDocToWriteTrans, BufferedLogger taskLog)
+            throws IOException {
+        ClientUtil.checkResult(transResponse);
+        String serverETag =
+                transResponse.getHeaders().getFirst(HttpHeaders.ETAG);
+        if (!(strat instanceof StreamingPullStrategy)
+                || !isXml(transResponse.getType())) {
+            writeTargetDoc(strat, doc.localDocName, locMapping,
+                    needsDocToWriteTrans ? doc.sourceDoc.get() : null,
+                    transResponse.getEntity(TranslationsResource.class),
+                    serverETag, taskLog);
+            return;
+        }
+        try {
+            if (!getOpts().isDryRun()) {
+                taskLog.info(
+                        "Writing translation file in locale {} for document {}",
+                        locMapping.getLocalLocale(), doc.localDocName);
+                FileDetails fileDetails =
+                        ((StreamingPullStrategy) strat).writeTransFile(
+                                needsDocToWriteTrans ? doc.sourceDoc.get()
+                                        : null, doc.localDocName,
+                                locMapping,
+                                transResponse.getEntityInputStream());
+                addETagCacheEntry(doc.localDocName, locMapping, fileDetails,
+                        serverETag);
+            } else {
+                taskLog.info(
+                        "Writing translation file in locale {} for document {} (skipped due to dry run)",
+                        locMapping.getLocalLocale(), doc.localDocName);
+            }
+        } catch (TranslationsOutOfOrderException e) {
+            log.debug("{}; fetching them again for document {}",
+                    e.getMessage(), doc.localDocName);
+            transResponse.close();
+            transResponse =
+                    transDocResourceClient.getTranslations(doc.docUri,
+                            new LocaleId(locMapping.getLocale()),
+                            strat.getExtensions(),
+                            getOpts().getCreateSkeletons(), null);
+            ClientUtil.checkResult(transResponse);
+            writeTargetDoc(strat, doc.localDocName, locMapping,
+                    needsDocToWriteTrans ? doc.sourceDoc.get() : null,
+                    transResponse.getEntity(TranslationsResource.class),
+                    transResponse.getHeaders().getFirst(HttpHeaders.ETAG),
+                    taskLog);
+        } finally {
+            transResponse.close();
+        }
+    }
+
+    private static boolean isXml(MediaType type) {
+        return type != null
+                && (type.getSubtype().equals("xml") || type.getSubtype()
+                        .endsWith("+xml"));
+    }
+
     /**
      *
      * @param strat
@@ -374,31 +625,38 @@ public class PullCommand extends PushPullCommand<PullOptions> {
      * @param docWithLocalName
      *            may be null if needsDocToWriteTrans() returns false
      * @param targetDoc
+     * @param taskLog
      * @throws IOException
      */
     private void writeTargetDoc(PullStrategy strat, String localDocName,
             LocaleMapping locMapping, Resource docWithLocalName,
-            TranslationsResource targetDoc, String serverETag)
-            throws IOException {
+            TranslationsResource targetDoc, String serverETag,
+            BufferedLogger taskLog) throws IOException {
         if (!getOpts().isDryRun()) {
-            log.info("Writing translation file in locale {} for document {}",
+            taskLog.info("Writing translation file in locale {} for document {}",
                     locMapping.getLocalLocale(), localDocName);
             FileDetails fileDetails =
                     strat.writeTransFile(docWithLocalName, localDocName,
                             locMapping, targetDoc);
 
-            // Insert to cache if the strategy returned file details and we are
-            // using the cache
-            if (getOpts().getUseCache() && fileDetails != null) {
-                eTagCache.addEntry(new ETagCacheEntry(localDocName, locMapping
-                        .getLocale(), Long.toString(fileDetails.getFile()
-                        .lastModified()), fileDetails.getMd5(), serverETag));
-            }
+            addETagCacheEntry(localDocName, locMapping, fileDetails,
+                    serverETag);
         } else {
-            log.info(
+            taskLog.info(
                     "Writing translation file in locale {} for document {} (skipped due to dry run)",
                     locMapping.getLocalLocale(), localDocName);
         }
     }
 
+    private void addETagCacheEntry(String localDocName,
+            LocaleMapping locMapping, FileDetails fileDetails,
+            String serverETag) {
+        // Insert to cache if the strategy returned file details and we are
+        // using the cache
+        if (getOpts().getUseCache() && fileDetails != null) {
+            addETagCacheEntry(localDocName, locMapping.getLocale(),
+                    fileDetails.getFile(), fileDetails.getMd5(), serverETag);
+        }
+    }
+
 }
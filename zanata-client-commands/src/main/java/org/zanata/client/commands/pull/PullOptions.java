@@ -43,4 +43,10 @@ public interface PullOptions extends PushPullOptions {
     boolean getUseCache();
 
     boolean isContinueAfterError();
+
+    /**
+     * Maximum number of documents and locales to pull concurrently (1 means
+     * pull sequentially).
+     */
+    int getPullThreads();
 }
@@ -41,6 +41,7 @@ public class PullOptionsImpl extends AbstractPushPullOptionsImpl<PullOptions>
     private static final boolean DEFAULT_USE_CACHE = true;
     private static final boolean DEFAULT_PURGE_CACHE = false;
     private static final boolean DEFAULT_CONTINUE_AFTER_ERROR = false;
+    private static final int DEFAULT_PULL_THREADS = 1;
 
     private String pullType = DEFAULT_PULL_TYPE;
 
@@ -50,6 +51,7 @@ public class PullOptionsImpl extends AbstractPushPullOptionsImpl<PullOptions>
     private boolean useCache = DEFAULT_USE_CACHE;
     private boolean purgeCache = DEFAULT_PURGE_CACHE;
     private boolean continueAfterError = DEFAULT_CONTINUE_AFTER_ERROR;
+    private int pullThreads = DEFAULT_PULL_THREADS;
 
     @Override
     public ZanataCommand initCommand() {
@@ -164,4 +166,20 @@ public class PullOptionsImpl extends AbstractPushPullOptionsImpl<PullOptions>
     public boolean isContinueAfterError() {
         return continueAfterError;
     }
+
+    @Override
+    public int getPullThreads() {
+        return pullThreads;
+    }
+
+    @Option(
+            name = "--threads",
+            metaVar = "N",
+            usage = "Maximum number of documents and locales to pull concurrently.\n"
+                    + "Log output is still reported in document order.\n"
+                    + "(default: " + DEFAULT_PULL_THREADS + ")")
+    public
+            void setPullThreads(int pullThreads) {
+        this.pullThreads = pullThreads;
+    }
 }
@@ -20,18 +20,22 @@
  */
 package org.zanata.client.commands.pull;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.List;
 import java.util.SortedSet;
 import java.util.TreeSet;
 
+import javax.ws.rs.core.HttpHeaders;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.zanata.client.commands.PushPullCommand;
 import org.zanata.client.commands.PushPullType;
 import org.zanata.client.config.LocaleList;
 import org.zanata.client.config.LocaleMapping;
+import org.zanata.client.etag.ETagCacheEntry;
 import org.zanata.client.exceptions.ConfigException;
 import org.zanata.common.LocaleId;
 import org.zanata.rest.client.ClientUtil;
@@ -59,6 +63,11 @@ public class RawPullCommand extends PushPullCommand<PullOptions> {
         fileResourceClient = getClientFactory().getFileResourceClient();
     }
 
+    public RawPullCommand(PullOptions opts, RestClientFactory clientFactory) {
+        super(opts, clientFactory);
+        fileResourceClient = getClientFactory().getFileResourceClient();
+    }
+
     @VisibleForTesting
     public RawPullCommand(PullOptions opts,
             FileResourceClient fileResourceClient,
@@ -141,83 +150,173 @@ public class RawPullCommand extends PushPullCommand<PullOptions> {
             confirmWithUser("This will overwrite/delete any existing translations in the above directory.\n");
         }
 
-        for (String qualifiedDocName : docsToPull) {
-            // TODO add filtering by file type? e.g. pull all dtd documents
-            // only.
-
-            try {
-                String localDocName = unqualifiedDocName(qualifiedDocName);
-
-                if (pullSrc) {
-                    ClientResponse response =
-                            fileResourceClient.downloadSourceFile(
-                                    getOpts().getProj(), getOpts()
-                                            .getProjectVersion(),
-                                    FileResource.FILETYPE_RAW_SOURCE_DOCUMENT,
-                                    qualifiedDocName);
-                    if (response.getClientResponseStatus() == ClientResponse.Status.NOT_FOUND) {
-                        log.warn(
-                                "No source document file is available for [{}]. Skipping.",
-                                qualifiedDocName);
-                    } else {
-                        ClientUtil.checkResult(response);
-                        InputStream srcDoc = response
-                                .getEntity(InputStream.class);
-                        if (srcDoc != null) {
-                            try {
-                                strat.writeSrcFile(localDocName, srcDoc);
-                            } finally {
-                                srcDoc.close();
-                            }
-                        }
-                    }
-                }
+        if (getOpts().getPurgeCache()) {
+            eTagCache.clear();
+        }
 
-                if (pullTarget) {
-                    String fileExtension;
-                    if (getOpts().getIncludeFuzzy()) {
-                        fileExtension =
-                                FileResource.FILETYPE_TRANSLATED_APPROVED_AND_FUZZY;
-                    } else {
-                        fileExtension =
-                                FileResource.FILETYPE_TRANSLATED_APPROVED;
+        String fileExtension;
+        if (getOpts().getIncludeFuzzy()) {
+            fileExtension =
+                    FileResource.FILETYPE_TRANSLATED_APPROVED_AND_FUZZY;
+        } else {
+            fileExtension = FileResource.FILETYPE_TRANSLATED_APPROVED;
+        }
+
+        try {
+            for (String qualifiedDocName : docsToPull) {
+                // TODO add filtering by file type? e.g. pull all dtd
+                // documents only.
+
+                try {
+                    String localDocName = unqualifiedDocName(qualifiedDocName);
+
+                    if (pullSrc) {
+                        pullSrcFile(strat, localDocName, qualifiedDocName);
                     }
 
-                    for (LocaleMapping locMapping : locales) {
-                        LocaleId locale = new LocaleId(locMapping.getLocale());
-                        ClientResponse response =
-                                fileResourceClient.downloadTranslationFile(getOpts()
-                                        .getProj(), getOpts()
-                                        .getProjectVersion(), locale.getId(),
-                                        fileExtension, qualifiedDocName);
-                        if (response.getClientResponseStatus() == ClientResponse.Status.NOT_FOUND) {
-                            log.info(
-                                    "No translation document file found in locale {} for document [{}]",
-                                    locale, qualifiedDocName);
-                        } else {
-                            ClientUtil.checkResult(response);
-                            InputStream transDoc =
-                                    (InputStream) response
-                                            .getEntity(InputStream.class);
-                            if (transDoc != null) {
-                                try {
-                                    strat.writeTransFile(localDocName, locMapping,
-                                            transDoc);
-                                } finally {
-                                    transDoc.close();
-                                }
-                            }
+                    if (pullTarget) {
+                        for (LocaleMapping locMapping : locales) {
+                            pullTransFile(strat, localDocName,
+                                    qualifiedDocName, locMapping,
+                                    fileExtension);
                         }
                     }
+                    if (getOpts().getUseCache()) {
+                        storeETagCache();
+                    }
+                } catch (IOException | RuntimeException e) {
+                    log.error(
+                            "Operation failed: " + e.getMessage() + "\n\n"
+                            + "    To retry from the last document, please add the option: {}\n",
+                            getOpts().buildFromDocArgument(qualifiedDocName));
+                    throw new RuntimeException(e.getMessage(), e);
                 }
-            } catch (IOException | RuntimeException e) {
-                log.error(
-                        "Operation failed: " + e.getMessage() + "\n\n"
-                        + "    To retry from the last document, please add the option: {}\n",
-                        getOpts().buildFromDocArgument(qualifiedDocName));
-                throw new RuntimeException(e.getMessage(), e);
             }
+        } finally {
+            if (getOpts().getUseCache()) {
+                compactETagCache();
+            }
+        }
+    }
+
+    /**
+     * Downloads a source file, unless the local copy is still current
+     * (according to its ETag).
+     */
+    private void pullSrcFile(RawPullStrategy strat, String localDocName,
+            String qualifiedDocName) throws IOException {
+        File srcFile = strat.getSrcFileToWrite(localDocName);
+        // source files are cached with no language
+        ETagCacheEntry eTagCacheEntry = findETagCacheEntry(localDocName, null);
+        String eTag = null;
+        if (eTagCacheEntry != null) {
+            eTag = cachedETag(srcFile, eTagCacheEntry);
+        }
+        ClientResponse response =
+                fileResourceClient.downloadSourceFile(getOpts().getProj(),
+                        getOpts().getProjectVersion(),
+                        FileResource.FILETYPE_RAW_SOURCE_DOCUMENT,
+                        qualifiedDocName, eTag);
+        if (response.getClientResponseStatus() == ClientResponse.Status.NOT_MODIFIED) {
+            response.close();
+            if (localFileUnchanged(srcFile, eTagCacheEntry)) {
+                log.info("No changes in source document [{}]",
+                        qualifiedDocName);
+                return;
+            }
+            // the local file has changed, so fetch it again (with no etag)
+            response =
+                    fileResourceClient.downloadSourceFile(getOpts()
+                            .getProj(), getOpts().getProjectVersion(),
+                            FileResource.FILETYPE_RAW_SOURCE_DOCUMENT,
+                            qualifiedDocName, null);
+        }
+        if (response.getClientResponseStatus() == ClientResponse.Status.NOT_FOUND) {
+            log.warn(
+                    "No source document file is available for [{}]. Skipping.",
+                    qualifiedDocName);
+        } else {
+            ClientUtil.checkResult(response);
+            InputStream srcDoc = response.getEntity(InputStream.class);
+            if (srcDoc != null) {
+                String md5;
+                try {
+                    md5 = strat.writeSrcFile(localDocName, srcDoc);
+                } finally {
+                    srcDoc.close();
+                }
+                if (getOpts().getUseCache()) {
+                    addETagCacheEntry(localDocName, null, srcFile, md5,
+                            response.getHeaders().getFirst(HttpHeaders.ETAG));
+                }
+            }
+        }
+    }
+
+    /**
+     * Downloads a translation file, unless the local copy is still current
+     * (according to its ETag).
+     */
+    private void pullTransFile(RawPullStrategy strat, String localDocName,
+            String qualifiedDocName, LocaleMapping locMapping,
+            String fileExtension) throws IOException {
+        LocaleId locale = new LocaleId(locMapping.getLocale());
+        File transFile = strat.getTransFileToWrite(localDocName, locMapping);
+        ETagCacheEntry eTagCacheEntry =
+                findETagCacheEntry(localDocName, locale.getId());
+        String eTag = null;
+        if (eTagCacheEntry != null) {
+            eTag = cachedETag(transFile, eTagCacheEntry);
+        }
+        ClientResponse response =
+                fileResourceClient.downloadTranslationFile(getOpts()
+                        .getProj(), getOpts().getProjectVersion(), locale
+                        .getId(), fileExtension, qualifiedDocName, eTag);
+        if (response.getClientResponseStatus() == ClientResponse.Status.NOT_MODIFIED) {
+            response.close();
+            if (localFileUnchanged(transFile, eTagCacheEntry)) {
+                log.info(
+                        "No changes in translation document file in locale {} for document [{}]",
+                        locale, qualifiedDocName);
+                return;
+            }
+            // the local file has changed, so fetch it again (with no etag)
+            response =
+                    fileResourceClient.downloadTranslationFile(getOpts()
+                            .getProj(), getOpts().getProjectVersion(),
+                            locale.getId(), fileExtension, qualifiedDocName,
+                            null);
+        }
+        if (response.getClientResponseStatus() == ClientResponse.Status.NOT_FOUND) {
+            log.info(
+                    "No translation document file found in locale {} for document [{}]",
+                    locale, qualifiedDocName);
+        } else {
+            ClientUtil.checkResult(response);
+            InputStream transDoc = response.getEntity(InputStream.class);
+            if (transDoc != null) {
+                String md5;
+                try {
+                    md5 = strat.writeTransFile(localDocName, locMapping,
+                            transDoc);
+                } finally {
+                    transDoc.close();
+                }
+                if (getOpts().getUseCache()) {
+                    addETagCacheEntry(localDocName, locale.getId(),
+                            transFile, md5, response.getHeaders()
+                                    .getFirst(HttpHeaders.ETAG));
+                }
+            }
+        }
+    }
+
+    private ETagCacheEntry findETagCacheEntry(String localDocName,
+            String language) {
+        if (!getOpts().getUseCache()) {
+            return null;
         }
+        return eTagCache.findEntry(localDocName, language);
     }
 
 }
@@ -25,7 +25,11 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 
+import org.apache.commons.codec.binary.Hex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.zanata.client.commands.QualifiedSrcDocName;
@@ -50,28 +54,41 @@ public class RawPullStrategy {
         this.opts = opts;
     }
 
-    public void writeSrcFile(String localDocName, InputStream srcFile)
+    public File getSrcFileToWrite(String localDocName) {
+        return new File(opts.getSrcDir(), localDocName);
+    }
+
+    public File getTransFileToWrite(String localDocName,
+            LocaleMapping localeMapping) {
+        return new TransFileResolver(opts).resolveTransFile(
+                QualifiedSrcDocName.from(localDocName), localeMapping);
+    }
+
+    /**
+     * @return the MD5 hash of the file written, in hex
+     */
+    public String writeSrcFile(String localDocName, InputStream srcFile)
             throws IOException {
         if (srcFile == null) {
             throw new RuntimeException("no data for downloaded file "
                     + localDocName);
         }
-        File srcDir = opts.getSrcDir();
-        File file = new File(srcDir, localDocName);
-        logAndStreamToFile(srcFile, file);
+        File file = getSrcFileToWrite(localDocName);
+        return logAndStreamToFile(srcFile, file);
     }
 
-    public void writeTransFile(String localDocName,
+    /**
+     * @return the MD5 hash of the file written, in hex
+     */
+    public String writeTransFile(String localDocName,
             LocaleMapping localeMapping, InputStream transFile)
             throws IOException {
         if (transFile == null) {
             throw new RuntimeException("no data for downloaded file "
                     + localDocName);
         }
-        File file = new TransFileResolver(opts).resolveTransFile(
-                QualifiedSrcDocName.from(localDocName),
-                localeMapping);
-        logAndStreamToFile(transFile, file);
+        File file = getTransFileToWrite(localDocName, localeMapping);
+        return logAndStreamToFile(transFile, file);
     }
 
     /**
@@ -80,9 +97,10 @@ public class RawPullStrategy {
      *
      * @param stream
      * @param file
+     * @return the MD5 hash of the file written, in hex
      * @throws IOException
      */
-    private void logAndStreamToFile(InputStream stream, File file)
+    private String logAndStreamToFile(InputStream stream, File file)
             throws IOException {
         if (file.exists()) {
             log.warn("overwriting existing document at [{}]",
@@ -91,12 +109,19 @@ public class RawPullStrategy {
             log.info("writing new document to [{}]", file.getAbsolutePath());
         }
         PathUtil.makeDirs(file.getParentFile());
-        writeStreamToFile(stream, file);
+        return writeStreamToFile(stream, file);
     }
 
-    private void writeStreamToFile(InputStream stream, File file)
+    private String writeStreamToFile(InputStream stream, File file)
             throws IOException {
-        try (OutputStream out = new FileOutputStream(file)) {
+        MessageDigest md;
+        try {
+            md = MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+        try (OutputStream out =
+                new DigestOutputStream(new FileOutputStream(file), md)) {
             int read;
             byte[] buffer = new byte[1024];
             while ((read = stream.read(buffer)) != -1) {
@@ -104,6 +129,7 @@ public class RawPullStrategy {
             }
             out.flush();
         }
+        return new String(Hex.encodeHex(md.digest()));
     }
 
 }
@@ -0,0 +1,268 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.client.commands.pull;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+import org.zanata.common.ContentState;
+import org.zanata.rest.dto.extensions.comment.SimpleComment;
+import org.zanata.rest.dto.extensions.gettext.HeaderEntry;
+import org.zanata.rest.dto.extensions.gettext.PoHeader;
+import org.zanata.rest.dto.extensions.gettext.PoTargetHeader;
+import org.zanata.rest.dto.extensions.gettext.PotEntryHeader;
+import org.zanata.rest.dto.resource.Resource;
+import org.zanata.rest.dto.resource.TextFlow;
+import org.zanata.rest.dto.resource.TextFlowTarget;
+
+/**
+ * Writes a PO file one entry at a time, so that the translations of a
+ * document can be written as they are read from the server, without
+ * building a TranslationsResource first.
+ * <p>
+ * The header is built from the PO header of the source document, the
+ * encoding fields and the PO target header (in that order, later values
+ * replacing earlier ones), as PoWriter2 does.
+ */
+class StreamingPoWriter {
+    private static final String FUZZY = "fuzzy";
+
+    private final Writer writer;
+    private final boolean encodeTabs;
+    private final boolean mapIdToMsgctxt;
+
+    /**
+     * @param writer
+     *            the PO file, which must be written as UTF-8
+     * @param encodeTabs
+     *            whether to write tabs as \t
+     * @param mapIdToMsgctxt
+     *            whether to write the text flow id as msgctxt (for offline
+     *            PO files)
+     */
+    StreamingPoWriter(Writer writer, boolean encodeTabs,
+            boolean mapIdToMsgctxt) {
+        this.writer = writer;
+        this.encodeTabs = encodeTabs;
+        this.mapIdToMsgctxt = mapIdToMsgctxt;
+    }
+
+    /**
+     * Writes the header entry. This must be called once, before any calls to
+     * {@link #writeEntry}.
+     *
+     * @param doc
+     *            source document
+     * @param targetHeader
+     *            may be null if the translations have no PO header
+     */
+    void writeHeader(Resource doc, @Nullable PoTargetHeader targetHeader)
+            throws IOException {
+        Map<String, String> fields = new LinkedHashMap<String, String>();
+        PoHeader poHeader = doc.getExtensions(true).findByType(PoHeader.class);
+        String comment = null;
+        if (poHeader != null) {
+            copyFields(poHeader.getEntries(), fields);
+            comment = poHeader.getComment();
+        }
+        fields.put("MIME-Version", "1.0");
+        fields.put("Content-Type", "text/plain; charset=UTF-8");
+        fields.put("Content-Transfer-Encoding", "8bit");
+        if (targetHeader != null) {
+            copyFields(targetHeader.getEntries(), fields);
+            comment = targetHeader.getComment();
+        }
+        writeComment("# ", comment);
+        writer.write("msgid \"\"\n");
+        writer.write("msgstr \"\"\n");
+        for (Map.Entry<String, String> field : fields.entrySet()) {
+            writer.write('"');
+            writer.write(escape(field.getKey() + ": " + field.getValue()
+                    + "\n"));
+            writer.write("\"\n");
+        }
+        writer.write('\n');
+    }
+
+    /**
+     * Writes the entry for a text flow.
+     *
+     * @param textFlow
+     * @param target
+     *            may be null if the text flow has not been translated
+     */
+    void writeEntry(TextFlow textFlow, @Nullable TextFlowTarget target)
+            throws IOException {
+        PotEntryHeader entryHeader =
+                textFlow.getExtensions(true).findByType(
+                        PotEntryHeader.class);
+        List<String> targetContents = null;
+        boolean fuzzy = false;
+        SimpleComment comment = null;
+        if (target != null) {
+            comment = target.getExtensions(true).findByType(
+                    SimpleComment.class);
+            ContentState state = target.getState();
+            if (state != null && state != ContentState.New) {
+                targetContents = target.getContents();
+                fuzzy =
+                        state != ContentState.Translated
+                                && state != ContentState.Approved;
+            }
+        }
+        if (comment == null) {
+            comment = textFlow.getExtensions(true).findByType(
+                    SimpleComment.class);
+        }
+        if (comment != null) {
+            writeComment("# ", comment.getValue());
+        }
+
+        List<String> flags = new ArrayList<String>();
+        if (fuzzy) {
+            flags.add(FUZZY);
+        }
+        String context = null;
+        if (entryHeader != null) {
+            writeComment("#. ", entryHeader.getExtractedComment());
+            for (String ref : entryHeader.getReferences()) {
+                writer.write("#: " + ref + "\n");
+            }
+            for (String flag : entryHeader.getFlags()) {
+                if (!flag.equals(FUZZY)) {
+                    flags.add(flag);
+                }
+            }
+            context = entryHeader.getContext();
+        }
+        if (!flags.isEmpty()) {
+            writer.write("#, ");
+            for (int i = 0; i < flags.size(); i++) {
+                if (i > 0) {
+                    writer.write(", ");
+                }
+                writer.write(flags.get(i));
+            }
+            writer.write('\n');
+        }
+        if (mapIdToMsgctxt) {
+            context = textFlow.getId();
+        }
+        if (context != null) {
+            writeString("msgctxt", context);
+        }
+
+        List<String> contents = textFlow.getContents();
+        writeString("msgid", contents.get(0));
+        if (contents.size() > 1) {
+            writeString("msgid_plural", contents.get(1));
+            int forms =
+                    targetContents == null ? 2 : Math.max(1,
+                            targetContents.size());
+            for (int i = 0; i < forms; i++) {
+                writeString("msgstr[" + i + "]",
+                        targetContents != null && i < targetContents.size()
+                                ? targetContents.get(i) : "");
+            }
+        } else {
+            writeString("msgstr",
+                    targetContents != null && !targetContents.isEmpty()
+                            ? targetContents.get(0) : "");
+        }
+        writer.write('\n');
+    }
+
+    private static void copyFields(List<HeaderEntry> entries,
+            Map<String, String> fields) {
+        for (HeaderEntry entry : entries) {
+            fields.put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private void writeComment(String prefix, @Nullable String comment)
+            throws IOException {
+        if (comment == null || comment.isEmpty()) {
+            return;
+        }
+        for (String line : comment.split("\n", -1)) {
+            writer.write(prefix + line + "\n");
+        }
+    }
+
+    /**
+     * Writes a keyword and a string, with the string split after each
+     * newline as xgettext does.
+     */
+    private void writeString(String keyword, String value)
+            throws IOException {
+        writer.write(keyword);
+        int newline = value.indexOf('\n');
+        if (newline >= 0 && newline < value.length() - 1) {
+            writer.write(" \"\"\n");
+            int start = 0;
+            while (start < value.length()) {
+                int end = value.indexOf('\n', start);
+                end = end < 0 ? value.length() : end + 1;
+                writer.write('"');
+                writer.write(escape(value.substring(start, end)));
+                writer.write("\"\n");
+                start = end;
+            }
+        } else {
+            writer.write(" \"");
+            writer.write(escape(value));
+            writer.write("\"\n");
+        }
+    }
+
+    private String escape(String value) {
+        StringBuilder sb = new StringBuilder(value.length() + 8);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+            case '\\':
+                sb.append("\\\\");
+                break;
+            case '"':
+                sb.append("\\\"");
+                break;
+            case '\n':
+                sb.append("\\n");
+                break;
+            case '\r':
+                sb.append("\\r");
+                break;
+            case '\t':
+                sb.append(encodeTabs ? "\\t" : "\t");
+                break;
+            default:
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
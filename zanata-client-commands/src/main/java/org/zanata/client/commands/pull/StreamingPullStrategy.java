@@ -0,0 +1,55 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.client.commands.pull;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.zanata.client.config.LocaleMapping;
+import org.zanata.common.io.FileDetails;
+import org.zanata.rest.dto.resource.Resource;
+
+/**
+ * A PullStrategy which can write a translation file directly from the XML
+ * form of a TranslationsResource, as it is downloaded, so that the whole
+ * document never needs to be held in memory.
+ */
+public interface StreamingPullStrategy extends PullStrategy {
+
+    /**
+     * Writes a translation file from a stream, as for
+     * {@link PullStrategy#writeTransFile}.
+     *
+     * @param docWithLocalName
+     *            may be null if needsDocToWriteTrans() returns false
+     * @param docName
+     *            local name of the document
+     * @param localeMapping
+     * @param translationsXml
+     *            XML form of a TranslationsResource. It will not be closed.
+     * @return Details of the file that was written. May be null if the Strategy
+     *         cannot provide details.
+     * @throws IOException
+     */
+    FileDetails writeTransFile(Resource docWithLocalName, String docName,
+            LocaleMapping localeMapping, InputStream translationsXml)
+            throws IOException;
+}
@@ -22,13 +22,25 @@
 package org.zanata.client.commands.pull;
 
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 
-import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
-import javax.xml.bind.Marshaller;
+import javax.xml.stream.XMLEventFactory;
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLEventWriter;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.events.XMLEvent;
 
 import org.zanata.client.config.LocaleMapping;
+import org.zanata.client.util.JaxbPool;
 import org.zanata.common.io.FileDetails;
 import org.zanata.rest.StringSet;
 import org.zanata.rest.dto.resource.Resource;
@@ -40,22 +52,17 @@ import org.zanata.util.PathUtil;
  *         href="mailto:sflaniga@redhat.com">sflaniga@redhat.com</a>
  *
  */
-public class XmlStrategy extends AbstractPullStrategy {
-    private JAXBContext jaxbContext;
-    private Marshaller marshaller;
+public class XmlStrategy extends AbstractPullStrategy implements
+        StreamingPullStrategy {
+    private final JaxbPool jaxbPool = JaxbPool.forDtos();
+    private final XMLInputFactory inputFactory = createInputFactory();
+    private final XMLOutputFactory outputFactory = XMLOutputFactory
+            .newInstance();
+    private final XMLEventFactory eventFactory = XMLEventFactory.newInstance();
     StringSet extensions = new StringSet("comment;gettext");
 
     protected XmlStrategy(PullOptions opts) {
         super(opts);
-        try {
-            jaxbContext =
-                    JAXBContext.newInstance(Resource.class,
-                            TranslationsResource.class);
-            marshaller = jaxbContext.createMarshaller();
-            marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
-        } catch (JAXBException e) {
-            throw new RuntimeException(e);
-        }
     }
 
     @Override
@@ -73,7 +80,7 @@ public class XmlStrategy extends AbstractPullStrategy {
             String filename = docNameToFilename(doc.getName());
             File srcFile = new File(getOpts().getSrcDir(), filename);
             PathUtil.makeParents(srcFile);
-            marshaller.marshal(doc, srcFile);
+            jaxbPool.marshal(doc, srcFile);
         } catch (JAXBException e) {
             throw new IOException(e);
         }
@@ -86,13 +93,77 @@ public class XmlStrategy extends AbstractPullStrategy {
         try {
             File transFile = getTransFileToWrite(docName, locale);
             PathUtil.makeParents(transFile);
-            marshaller.marshal(targetDoc, transFile);
+            jaxbPool.marshal(targetDoc, transFile);
             return null;
         } catch (JAXBException e) {
             throw new IOException(e);
         }
     }
 
+    /**
+     * Copies the downloaded XML to the translation file one StAX event at a
+     * time, since the file has the same form. The copy is indented like the
+     * files written by JAXB. The file is only replaced once the whole
+     * document has been received.
+     */
+    @Override
+    public FileDetails writeTransFile(Resource doc, String docName,
+            LocaleMapping localeMapping, InputStream translationsXml)
+            throws IOException {
+        File transFile = getTransFileToWrite(docName, localeMapping);
+        PathUtil.makeParents(transFile);
+        File tmpFile =
+                File.createTempFile(transFile.getName(), ".tmp",
+                        transFile.getParentFile());
+        try {
+            try (OutputStream out = new FileOutputStream(tmpFile)) {
+                copyXml(translationsXml, out);
+            }
+            Files.move(tmpFile.toPath(), transFile.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING);
+            return null;
+        } catch (XMLStreamException e) {
+            throw new IOException(e);
+        } finally {
+            Files.deleteIfExists(tmpFile.toPath());
+        }
+    }
+
+    private void copyXml(InputStream in, OutputStream out)
+            throws XMLStreamException {
+        XMLEventReader reader = inputFactory.createXMLEventReader(in);
+        XMLEventWriter writer =
+                new IndentingXMLEventWriter(
+                        outputFactory.createXMLEventWriter(out, "UTF-8"),
+                        eventFactory);
+        try {
+            writer.add(eventFactory.createStartDocument("UTF-8", "1.0", true));
+            while (reader.hasNext()) {
+                XMLEvent event = reader.nextEvent();
+                if (!event.isStartDocument()
+                        && event.getEventType() != XMLStreamConstants.DTD) {
+                    writer.add(event);
+                }
+            }
+            writer.flush();
+        } finally {
+            writer.close();
+            reader.close();
+        }
+    }
+
+    /**
+     * @return a factory for reading XML from the server, which will not
+     *         process DTDs or external entities
+     */
+    static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES,
+                false);
+        return factory;
+    }
+
     @Override
     public StringSet getExtensions() {
         return extensions;
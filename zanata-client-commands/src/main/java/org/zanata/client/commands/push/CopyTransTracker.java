@@ -0,0 +1,261 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.client.commands.push;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.zanata.client.util.ConsoleUtils;
+import org.zanata.rest.client.CopyTransClient;
+import org.zanata.rest.client.RestClientFactory;
+import org.zanata.rest.dto.CopyTransStatus;
+
+import com.sun.jersey.api.client.ClientResponse;
+import com.sun.jersey.api.client.UniformInterfaceException;
+
+/**
+ * Starts copyTrans for pushed documents without waiting for it, then waits
+ * for all of them together, showing their combined progress.
+ * <p>
+ * Each document is polled with an adaptive interval, as in
+ * {@link org.zanata.rest.client.ProcessStatusTracker}: it starts at the
+ * minimum poll period, grows while copyTrans makes no progress on the
+ * document, and drops back to the minimum whenever progress is seen.
+ */
+class CopyTransTracker {
+    private static final Logger log = LoggerFactory
+            .getLogger(CopyTransTracker.class);
+    private static final double BACKOFF_FACTOR = 1.5;
+
+    /**
+     * Thrown when the copyTrans status of a document can't be read.
+     */
+    static class CopyTransFailedException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+        private final String docName;
+
+        CopyTransFailedException(String docName, RuntimeException cause) {
+            super("Copy Trans failed for document " + docName + ": "
+                    + cause.getMessage(), cause);
+            this.docName = docName;
+        }
+
+        /**
+         * @return the document whose status could not be read
+         */
+        String getDocName() {
+            return docName;
+        }
+    }
+
+    private final CopyTransClient copyTransClient;
+    private final RestClientFactory clientFactory;
+    private final String projectSlug;
+    private final String versionSlug;
+    private final long minPollMillis;
+    private final long maxPollMillis;
+    /**
+     * Every document copyTrans was started for, with its percentage complete
+     */
+    private final Map<String, Integer> docs =
+            new LinkedHashMap<String, Integer>();
+
+    CopyTransTracker(CopyTransClient copyTransClient,
+            RestClientFactory clientFactory, String projectSlug,
+            String versionSlug, long minPollMillis, long maxPollMillis) {
+        this.copyTransClient = copyTransClient;
+        this.clientFactory = clientFactory;
+        this.projectSlug = projectSlug;
+        this.versionSlug = versionSlug;
+        this.minPollMillis = minPollMillis;
+        this.maxPollMillis = maxPollMillis;
+    }
+
+    /**
+     * Starts copyTrans for a document. May be called from several threads.
+     *
+     * @return false if copyTrans could not be started
+     */
+    boolean start(String docName) {
+        try {
+            copyTransClient.startCopyTrans(projectSlug, versionSlug, docName);
+        } catch (Exception ex) {
+            return false;
+        }
+        synchronized (this) {
+            docs.put(docName, 0);
+        }
+        return true;
+    }
+
+    /**
+     * Polls copyTrans for all the started documents until every one has
+     * stopped, warning about any which did not complete.
+     *
+     * @throws CopyTransFailedException
+     *             if the status of a document could not be read
+     */
+    synchronized void awaitAll() {
+        if (docs.isEmpty()) {
+            return;
+        }
+        log.info("Waiting for Copy Trans to finish for {} documents",
+                docs.size());
+        List<PolledDoc> running = new ArrayList<PolledDoc>();
+        for (String docName : docs.keySet()) {
+            running.add(new PolledDoc(docName));
+        }
+        List<String> incomplete = new ArrayList<String>();
+        ConsoleUtils.startProgressFeedback();
+        try {
+            while (!running.isEmpty()) {
+                Iterator<PolledDoc> iter = running.iterator();
+                long nextPoll = Long.MAX_VALUE;
+                while (iter.hasNext()) {
+                    PolledDoc doc = iter.next();
+                    if (doc.nextPoll > System.currentTimeMillis()) {
+                        nextPoll = Math.min(nextPoll, doc.nextPoll);
+                        continue;
+                    }
+                    CopyTransStatus status = getStatus(doc.docName);
+                    if (status == null) {
+                        // old server: copyTrans was never started
+                        return;
+                    }
+                    int percentage = status.getPercentageComplete();
+                    boolean progressed = percentage != docs.get(doc.docName);
+                    docs.put(doc.docName, percentage);
+                    if (!status.isInProgress()) {
+                        iter.remove();
+                        if (percentage < 100) {
+                            incomplete.add(doc.docName);
+                        }
+                    } else {
+                        doc.pollMillis =
+                                nextPollMillis(doc.pollMillis, progressed);
+                        doc.nextPoll =
+                                System.currentTimeMillis() + doc.pollMillis;
+                        nextPoll = Math.min(nextPoll, doc.nextPoll);
+                    }
+                }
+                ConsoleUtils.setProgressFeedbackMessage(
+                        (docs.size() - running.size()) + "/" + docs.size()
+                                + " documents, " + overallPercentage() + "%");
+                if (!running.isEmpty()) {
+                    sleep(nextPoll - System.currentTimeMillis());
+                }
+            }
+        } finally {
+            ConsoleUtils.endProgressFeedback();
+        }
+        for (String docName : incomplete) {
+            log.warn("Copy Trans for document {} stopped unexpectedly.",
+                    docName);
+        }
+        log.info("Copy Trans finished for {} documents", docs.size());
+    }
+
+    /**
+     * @return the interval before a document is polled again
+     */
+    long nextPollMillis(long pollMillis, boolean progressed) {
+        if (progressed) {
+            return minPollMillis;
+        }
+        return Math.min(maxPollMillis, (long) (pollMillis * BACKOFF_FACTOR));
+    }
+
+    /**
+     * When a document's copyTrans status is next due to be read
+     */
+    private class PolledDoc {
+        private final String docName;
+        private long pollMillis = minPollMillis;
+        private long nextPoll;
+
+        private PolledDoc(String docName) {
+            this.docName = docName;
+        }
+    }
+
+    private int overallPercentage() {
+        long total = 0;
+        for (int percentage : docs.values()) {
+            total += percentage;
+        }
+        return (int) (total / docs.size());
+    }
+
+    /**
+     * @return the document's copyTrans status, or null if the server is too
+     *         old to report it
+     */
+    private CopyTransStatus getStatus(String docName) {
+        try {
+            return readStatus(docName);
+        } catch (RuntimeException e) {
+            throw new CopyTransFailedException(docName, e);
+        }
+    }
+
+    private CopyTransStatus readStatus(String docName) {
+        try {
+            return copyTransClient.getCopyTransStatus(projectSlug,
+                    versionSlug, docName);
+        } catch (UniformInterfaceException failure) {
+            // 404 - Probably because of an old server
+            if (failure.getResponse().getClientResponseStatus() == ClientResponse.Status.NOT_FOUND) {
+                if (clientFactory.compareToServerVersion("1.8.0-SNAPSHOT") < 0) {
+                    log.warn("Copy Trans not started (Incompatible server version.)");
+                    return null;
+                } else {
+                    throw new RuntimeException(
+                            "Could not invoke copy trans. The service was not available (404)");
+                }
+            } else if (failure.getCause() != null) {
+                throw new RuntimeException("Problem invoking copy trans.",
+                        failure.getCause());
+            } else {
+                throw new RuntimeException(
+                        "Problem invoking copy trans: [Server response code:"
+                                + failure.getResponse().getStatus() + "]");
+            }
+        }
+    }
+
+    private void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(
+                    "Interrupted while waiting for Copy Trans to finish.", e);
+        }
+    }
+}
@@ -1,10 +1,16 @@
 package org.zanata.client.commands.push;
 
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -12,6 +18,13 @@ import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -22,7 +35,11 @@ import org.zanata.adapter.xliff.XliffCommon.ValidationType;
 import org.zanata.client.commands.PushPullCommand;
 import org.zanata.client.commands.PushPullType;
 import org.zanata.client.config.LocaleMapping;
+import org.zanata.client.etag.PushManifest;
+import org.zanata.client.etag.PushManifestEntry;
+import org.zanata.client.etag.PushManifestReaderWriter;
 import org.zanata.client.exceptions.ConfigException;
+import org.zanata.client.util.BufferedLogger;
 import org.zanata.client.util.ConsoleUtils;
 import org.zanata.common.LocaleId;
 import org.zanata.common.MergeType;
@@ -30,18 +47,21 @@ import org.zanata.rest.RestUtil;
 import org.zanata.rest.StringSet;
 import org.zanata.rest.client.AsyncProcessClient;
 import org.zanata.rest.client.CopyTransClient;
+import org.zanata.rest.client.ProcessStatusTracker;
 import org.zanata.rest.client.RestClientFactory;
-import org.zanata.rest.dto.CopyTransStatus;
 import org.zanata.rest.dto.ProcessStatus;
+import org.zanata.rest.dto.ProcessStatus.ProcessStatusCode;
 import org.zanata.rest.dto.resource.Resource;
 import org.zanata.rest.dto.resource.ResourceMeta;
 import org.zanata.rest.dto.resource.TextFlowTarget;
 import org.zanata.rest.dto.resource.TranslationsResource;
+import org.zanata.util.PathUtil;
 
 import com.google.common.base.Predicate;
+import com.google.common.base.Throwables;
 import com.google.common.collect.Collections2;
-import com.sun.jersey.api.client.ClientResponse;
-import com.sun.jersey.api.client.UniformInterfaceException;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 /**
  * @author Sean Flanigan <a
@@ -51,33 +71,62 @@ import com.sun.jersey.api.client.UniformInterfaceException;
 public class PushCommand extends PushPullCommand<PushOptions> {
     private static final Logger log = LoggerFactory
             .getLogger(PushCommand.class);
-    private static final int POLL_PERIOD = 250;
     private static final String UTF_8 = "UTF-8";
+    private static final String PUSH_MANIFEST_FILE = "push-manifest.xml";
+    /**
+     * Minimum number of threads used to delete obsolete documents (more are
+     * used if --threads is higher)
+     */
+    private static final int DELETE_THREADS = 4;
+    /**
+     * Allowance for the serialized markup, state, translator and comments of
+     * each TextFlowTarget (see {@link #estimateSize(TextFlowTarget)}).
+     */
+    private static final int TARGET_OVERHEAD_BYTES = 200;
 
     private static final Map<String, AbstractPushStrategy> strategies =
             new HashMap<String, AbstractPushStrategy>();
 
+    private static final String[] PROJECT_TYPES = { PROJECT_TYPE_UTF8_PROPERTIES,
+            PROJECT_TYPE_PROPERTIES, PROJECT_TYPE_GETTEXT,
+            PROJECT_TYPE_PUBLICAN, PROJECT_TYPE_XLIFF, PROJECT_TYPE_XML,
+            PROJECT_TYPE_OFFLINE_PO };
+
     private CopyTransClient copyTransClient;
     private AsyncProcessClient asyncProcessClient;
+    private ProcessStatusTracker processTracker;
+    private CopyTransTracker copyTransTracker;
+    private PushManifest pushManifest;
+    /**
+     * Qualified names of the current module's documents on the server, or
+     * null if not known
+     */
+    private Set<String> docsOnServer;
+
+    /**
+     * Strategies hold parser state, so the parser thread (and any other
+     * thread which reads documents) gets its own.
+     */
+    private final ThreadLocal<AbstractPushStrategy> workerStrategy =
+            new ThreadLocal<AbstractPushStrategy>() {
+                @Override
+                protected AbstractPushStrategy initialValue() {
+                    AbstractPushStrategy strat =
+                            newStrategy(getOpts().getProjectType());
+                    strat.setPushOptions(getOpts());
+                    strat.init();
+                    return strat;
+                }
+            };
 
     public static interface TranslationResourcesVisitor {
         void visit(LocaleMapping locale, TranslationsResource targetDoc);
     }
 
     {
-        strategies.put(PROJECT_TYPE_UTF8_PROPERTIES, new PropertiesStrategy(
-                UTF_8));
-        strategies.put(PROJECT_TYPE_PROPERTIES, new PropertiesStrategy());
-        strategies.put(PROJECT_TYPE_GETTEXT, new GettextPushStrategy());
-        strategies.put(PROJECT_TYPE_PUBLICAN, new GettextDirStrategy());
-        strategies.put(PROJECT_TYPE_XLIFF, new XliffStrategy());
-        strategies.put(PROJECT_TYPE_XML, new XmlStrategy());
-        strategies.put(
-                PROJECT_TYPE_OFFLINE_PO,
-                new OfflinePoStrategy(getClientFactory()
-                        .getSourceDocResourceClient(getOpts().getProj(),
-                                getOpts()
-                .getProjectVersion())));
+        for (String projectType : PROJECT_TYPES) {
+            strategies.put(projectType, newStrategy(projectType));
+        }
     }
 
     public PushCommand(PushOptions opts) {
@@ -86,6 +135,12 @@ public class PushCommand extends PushPullCommand<PushOptions> {
         asyncProcessClient = getClientFactory().getAsyncProcessClient();
     }
 
+    public PushCommand(PushOptions opts, RestClientFactory clientFactory) {
+        super(opts, clientFactory);
+        copyTransClient = getClientFactory().getCopyTransClient();
+        asyncProcessClient = getClientFactory().getAsyncProcessClient();
+    }
+
     public PushCommand(PushOptions opts,
             CopyTransClient copyTransClient,
             AsyncProcessClient asyncProcessClient,
@@ -96,6 +151,27 @@ public class PushCommand extends PushPullCommand<PushOptions> {
         this.asyncProcessClient = asyncProcessClient;
     }
 
+    private AbstractPushStrategy newStrategy(String projectType) {
+        if (PROJECT_TYPE_UTF8_PROPERTIES.equals(projectType)) {
+            return new PropertiesStrategy(UTF_8);
+        } else if (PROJECT_TYPE_PROPERTIES.equals(projectType)) {
+            return new PropertiesStrategy();
+        } else if (PROJECT_TYPE_GETTEXT.equals(projectType)) {
+            return new GettextPushStrategy();
+        } else if (PROJECT_TYPE_PUBLICAN.equals(projectType)) {
+            return new GettextDirStrategy();
+        } else if (PROJECT_TYPE_XLIFF.equals(projectType)) {
+            return new XliffStrategy();
+        } else if (PROJECT_TYPE_XML.equals(projectType)) {
+            return new XmlStrategy();
+        } else if (PROJECT_TYPE_OFFLINE_PO.equals(projectType)) {
+            return new OfflinePoStrategy(getClientFactory()
+                    .getSourceDocResourceClient(getOpts().getProj(),
+                            getOpts().getProjectVersion()));
+        }
+        throw new RuntimeException("unknown project type: " + projectType);
+    }
+
     public AbstractPushStrategy getStrategy(PushOptions pushOptions) {
         AbstractPushStrategy strat =
                 strategies.get(pushOptions.getProjectType());
@@ -203,7 +279,12 @@ public class PushCommand extends PushPullCommand<PushOptions> {
     @Override
     public void run() throws Exception {
         logOptions(log, getOpts());
-        pushCurrentModule();
+        processTracker = new ProcessStatusTracker(asyncProcessClient);
+        try {
+            pushCurrentModule();
+        } finally {
+            processTracker.shutdown();
+        }
 
         if (pushSource() && getOpts().getEnableModules()
                 && getOpts().isRootModule()) {
@@ -318,8 +399,19 @@ public class PushCommand extends PushPullCommand<PushOptions> {
         }
 
         List<String> obsoleteDocs = Collections.emptyList();
-        if (pushSource() && !strat.isTransOnly()) {
-            obsoleteDocs = getObsoleteDocsInModuleFromServer(localDocNames);
+        docsOnServer = null;
+        boolean pushingSource = pushSource() && !strat.isTransOnly();
+        if (pushingSource || !getOpts().getForce()) {
+            // the push manifest is only trusted for documents which are
+            // still on the server
+            List<String> qualifiedDocNames =
+                    getQualifiedDocNamesForCurrentModuleFromServer();
+            docsOnServer = new HashSet<String>(qualifiedDocNames);
+            if (pushingSource) {
+                obsoleteDocs =
+                        getObsoleteDocsInModule(qualifiedDocNames,
+                                localDocNames);
+            }
         }
         if (obsoleteDocs.isEmpty()) {
             if (localDocNames.isEmpty()) {
@@ -374,80 +466,464 @@ public class PushCommand extends PushPullCommand<PushOptions> {
             }
         }
 
-        for (final String localDocName : docsToPush) {
+        pushManifest = loadPushManifest(extensions);
+        copyTransTracker =
+                new CopyTransTracker(copyTransClient, getClientFactory(),
+                        getOpts().getProj(), getOpts().getProjectVersion(),
+                        ProcessStatusTracker.DEFAULT_MIN_POLL_MILLIS,
+                        ProcessStatusTracker.DEFAULT_MAX_POLL_MILLIS);
+        try {
+            pushDocs(sourceDir, extensions, docsToPush);
+            try {
+                copyTransTracker.awaitAll();
+            } catch (CopyTransTracker.CopyTransFailedException e) {
+                throw pushFailed(unqualifiedDocName(e.getDocName()), e);
+            }
+            deleteSourceDocsFromServer(obsoleteDocs);
+        } finally {
+            // entries are only added once the server has accepted a
+            // document, so this records whatever was pushed successfully,
+            // even if the push as a whole failed
+            storePushManifest();
+        }
+    }
+
+    /**
+     * Loads the manifest of what was pushed last time. If the manifest was
+     * recorded against a different server URL or server version, project
+     * version, merge type, myTrans setting or set of extensions (or --force
+     * was given), it is ignored.
+     *
+     * @return a manifest to record this push in
+     */
+    private PushManifest loadPushManifest(StringSet extensions) {
+        PushManifest manifest =
+                new PushManifest(String.valueOf(getOpts().getUrl()),
+                        getClientFactory().getServerVersion(),
+                        getOpts().getProj(), getOpts().getProjectVersion(),
+                        getOpts().getMergeType(), getOpts().isMyTrans(),
+                        String.valueOf(extensions));
+        if (getOpts().getForce()) {
+            log.info("Ignoring push manifest: all documents will be pushed");
+            return manifest;
+        }
+        File manifestFile = getCacheFile(PUSH_MANIFEST_FILE);
+        if (!manifestFile.exists()) {
+            return manifest;
+        }
+        try {
+            InputStream is = new FileInputStream(manifestFile);
             try {
-                final String qualifiedDocName = qualifiedDocName(localDocName);
-                final String docUri =
-                        RestUtil.convertToDocumentURIId(qualifiedDocName);
-                final Resource srcDoc;
-                if (strat.isTransOnly()) {
-                    srcDoc = null;
+                PushManifest previous =
+                        PushManifestReaderWriter.readManifest(is);
+                if (previous.isCompatibleWith(manifest)) {
+                    manifest.addEntries(previous);
                 } else {
-                    srcDoc = strat.loadSrcDoc(sourceDir, localDocName);
-                    srcDoc.setName(qualifiedDocName);
-                    debug(srcDoc);
+                    log.info(
+                            "Push manifest {} does not match the current server, version, merge type, myTrans setting or extensions: all documents will be pushed",
+                            manifestFile);
+                }
+            } finally {
+                is.close();
+            }
+        } catch (Exception e) {
+            log.warn(
+                    "Could not read push manifest {}: all documents will be pushed",
+                    manifestFile);
+        }
+        return manifest;
+    }
 
-                    if (pushSource()) {
-                        pushSrcDocToServer(docUri, srcDoc, extensions);
-                    }
+    private void storePushManifest() {
+        if (getOpts().isDryRun()) {
+            return;
+        }
+        try {
+            File manifestFile = getCacheFile(PUSH_MANIFEST_FILE);
+            if (!manifestFile.exists()) {
+                PathUtil.makeDirs(manifestFile.getParentFile());
+            }
+            OutputStream os = new FileOutputStream(manifestFile);
+            try {
+                PushManifestReaderWriter.writeManifest(pushManifest, os);
+            } finally {
+                os.close();
+            }
+        } catch (IOException e) {
+            log.warn("Could not write push manifest. Next push will not be incremental.");
+        }
+    }
+
+    /**
+     * @return true if the document was last pushed with the same content,
+     *         and (as far as we know) is still on the server
+     */
+    private boolean isUnchangedSinceLastPush(String qualifiedDocName,
+            String language, String contentHash) {
+        if (docsOnServer != null && !docsOnServer.contains(qualifiedDocName)) {
+            return false;
+        }
+        return pushManifest.isUnchanged(qualifiedDocName, language,
+                contentHash);
+    }
+
+    private boolean isConcurrent() {
+        return getOpts().getPushThreads() > 1;
+    }
+
+    /**
+     * A document which has been read from disk, ready to be uploaded.
+     */
+    private static class ParsedDoc {
+        private final String localDocName;
+        /**
+         * holds back the output for this document until it is uploaded
+         */
+        private final BufferedLogger docLog;
+        private final List<ParsedTargetDoc> targetDocs =
+                new ArrayList<ParsedTargetDoc>();
+        private Resource srcDoc;
+        private String srcHash;
+        private Throwable failure;
+
+        private ParsedDoc(String localDocName, BufferedLogger docLog) {
+            this.localDocName = localDocName;
+            this.docLog = docLog;
+        }
+    }
+
+    private static class ParsedTargetDoc {
+        private final LocaleMapping locale;
+        private final TranslationsResource targetDoc;
+        private final String contentHash;
+
+        private ParsedTargetDoc(LocaleMapping locale,
+                TranslationsResource targetDoc, String contentHash) {
+            this.locale = locale;
+            this.targetDoc = targetDoc;
+            this.contentHash = contentHash;
+        }
+    }
+
+    /**
+     * Marks the end of the parsed documents.
+     */
+    private static final ParsedDoc END_OF_DOCS = new ParsedDoc(null, null);
+
+    /**
+     * Pushes documents in two overlapping stages. A single parser thread
+     * reads each document (and its translations) from disk, in document
+     * order, into a bounded queue. Meanwhile, documents are taken from the
+     * queue and uploaded, either on this thread or (with --threads) on a pool
+     * of upload threads. Parsing the next document therefore overlaps
+     * uploading the current one, and the number of parsed documents held in
+     * memory is limited by the queue capacity, not by the size of the
+     * project.
+     */
+    private void pushDocs(final File sourceDir, StringSet extensions,
+            final SortedSet<String> docsToPush) {
+        final BlockingQueue<ParsedDoc> parsedDocs =
+                new ArrayBlockingQueue<ParsedDoc>(Math.max(1, getOpts()
+                        .getPushThreads()));
+        ExecutorService parser =
+                Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+                        .setDaemon(true).setNameFormat("zanata-push-parser")
+                        .build());
+        try {
+            parser.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws InterruptedException {
+                    parseDocs(workerStrategy.get(), sourceDir, docsToPush,
+                            parsedDocs);
+                    return null;
                 }
+            });
+            if (isConcurrent()) {
+                uploadDocsConcurrently(extensions, parsedDocs);
+            } else {
+                uploadDocs(extensions, parsedDocs);
+            }
+        } finally {
+            // stops the parser if the upload failed
+            parser.shutdownNow();
+        }
+    }
 
-                if (pushTrans()) {
-                    strat.visitTranslationResources(localDocName, srcDoc,
-                            new TranslationResourcesVisitor() {
-                                @Override
-                                public void visit(LocaleMapping locale,
-                                        TranslationsResource targetDoc) {
-                                    debug(targetDoc);
-                                    stripUntranslatedEntriesIfMergeTypeIsNotImport(getOpts(),
-                                            targetDoc);
-                                    if (targetDoc.getTextFlowTargets()
-                                            .isEmpty()) {
-                                        log.debug(
-                                                "Skip translation file {}({}) since it has no translation in it",
-                                                localDocName, locale);
-                                        return;
-                                    }
-                                    pushTargetDocToServer(docUri, locale,
-                                            qualifiedDocName, targetDoc,
-                                            extensions);
-                                }
-                            });
+    /**
+     * Parses documents into the queue, stopping after the first document
+     * which could not be parsed.
+     */
+    private void parseDocs(AbstractPushStrategy strat, File sourceDir,
+            SortedSet<String> docsToPush, BlockingQueue<ParsedDoc> parsedDocs)
+            throws InterruptedException {
+        for (String localDocName : docsToPush) {
+            ParsedDoc doc =
+                    new ParsedDoc(localDocName, new BufferedLogger(log, true));
+            try {
+                parseDoc(strat, sourceDir, doc);
+            } catch (Throwable e) {
+                doc.failure = e;
+            }
+            parsedDocs.put(doc);
+            if (doc.failure != null) {
+                return;
+            }
+        }
+        parsedDocs.put(END_OF_DOCS);
+    }
+
+    /**
+     * Reads a document's source and translations, and computes their
+     * content hashes.
+     */
+    private void parseDoc(AbstractPushStrategy strat, File sourceDir,
+            final ParsedDoc doc) throws IOException {
+        final String localDocName = doc.localDocName;
+        final BufferedLogger docLog = doc.docLog;
+        if (!strat.isTransOnly()) {
+            doc.srcDoc = strat.loadSrcDoc(sourceDir, localDocName);
+            doc.srcDoc.setName(qualifiedDocName(localDocName));
+            debug(doc.srcDoc);
+            if (pushSource()) {
+                doc.srcHash = contentHash(doc.srcDoc);
+            }
+        }
+        if (pushTrans()) {
+            strat.visitTranslationResources(localDocName, doc.srcDoc,
+                    new TranslationResourcesVisitor() {
+                        @Override
+                        public void visit(LocaleMapping locale,
+                                TranslationsResource targetDoc) {
+                            debug(targetDoc);
+                            stripUntranslatedEntriesIfMergeTypeIsNotImport(
+                                    getOpts(), targetDoc, docLog);
+                            if (targetDoc.getTextFlowTargets().isEmpty()) {
+                                docLog.debug(
+                                        "Skip translation file {}({}) since it has no translation in it",
+                                        localDocName, locale);
+                                return;
+                            }
+                            doc.targetDocs.add(new ParsedTargetDoc(locale,
+                                    targetDoc, contentHash(targetDoc)));
+                        }
+                    });
+        }
+    }
+
+    private static ParsedDoc takeParsedDoc(BlockingQueue<ParsedDoc> parsedDocs) {
+        try {
+            return parsedDocs.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting", e);
+        }
+    }
+
+    /**
+     * Uploads parsed documents one at a time on this thread.
+     */
+    private void uploadDocs(StringSet extensions,
+            BlockingQueue<ParsedDoc> parsedDocs) {
+        for (ParsedDoc doc = takeParsedDoc(parsedDocs); doc != END_OF_DOCS; doc =
+                takeParsedDoc(parsedDocs)) {
+            doc.docLog.flush();
+            if (doc.failure != null) {
+                throw pushFailed(doc.localDocName, doc.failure);
+            }
+            try {
+                uploadDoc(doc, extensions, new BufferedLogger(log, false));
+            } catch (Exception e) {
+                throw pushFailed(doc.localDocName, e);
+            }
+        }
+    }
+
+    /**
+     * Uploads a single parsed document: source, then translations, then
+     * copyTrans.
+     *
+     * @param docLog
+     *            receives all log output for this document
+     */
+    private void uploadDoc(ParsedDoc doc, final StringSet extensions,
+            final BufferedLogger docLog) {
+        final String qualifiedDocName = qualifiedDocName(doc.localDocName);
+        final String docUri =
+                RestUtil.convertToDocumentURIId(qualifiedDocName);
+        boolean srcPushed = false;
+        if (doc.srcHash != null) {
+            if (isUnchangedSinceLastPush(qualifiedDocName, null, doc.srcHash)) {
+                docLog.info(
+                        "source doc [name={}] is unchanged since the last push; skipping",
+                        qualifiedDocName);
+            } else {
+                pushSrcDocToServer(docUri, doc.srcDoc, extensions, docLog);
+                if (!getOpts().isDryRun()) {
+                    // the translations recorded for the old source no longer
+                    // apply; the new source is only recorded once its
+                    // translations have been pushed too (see below)
+                    pushManifest.removeDocument(qualifiedDocName);
+                    documentPushed(qualifiedDocName);
                 }
+                srcPushed = true;
+            }
+        }
+        // translations must be pushed again if the source has changed
+        boolean useManifestForTrans = !srcPushed;
+
+        // translation processes started but not yet finished, in locale order
+        Deque<TargetDocPush> targetPushes = new ArrayDeque<TargetDocPush>();
+        int localeThreads = Math.max(1, getOpts().getLocaleThreads());
+        for (ParsedTargetDoc target : doc.targetDocs) {
+            LocaleMapping locale = target.locale;
+            if (useManifestForTrans
+                    && isUnchangedSinceLastPush(qualifiedDocName,
+                            locale.getLocale(), target.contentHash)) {
+                docLog.info(
+                        "target doc [name={} client-locale={}] is unchanged since the last push; skipping",
+                        qualifiedDocName, locale.getLocalLocale());
+                continue;
+            }
+            if (targetPushes.size() >= localeThreads) {
+                finishTargetDocPush(targetPushes.removeFirst(), docLog);
+            }
+            TargetDocPush targetPush =
+                    startTargetDocPush(docUri, locale, qualifiedDocName,
+                            target.targetDoc, target.contentHash, extensions,
+                            docLog);
+            if (targetPush != null) {
+                targetPushes.addLast(targetPush);
+            }
+        }
+        while (!targetPushes.isEmpty()) {
+            finishTargetDocPush(targetPushes.removeFirst(), docLog);
+        }
+
+        // Copy Trans after pushing (only when pushing source)
+        if (getOpts().getCopyTrans()
+                && (getOpts().getPushType() == PushPullType.Both || getOpts()
+                        .getPushType() == PushPullType.Source)) {
+            if (srcPushed) {
+                startCopyTrans(qualifiedDocName, docLog);
+            } else {
+                docLog.info("Skipping Copy Trans for " + qualifiedDocName
+                        + " (source is unchanged)");
+            }
+        }
+        if (srcPushed && !getOpts().isDryRun()) {
+            pushManifest.addEntry(new PushManifestEntry(qualifiedDocName,
+                    null, doc.srcHash));
+        }
+    }
 
-                // Copy Trans after pushing (only when pushing source)
-                if (getOpts().getCopyTrans()
-                        && (getOpts().getPushType() == PushPullType.Both || getOpts()
-                                .getPushType() == PushPullType.Source)) {
-                    this.copyTransForDocument(qualifiedDocName);
+    /**
+     * A document which has been handed to an upload thread.
+     */
+    private static class PendingDoc {
+        private final String localDocName;
+        private final BufferedLogger docLog;
+        private final Future<Void> result;
+
+        private PendingDoc(String localDocName, BufferedLogger docLog,
+                Future<Void> result) {
+            this.localDocName = localDocName;
+            this.docLog = docLog;
+            this.result = result;
+        }
+    }
+
+    /**
+     * Uploads parsed documents on a pool of upload threads, with no more than
+     * pushThreads documents in flight at any time. Each document's log output
+     * is held back until all the documents before it have completed, and the
+     * first failure (in document order) is reported exactly as for a
+     * sequential push, so that --from-doc can resume from it.
+     */
+    private void uploadDocsConcurrently(final StringSet extensions,
+            BlockingQueue<ParsedDoc> parsedDocs) {
+        int threads = getOpts().getPushThreads();
+        log.info("Pushing up to {} documents concurrently", threads);
+        ExecutorService executor =
+                Executors.newFixedThreadPool(threads,
+                        new ThreadFactoryBuilder().setDaemon(true)
+                                .setNameFormat("zanata-push-%d").build());
+        Deque<PendingDoc> inFlight = new ArrayDeque<PendingDoc>(threads);
+        try {
+            for (ParsedDoc doc = takeParsedDoc(parsedDocs); doc != END_OF_DOCS; doc =
+                    takeParsedDoc(parsedDocs)) {
+                if (doc.failure != null) {
+                    // report any earlier failure first
+                    while (!inFlight.isEmpty()) {
+                        awaitDoc(inFlight.removeFirst());
+                    }
+                    doc.docLog.flush();
+                    throw pushFailed(doc.localDocName, doc.failure);
                 }
-            } catch (Exception e) {
-                String message =
-                        "Operation failed: " + e.getMessage() + "\n\n"
-                                + "    To retry from the last document, please set the following option(s):\n\n"
-                                + "        ";
-                if (getOpts().getEnableModules()) {
-                    message +=
-                            "--resume-from " + getOpts().getCurrentModule(true)
-                                    + " ";
+                if (inFlight.size() >= threads) {
+                    awaitDoc(inFlight.removeFirst());
                 }
-                // Note: '.' is included after trailing newlines to prevent them
-                // being stripped,
-                // since stripping newlines can cause extra text to be appended
-                // to the options.
-                message +=
-                        getOpts().buildFromDocArgument(
-                                qualifiedDocName(localDocName))
-                                + "\n\n.";
-                log.error(message);
-                throw new RuntimeException(e.getMessage(), e);
+                final ParsedDoc parsedDoc = doc;
+                Future<Void> result = executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        uploadDoc(parsedDoc, extensions, parsedDoc.docLog);
+                        return null;
+                    }
+                });
+                inFlight.addLast(new PendingDoc(doc.localDocName, doc.docLog,
+                        result));
             }
+            while (!inFlight.isEmpty()) {
+                awaitDoc(inFlight.removeFirst());
+            }
+        } finally {
+            // after a failure, abandon any documents still in flight
+            executor.shutdownNow();
+        }
+    }
+
+    private void awaitDoc(PendingDoc doc) {
+        try {
+            doc.result.get();
+            doc.docLog.flush();
+        } catch (ExecutionException e) {
+            doc.docLog.flush();
+            throw pushFailed(doc.localDocName, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw pushFailed(doc.localDocName, e);
         }
-        deleteSourceDocsFromServer(obsoleteDocs);
+    }
+
+    /**
+     * Logs instructions for resuming the push from the failed document, and
+     * returns an exception to be thrown.
+     */
+    private RuntimeException pushFailed(String localDocName, Throwable e) {
+        String message =
+                "Operation failed: " + e.getMessage() + "\n\n"
+                        + "    To retry from the last document, please set the following option(s):\n\n"
+                        + "        ";
+        if (getOpts().getEnableModules()) {
+            message +=
+                    "--resume-from " + getOpts().getCurrentModule(true)
+                            + " ";
+        }
+        // Note: '.' is included after trailing newlines to prevent them
+        // being stripped,
+        // since stripping newlines can cause extra text to be appended
+        // to the options.
+        message +=
+                getOpts().buildFromDocArgument(
+                        qualifiedDocName(localDocName))
+                        + "\n\n.";
+        log.error(message);
+        return new RuntimeException(e.getMessage(), e);
     }
 
     private static void stripUntranslatedEntriesIfMergeTypeIsNotImport(
-            PushOptions opts, TranslationsResource translationResources) {
+            PushOptions opts, TranslationsResource translationResources,
+            BufferedLogger docLog) {
         String mergeType = opts.getMergeType();
         if (!MergeType.IMPORT.name().equalsIgnoreCase(mergeType)) {
             List<TextFlowTarget> originalTargets =
@@ -462,7 +938,7 @@ public class PushCommand extends PushPullCommand<PushOptions> {
                                             input.getState().isUntranslated();
                                 }
                             });
-            log.debug(
+            docLog.debug(
                     "Remove {} untranslated entries from the payload since merge type is NOT import ({})",
                     untranslatedEntries.size(), mergeType);
             translationResources.getTextFlowTargets()
@@ -499,12 +975,12 @@ public class PushCommand extends PushPullCommand<PushOptions> {
      * docs in the current module from the server, unless they are found in the
      * localDocNames set.
      *
+     * @param qualifiedDocNames
+     *            docs in the current module on the server
      * @param localDocNames
      */
-    private List<String> getObsoleteDocsInModuleFromServer(
-            Set<String> localDocNames) {
-        List<String> qualifiedDocNames =
-                getQualifiedDocNamesForCurrentModuleFromServer();
+    private List<String> getObsoleteDocsInModule(
+            List<String> qualifiedDocNames, Set<String> localDocNames) {
         List<String> obsoleteDocs =
                 new ArrayList<String>(qualifiedDocNames.size());
         for (String qualifiedDocName : qualifiedDocNames) {
@@ -517,72 +993,88 @@ public class PushCommand extends PushPullCommand<PushOptions> {
     }
 
     /**
+     * Deletes documents from the server, several at a time, then logs a
+     * summary of what was deleted.
+     *
      * @param qualifiedDocNames
+     * @throws RuntimeException
+     *             if any document could not be deleted
      */
     private void deleteSourceDocsFromServer(List<String> qualifiedDocNames) {
-        for (String qualifiedDocName : qualifiedDocNames) {
-            deleteSourceDocFromServer(qualifiedDocName);
+        if (qualifiedDocNames.isEmpty()) {
+            return;
+        }
+        if (getOpts().isDryRun()) {
+            for (String qualifiedDocName : qualifiedDocNames) {
+                log.info(
+                        "deleting resource {} from server (skipped due to dry run)",
+                        qualifiedDocName);
+            }
+            log.info("Obsolete documents: {} skipped due to dry run",
+                    qualifiedDocNames.size());
+            return;
+        }
+        int threads = Math.max(DELETE_THREADS, getOpts().getPushThreads());
+        SourceDocDeleter.Summary summary =
+                new SourceDocDeleter(sourceDocResourceClient, threads)
+                        .deleteAll(qualifiedDocNames);
+        for (String qualifiedDocName : summary.getDeleted()) {
+            documentDeleted(qualifiedDocName);
+            if (pushManifest != null) {
+                pushManifest.removeDocument(qualifiedDocName);
+            }
+        }
+        for (String qualifiedDocName : summary.getNotFound()) {
+            documentDeleted(qualifiedDocName);
+        }
+        log.info(
+                "Obsolete documents: {} deleted, {} already gone, {} failed",
+                summary.getDeleted().size(), summary.getNotFound().size(),
+                summary.getFailed().size());
+        if (!summary.getFailed().isEmpty()) {
+            for (Map.Entry<String, String> failure : summary.getFailed()
+                    .entrySet()) {
+                log.error("could not delete resource {}: {}",
+                        failure.getKey(), failure.getValue());
+            }
+            throw new RuntimeException("Failed to delete "
+                    + summary.getFailed().size() + " obsolete document(s)");
         }
     }
 
     private void pushSrcDocToServer(final String docUri, final Resource srcDoc,
-            final StringSet extensions) {
+            final StringSet extensions, BufferedLogger docLog) {
         if (!getOpts().isDryRun()) {
-            log.info("pushing source doc [name={} size={}] to server",
+            docLog.info("pushing source doc [name={} size={}] to server",
                     srcDoc.getName(), srcDoc.getTextFlows().size());
 
-            ConsoleUtils.startProgressFeedback();
+            startProgressFeedback();
             // NB: Copy trans is set to false as using copy trans in this manner
             // is deprecated.
             // see PushCommand.copyTransForDocument
             ProcessStatus status =
-                    asyncProcessClient.startSourceDocCreationOrUpdate(docUri,
-                            getOpts().getProj(), getOpts().getProjectVersion(),
-                            srcDoc, extensions, false);
-
-            boolean waitForCompletion = true;
-
-            while (waitForCompletion) {
-                switch (status.getStatusCode()) {
-                case Failed:
-                    throw new RuntimeException(
-                            "Failed while pushing document: "
-                                    + status.getMessages());
-
-                case Finished:
-                    waitForCompletion = false;
-                    break;
-
-                case Running:
-                    ConsoleUtils.setProgressFeedbackMessage("Pushing ...");
-                    break;
-
-                case Waiting:
-                    ConsoleUtils
-                            .setProgressFeedbackMessage("Waiting to start ...");
-                    break;
-
-                case NotAccepted:
-                    // try to submit the process again
-                    status =
-                            asyncProcessClient
-                                    .startSourceDocCreationOrUpdate(docUri,
-                                            getOpts().getProj(), getOpts()
-                                                    .getProjectVersion(),
-                                            srcDoc, extensions, false);
-                    ConsoleUtils
-                            .setProgressFeedbackMessage("Waiting for other clients ...");
-                    break;
-                }
+                    awaitProcess(processTracker.track(
+                            new Callable<ProcessStatus>() {
+                                @Override
+                                public ProcessStatus call() {
+                                    return asyncProcessClient
+                                            .startSourceDocCreationOrUpdate(
+                                                    docUri, getOpts()
+                                                            .getProj(),
+                                                    getOpts()
+                                                            .getProjectVersion(),
+                                                    srcDoc, extensions, false);
+                                }
+                            }, progressListener(false)));
 
-                // Wait before retrying
-                wait(POLL_PERIOD);
-                status = asyncProcessClient.getProcessStatus(status.getUrl());
+            if (status.getStatusCode() == ProcessStatusCode.Failed) {
+                throw new RuntimeException("Failed while pushing document: "
+                        + status.getMessages());
             }
 
-            ConsoleUtils.endProgressFeedback();
+            endProgressFeedback();
         } else {
-            log.info(
+            docLog.info(
                     "pushing source doc [name={} size={}] to server (skipped due to dry run)",
                     srcDoc.getName(), srcDoc.getTextFlows().size());
         }
@@ -599,205 +1091,324 @@ public class PushCommand extends PushPullCommand<PushOptions> {
      */
     public List<TranslationsResource> splitIntoBatch(TranslationsResource doc,
             int maxBatchSize) {
+        return splitIntoBatch(doc, maxBatchSize, Long.MAX_VALUE);
+    }
+
+    /**
+     * Split TranslationsResource into List&lt;TranslationsResource&gt;
+     * according to maxBatchSize and maxBatchBytes, but only if
+     * mergeType=AUTO. A batch may exceed maxBatchBytes only if it contains a
+     * single TextFlowTarget.
+     *
+     * @param doc
+     * @param maxBatchSize
+     *            maximum number of TextFlowTargets per batch
+     * @param maxBatchBytes
+     *            maximum estimated serialized size of each batch (see
+     *            {@link #estimateSize(TextFlowTarget)})
+     * @return list of TranslationsResource, each within the limits
+     */
+    public List<TranslationsResource> splitIntoBatch(TranslationsResource doc,
+            int maxBatchSize, long maxBatchBytes) {
         List<TranslationsResource> targetDocList =
                 new ArrayList<TranslationsResource>();
-        int numTargets = doc.getTextFlowTargets().size();
-
-        if (numTargets > maxBatchSize && mergeAuto()) {
-            int numBatches = numTargets / maxBatchSize;
+        List<TextFlowTarget> targets = doc.getTextFlowTargets();
+        if (!mergeAuto()) {
+            targetDocList.add(doc);
+            return targetDocList;
+        }
 
-            if (numTargets % maxBatchSize != 0) {
-                ++numBatches;
+        int fromIndex = 0;
+        long batchBytes = 0;
+        for (int i = 0; i < targets.size(); i++) {
+            long targetBytes = estimateSize(targets.get(i));
+            int batchSize = i - fromIndex;
+            if (batchSize > 0
+                    && (batchSize >= maxBatchSize
+                    || batchBytes + targetBytes > maxBatchBytes)) {
+                targetDocList.add(newBatch(doc, fromIndex, i));
+                fromIndex = i;
+                batchBytes = 0;
             }
+            batchBytes += targetBytes;
+        }
 
-            int fromIndex = 0;
-            int toIndex;
-
-            for (int i = 1; i <= numBatches; i++) {
-                // make a dummy TranslationsResource to hold just the
-                // TextFlowTargets for each batch
-                TranslationsResource resource = new TranslationsResource();
-                resource.setExtensions(doc.getExtensions());
-                resource.setLinks(doc.getLinks());
-                resource.setRevision(doc.getRevision());
-
-                if ((i * maxBatchSize) > numTargets) {
-                    toIndex = numTargets;
-                } else {
-                    toIndex = i * maxBatchSize;
-                }
+        if (targetDocList.isEmpty()) {
+            // everything fits in one batch
+            targetDocList.add(doc);
+        } else {
+            targetDocList.add(newBatch(doc, fromIndex, targets.size()));
+        }
+        return targetDocList;
+    }
 
-                resource.getTextFlowTargets().addAll(
-                        doc.getTextFlowTargets().subList(fromIndex, toIndex));
+    private static TranslationsResource newBatch(TranslationsResource doc,
+            int fromIndex, int toIndex) {
+        // make a dummy TranslationsResource to hold just the
+        // TextFlowTargets for each batch
+        TranslationsResource resource = new TranslationsResource();
+        resource.setExtensions(doc.getExtensions());
+        resource.setLinks(doc.getLinks());
+        resource.setRevision(doc.getRevision());
+        resource.getTextFlowTargets().addAll(
+                doc.getTextFlowTargets().subList(fromIndex, toIndex));
+        return resource;
+    }
 
-                fromIndex = i * maxBatchSize;
+    /**
+     * Rough size of a TextFlowTarget once serialized: the UTF-8 length of its
+     * id and contents, plus a fixed allowance for markup, state, translator
+     * and comments.
+     */
+    static long estimateSize(TextFlowTarget target) {
+        long size = TARGET_OVERHEAD_BYTES + utf8Length(target.getResId());
+        if (target.getContents() != null) {
+            for (String content : target.getContents()) {
+                size += utf8Length(content);
+            }
+        }
+        return size;
+    }
 
-                targetDocList.add(resource);
+    private static long utf8Length(String s) {
+        if (s == null) {
+            return 0;
+        }
+        long length = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                length += 1;
+            } else if (c < 0x800 || Character.isSurrogate(c)) {
+                // each half of a surrogate pair counts 2 (4 in total)
+                length += 2;
+            } else {
+                length += 3;
             }
-        } else {
-            targetDocList.add(doc);
         }
-        return targetDocList;
+        return length;
     }
 
-    private void pushTargetDocToServer(final String docUri,
-            LocaleMapping locale, final String localDocName,
-            TranslationsResource targetDoc, final StringSet extensions) {
+    /**
+     * A translation push which has been submitted to the server, but may not
+     * have finished yet. If the translations were split into batches, all
+     * but the last batch have already finished.
+     */
+    private static class TargetDocPush {
+        private final String docName;
+        private final LocaleMapping locale;
+        private final String contentHash;
+        private final List<String> earlierWarnings;
+        private final ListenableFuture<ProcessStatus> process;
+
+        private TargetDocPush(String docName, LocaleMapping locale,
+                String contentHash, List<String> earlierWarnings,
+                ListenableFuture<ProcessStatus> process) {
+            this.docName = docName;
+            this.locale = locale;
+            this.contentHash = contentHash;
+            this.earlierWarnings = earlierWarnings;
+            this.process = process;
+        }
+    }
+
+    /**
+     * Submits a translation push without waiting for it to finish. Large
+     * documents are split into batches (if mergeType=AUTO), which are pushed
+     * one after another, since the server will not process two pushes of the
+     * same document and locale at once.
+     *
+     * @return the submitted push, or null for a dry run
+     */
+    private TargetDocPush startTargetDocPush(final String docUri,
+            final LocaleMapping locale, final String localDocName,
+            final TranslationsResource targetDoc, String contentHash,
+            final StringSet extensions, BufferedLogger docLog) {
         if (!getOpts().isDryRun()) {
-            log.info(
-                    "Pushing target doc [name={} size={} client-locale={}] to server [locale={}]",
-                    localDocName,
-                    targetDoc.getTextFlowTargets().size(),
-                    locale.getLocalLocale(), locale.getLocale());
+            List<TranslationsResource> batches =
+                    splitIntoBatch(targetDoc, getOpts().getBatchEntries(),
+                            getOpts().getBatchBytes());
+            if (batches.size() == 1) {
+                docLog.info(
+                        "Pushing target doc [name={} size={} client-locale={}] to server [locale={}]",
+                        localDocName,
+                        targetDoc.getTextFlowTargets().size(),
+                        locale.getLocalLocale(), locale.getLocale());
+            } else {
+                docLog.info(
+                        "Pushing target doc [name={} size={} client-locale={}] to server [locale={}] in {} batches",
+                        localDocName,
+                        targetDoc.getTextFlowTargets().size(),
+                        locale.getLocalLocale(), locale.getLocale(),
+                        batches.size());
+            }
 
-            ConsoleUtils.startProgressFeedback();
+            startProgressFeedback();
 
-            ProcessStatus status =
-                    asyncProcessClient.startTranslatedDocCreationOrUpdate(
-                            docUri, getOpts().getProj(), getOpts()
-                                    .getProjectVersion(),
-                            new LocaleId(locale.getLocale()), targetDoc,
-                            extensions, getOpts().getMergeType(),
-                            getOpts().isMyTrans());
+            List<String> earlierWarnings = new ArrayList<String>();
+            ListenableFuture<ProcessStatus> process = null;
+            for (int i = 0; i < batches.size(); i++) {
+                if (process != null) {
+                    // the next batch is ready; wait for the previous one
+                    ProcessStatus status = awaitProcess(process);
+                    checkTargetDocStatus(status);
+                    earlierWarnings.addAll(status.getMessages());
+                }
+                TranslationsResource batch = batches.get(i);
+                if (batches.size() > 1) {
+                    docLog.info("  batch {}/{} [size={}]", i + 1,
+                            batches.size(), batch.getTextFlowTargets().size());
+                }
+                process =
+                        submitTargetDoc(docUri, locale, batch, extensions);
+            }
+            return new TargetDocPush(localDocName, locale, contentHash,
+                    earlierWarnings, process);
+        } else {
+            docLog.info(
+                    "pushing target doc [name={} size={} client-locale={}] to server [locale={}] (skipped due to dry run)",
+                    localDocName, targetDoc.getTextFlowTargets().size(),
+                    locale.getLocalLocale(), locale.getLocale());
+            return null;
+        }
+    }
 
-            boolean waitForCompletion = true;
+    private ListenableFuture<ProcessStatus> submitTargetDoc(
+            final String docUri, final LocaleMapping locale,
+            final TranslationsResource targetDoc, final StringSet extensions) {
+        return processTracker.track(new Callable<ProcessStatus>() {
+            @Override
+            public ProcessStatus call() {
+                return asyncProcessClient.startTranslatedDocCreationOrUpdate(
+                        docUri, getOpts().getProj(),
+                        getOpts().getProjectVersion(),
+                        new LocaleId(locale.getLocale()), targetDoc,
+                        extensions, getOpts().getMergeType(),
+                        getOpts().isMyTrans());
+            }
+        }, progressListener(true));
+    }
 
-            while (waitForCompletion) {
-                switch (status.getStatusCode()) {
-                case Failed:
-                    throw new RuntimeException(
-                            "Failed while pushing document translations: "
-                                    + status.getMessages());
+    private static void checkTargetDocStatus(ProcessStatus status) {
+        if (status.getStatusCode() == ProcessStatusCode.Failed) {
+            throw new RuntimeException(
+                    "Failed while pushing document translations: "
+                            + status.getMessages());
+        }
+    }
 
-                case Finished:
-                    waitForCompletion = false;
-                    break;
+    /**
+     * Waits for a translation push to finish, and reports any warnings.
+     */
+    private void finishTargetDocPush(TargetDocPush targetPush,
+            BufferedLogger docLog) {
+        ProcessStatus status = awaitProcess(targetPush.process);
+        checkTargetDocStatus(status);
+        endProgressFeedback();
+        pushManifest.addEntry(new PushManifestEntry(targetPush.docName,
+                targetPush.locale.getLocale(), targetPush.contentHash));
+
+        List<String> warnings =
+                new ArrayList<String>(targetPush.earlierWarnings);
+        warnings.addAll(status.getMessages());
+        // Show warning messages
+        if (warnings.size() > 0) {
+            if (getOpts().getLocaleThreads() > 1) {
+                docLog.warn("Pushed translations for locale {} with warnings:",
+                        targetPush.locale.getLocale());
+            } else {
+                docLog.warn("Pushed translations with warnings:");
+            }
+            for (String mssg : warnings) {
+                docLog.warn(mssg);
+            }
+        }
+    }
 
+    /**
+     * Shows the status of a tracked process in the console progress feedback.
+     *
+     * @param showPercentage
+     *            whether to show percentage complete while running
+     */
+    private ProcessStatusTracker.StatusListener progressListener(
+            final boolean showPercentage) {
+        return new ProcessStatusTracker.StatusListener() {
+            @Override
+            public void statusUpdated(ProcessStatus status) {
+                switch (status.getStatusCode()) {
                 case Running:
-                    ConsoleUtils.setProgressFeedbackMessage(status
-                            .getPercentageComplete() + "%");
+                    setProgressFeedbackMessage(showPercentage ? status
+                            .getPercentageComplete() + "%" : "Pushing ...");
                     break;
 
                 case Waiting:
-                    ConsoleUtils
-                            .setProgressFeedbackMessage("Waiting to start ...");
+                    setProgressFeedbackMessage("Waiting to start ...");
                     break;
 
                 case NotAccepted:
-                    // try to submit the process again
-                    status =
-                            asyncProcessClient
-                                    .startTranslatedDocCreationOrUpdate(docUri,
-                                            getOpts().getProj(), getOpts()
-                                                    .getProjectVersion(),
-                                            new LocaleId(locale.getLocale()),
-                                            targetDoc, extensions,
-                                            getOpts().getMergeType(),
-                                            getOpts().isMyTrans());
-                    ConsoleUtils
-                            .setProgressFeedbackMessage("Waiting for other clients ...");
+                    setProgressFeedbackMessage("Waiting for other clients ...");
                     break;
-                }
 
-                // Wait before retrying
-                wait(POLL_PERIOD);
-                status = asyncProcessClient.getProcessStatus(status.getUrl());
-            }
-            ConsoleUtils.endProgressFeedback();
-
-            // Show warning messages
-            if (status.getMessages().size() > 0) {
-                log.warn("Pushed translations with warnings:");
-                for (String mssg : status.getMessages()) {
-                    log.warn(mssg);
+                default:
+                    break;
                 }
             }
-        } else {
-            log.info(
-                    "pushing target doc [name={} size={} client-locale={}] to server [locale={}] (skipped due to dry run)",
-                    localDocName, targetDoc.getTextFlowTargets().size(),
-                    locale.getLocalLocale(), locale.getLocale());
-        }
+        };
     }
 
-    private void deleteSourceDocFromServer(String qualifiedDocName) {
-        if (!getOpts().isDryRun()) {
-            log.info("deleting resource {} from server", qualifiedDocName);
-            String docUri = RestUtil.convertToDocumentURIId(qualifiedDocName);
-            sourceDocResourceClient.deleteResource(docUri);
-        } else {
-            log.info(
-                    "deleting resource {} from server (skipped due to dry run)",
-                    qualifiedDocName);
+    private static ProcessStatus awaitProcess(
+            ListenableFuture<ProcessStatus> process) {
+        try {
+            return process.get();
+        } catch (InterruptedException e) {
+            // we are being shut down (eg after another document failed)
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting", e);
+        } catch (ExecutionException e) {
+            throw Throwables.propagate(e.getCause());
         }
     }
 
-    private void copyTransForDocument(String docName) {
+    /**
+     * Starts copyTrans for a document, without waiting for it to finish (see
+     * {@link CopyTransTracker#awaitAll()}).
+     */
+    private void startCopyTrans(String docName, BufferedLogger docLog) {
         if (getOpts().isDryRun()) {
-            log.info("Skipping Copy Trans for " + docName + " (due to dry run)");
+            docLog.info("Skipping Copy Trans for " + docName
+                    + " (due to dry run)");
             return;
         }
-        log.info("Running Copy Trans for " + docName);
-        try {
-            this.copyTransClient.startCopyTrans(getOpts().getProj(),
-                    getOpts().getProjectVersion(), docName);
-        } catch (Exception ex) {
-            log.warn("Could not start Copy Trans for above document. Proceeding");
-            return;
+        docLog.info("Starting Copy Trans for " + docName);
+        if (!copyTransTracker.start(docName)) {
+            docLog.warn(
+                    "Could not start Copy Trans for above document. Proceeding");
         }
-        CopyTransStatus copyTransStatus;
+    }
 
-        try {
-            copyTransStatus =
-                    this.copyTransClient.getCopyTransStatus(getOpts()
-                            .getProj(), getOpts().getProjectVersion(), docName);
-        } catch (UniformInterfaceException failure) {
-            // 404 - Probably because of an old server
-            if (failure.getResponse().getClientResponseStatus() == ClientResponse.Status.NOT_FOUND) {
-                if (getClientFactory()
-                        .compareToServerVersion("1.8.0-SNAPSHOT") < 0) {
-                    log.warn("Copy Trans not started (Incompatible server version.)");
-                    return;
-                } else {
-                    throw new RuntimeException(
-                            "Could not invoke copy trans. The service was not available (404)");
-                }
-            } else if (failure.getCause() != null) {
-                throw new RuntimeException("Problem invoking copy trans.",
-                        failure.getCause());
-            } else {
-                throw new RuntimeException(
-                        "Problem invoking copy trans: [Server response code:"
-                                + failure.getResponse().getStatus() + "]");
-            }
-        }
-        ConsoleUtils.startProgressFeedback();
+    // Console progress feedback is a single shared display, which only makes
+    // sense when processes are pushed one at a time.
 
-        while (copyTransStatus.isInProgress()) {
-            try {
-                Thread.sleep(POLL_PERIOD);
-            } catch (InterruptedException e) {
-                log.warn("Interrupted while waiting for Copy Trans to finish.");
-            }
-            ConsoleUtils.setProgressFeedbackMessage(copyTransStatus
-                    .getPercentageComplete() + "%");
-            copyTransStatus =
-                    this.copyTransClient.getCopyTransStatus(getOpts()
-                            .getProj(), getOpts().getProjectVersion(), docName);
+    private boolean showProgress() {
+        return !isConcurrent() && getOpts().getLocaleThreads() <= 1;
+    }
+
+    private void startProgressFeedback() {
+        if (showProgress()) {
+            ConsoleUtils.startProgressFeedback();
         }
-        ConsoleUtils.endProgressFeedback();
+    }
 
-        if (copyTransStatus.getPercentageComplete() < 100) {
-            log.warn("Copy Trans for the above document stopped unexpectedly.");
+    private void setProgressFeedbackMessage(String mssg) {
+        if (showProgress()) {
+            ConsoleUtils.setProgressFeedbackMessage(mssg);
         }
     }
 
-    // TODO Perhaps move this to ConsoleUtils
-    private static void wait(int millis) {
-        try {
-            Thread.sleep(millis);
-        } catch (InterruptedException e) {
-            log.warn("Interrupted while waiting");
+    private void endProgressFeedback() {
+        if (showProgress()) {
+            ConsoleUtils.endProgressFeedback();
         }
     }
 
@@ -56,4 +56,34 @@ public interface PushOptions extends PushPullOptions {
 
     public boolean isMyTrans();
 
+    /**
+     * Maximum number of documents to push concurrently (1 means push
+     * sequentially).
+     */
+    public int getPushThreads();
+
+    /**
+     * Maximum number of locales to push concurrently for each document (1
+     * means push one locale at a time).
+     */
+    public int getLocaleThreads();
+
+    /**
+     * Maximum number of translations to push in a single request (only
+     * applies when mergeType is AUTO).
+     */
+    public int getBatchEntries();
+
+    /**
+     * Maximum estimated size, in bytes, of translations to push in a single
+     * request (only applies when mergeType is AUTO).
+     */
+    public long getBatchBytes();
+
+    /**
+     * Whether to push all documents, even those which are unchanged since the
+     * last push (according to the push manifest in .zanata-cache).
+     */
+    public boolean getForce();
+
 }
@@ -42,6 +42,10 @@ public class PushOptionsImpl extends AbstractPushPullOptionsImpl<PushOptions>
     private static final boolean DEF_COPYTRANS = true;
     private static final boolean DEF_MY_TRANS = false;
     private static final int DEF_CHUNK_SIZE = 1024 * 1024;
+    private static final int DEF_PUSH_THREADS = 1;
+    private static final int DEF_LOCALE_THREADS = 1;
+    private static final int DEF_BATCH_ENTRIES = 5000;
+    private static final long DEF_BATCH_BYTES = 5 * 1024 * 1024;
     /** @see org.zanata.common.MergeType for options */
     private static final String DEF_MERGE_TYPE = "AUTO";
     private static final String DEF_PUSH_TYPE = "source";
@@ -60,6 +64,11 @@ public class PushOptionsImpl extends AbstractPushPullOptionsImpl<PushOptions>
 
     private String validate;
     private boolean myTrans = DEF_MY_TRANS;
+    private int pushThreads = DEF_PUSH_THREADS;
+    private int localeThreads = DEF_LOCALE_THREADS;
+    private int batchEntries = DEF_BATCH_ENTRIES;
+    private long batchBytes = DEF_BATCH_BYTES;
+    private boolean force = false;
 
     @Override
     public ZanataCommand initCommand() {
@@ -255,4 +264,84 @@ public class PushOptionsImpl extends AbstractPushPullOptionsImpl<PushOptions>
     public void setMyTrans(boolean myTrans) {
         this.myTrans = myTrans;
     }
+
+    @Override
+    public int getPushThreads() {
+        return pushThreads;
+    }
+
+    @Option(
+            name = "--threads",
+            metaVar = "N",
+            usage = "Maximum number of documents to push concurrently. Log output\n"
+                    + "is still reported one document at a time, in document order.\n"
+                    + "(default: " + DEF_PUSH_THREADS + ")")
+    public
+            void setPushThreads(int pushThreads) {
+        this.pushThreads = pushThreads;
+    }
+
+    @Override
+    public int getLocaleThreads() {
+        return localeThreads;
+    }
+
+    @Option(
+            name = "--locale-threads",
+            metaVar = "N",
+            usage = "Maximum number of locales to push concurrently for each document.\n"
+                    + "Warnings are still reported in locale order.\n"
+                    + "(default: " + DEF_LOCALE_THREADS + ")")
+    public
+            void setLocaleThreads(int localeThreads) {
+        this.localeThreads = localeThreads;
+    }
+
+    @Override
+    public int getBatchEntries() {
+        return batchEntries;
+    }
+
+    @Option(
+            name = "--batch-entries",
+            metaVar = "N",
+            usage = "Maximum number of translations to push in a single request.\n"
+                    + "Larger translation files are pushed in batches.\n"
+                    + "Only applies to merge type \"auto\". (default: "
+                    + DEF_BATCH_ENTRIES + ")")
+    public
+            void setBatchEntries(int batchEntries) {
+        this.batchEntries = batchEntries;
+    }
+
+    @Override
+    public long getBatchBytes() {
+        return batchBytes;
+    }
+
+    @Option(
+            name = "--batch-bytes",
+            metaVar = "SIZE",
+            usage = "Maximum estimated size, in bytes, of translations to push in a\n"
+                    + "single request. Larger translation files are pushed in batches.\n"
+                    + "Only applies to merge type \"auto\". (default: "
+                    + DEF_BATCH_BYTES + ")")
+    public
+            void setBatchBytes(long batchBytes) {
+        this.batchBytes = batchBytes;
+    }
+
+    @Override
+    public boolean getForce() {
+        return force;
+    }
+
+    @Option(
+            name = "--force",
+            usage = "Push all documents and translations, even if they are unchanged\n"
+                    + "since they were last pushed successfully (see .zanata-cache/push-manifest.xml).")
+    public
+            void setForce(boolean force) {
+        this.force = force;
+    }
 }
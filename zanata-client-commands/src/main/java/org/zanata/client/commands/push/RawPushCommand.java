@@ -272,6 +272,7 @@ public class RawPushCommand extends PushPullCommand<PushOptions> {
         File srcFile = new File(sourceDir, localDocName);
 
         pushDocumentToServer(qualifiedDocName, fileType, locale, srcFile);
+        documentPushed(qualifiedDocName);
         return true;
     }
 
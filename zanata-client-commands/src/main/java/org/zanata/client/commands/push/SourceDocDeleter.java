@@ -0,0 +1,157 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.client.commands.push;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.zanata.rest.RestUtil;
+import org.zanata.rest.client.SourceDocResourceClient;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.sun.jersey.api.client.ClientResponse;
+import com.sun.jersey.api.client.UniformInterfaceException;
+
+/**
+ * Deletes source documents from the server with bounded concurrency. A
+ * document which is no longer on the server is not treated as a failure.
+ * (Transient failures are retried by the REST client's RetryFilter.)
+ */
+class SourceDocDeleter {
+    private static final Logger log = LoggerFactory
+            .getLogger(SourceDocDeleter.class);
+
+    private final SourceDocResourceClient client;
+    private final int threads;
+
+    /**
+     * Outcome of deleting a set of documents.
+     */
+    static class Summary {
+        private final List<String> deleted = new ArrayList<String>();
+        private final List<String> notFound = new ArrayList<String>();
+        private final Map<String, String> failed =
+                new LinkedHashMap<String, String>();
+
+        /**
+         * @return qualified names of the documents which were deleted
+         */
+        List<String> getDeleted() {
+            return Collections.unmodifiableList(deleted);
+        }
+
+        /**
+         * @return qualified names of the documents which were already gone
+         */
+        List<String> getNotFound() {
+            return Collections.unmodifiableList(notFound);
+        }
+
+        /**
+         * @return error message for each document which could not be deleted
+         */
+        Map<String, String> getFailed() {
+            return Collections.unmodifiableMap(failed);
+        }
+    }
+
+    SourceDocDeleter(SourceDocResourceClient client, int threads) {
+        this.client = client;
+        this.threads = threads;
+    }
+
+    /**
+     * Deletes the documents, waiting until every deletion has succeeded or
+     * given up.
+     *
+     * @param qualifiedDocNames
+     *            documents to delete
+     */
+    Summary deleteAll(List<String> qualifiedDocNames) {
+        ExecutorService executor =
+                Executors.newFixedThreadPool(threads,
+                        new ThreadFactoryBuilder().setDaemon(true)
+                                .setNameFormat("zanata-delete-%d").build());
+        Map<String, Future<Boolean>> results =
+                new LinkedHashMap<String, Future<Boolean>>();
+        try {
+            for (final String qualifiedDocName : qualifiedDocNames) {
+                results.put(qualifiedDocName,
+                        executor.submit(new Callable<Boolean>() {
+                            @Override
+                            public Boolean call() throws Exception {
+                                return delete(qualifiedDocName);
+                            }
+                        }));
+            }
+            Summary summary = new Summary();
+            for (Map.Entry<String, Future<Boolean>> entry : results
+                    .entrySet()) {
+                String qualifiedDocName = entry.getKey();
+                try {
+                    if (entry.getValue().get()) {
+                        summary.deleted.add(qualifiedDocName);
+                    } else {
+                        summary.notFound.add(qualifiedDocName);
+                    }
+                } catch (ExecutionException e) {
+                    summary.failed.put(qualifiedDocName, String.valueOf(e
+                            .getCause().getMessage()));
+                }
+            }
+            return summary;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while deleting documents",
+                    e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * @return true if the document was deleted, false if it was not on the
+     *         server
+     */
+    private boolean delete(String qualifiedDocName) {
+        String docUri = RestUtil.convertToDocumentURIId(qualifiedDocName);
+        try {
+            log.info("deleting resource {} from server", qualifiedDocName);
+            client.deleteResource(docUri);
+            return true;
+        } catch (UniformInterfaceException e) {
+            if (e.getResponse().getClientResponseStatus() == ClientResponse.Status.NOT_FOUND) {
+                return false;
+            }
+            throw e;
+        }
+    }
+}
@@ -26,7 +26,6 @@ import java.io.IOException;
 import java.util.HashSet;
 import java.util.Set;
 
-import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Unmarshaller;
 
@@ -37,6 +36,7 @@ import org.zanata.client.commands.TransFileResolver;
 import org.zanata.client.commands.UnqualifiedSrcDocName;
 import org.zanata.client.commands.push.PushCommand.TranslationResourcesVisitor;
 import org.zanata.client.config.LocaleMapping;
+import org.zanata.client.util.JaxbPool;
 import org.zanata.rest.StringSet;
 import org.zanata.rest.dto.resource.Resource;
 import org.zanata.rest.dto.resource.TranslationsResource;
@@ -47,16 +47,14 @@ import org.zanata.rest.dto.resource.TranslationsResource;
  *
  */
 public class XmlStrategy extends AbstractPushStrategy {
-    private JAXBContext jaxbContext;
     private Unmarshaller unmarshaller;
 
     public XmlStrategy() {
         super(new StringSet("comment;gettext"), ".xml");
         try {
-            jaxbContext =
-                    JAXBContext.newInstance(Resource.class,
-                            TranslationsResource.class);
-            unmarshaller = jaxbContext.createUnmarshaller();
+            // documents are parsed on one thread, so this is not shared
+            unmarshaller =
+                    JaxbPool.forDtos().getContext().createUnmarshaller();
         } catch (JAXBException e) {
             throw new RuntimeException(e);
         }
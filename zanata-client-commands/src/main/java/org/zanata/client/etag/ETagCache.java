@@ -28,7 +28,7 @@ import org.apache.commons.collections.keyvalue.MultiKey;
 
 /**
  * Provides a set of Etag cache entries and convenience methods for finding
- * them.
+ * them. Entries may be read and updated from several threads.
  *
  * @author Carlos Munoz <a
  *         href="mailto:camunoz@redhat.com">camunoz@redhat.com</a>
@@ -36,35 +36,81 @@ import org.apache.commons.collections.keyvalue.MultiKey;
 public class ETagCache {
     private Map<MultiKey, ETagCacheEntry> fileNameIndex =
             new LinkedHashMap<MultiKey, ETagCacheEntry>();
+    // changes not yet saved by an ETagCacheStore
+    private List<ETagCacheEntry> addedEntries = new ArrayList<ETagCacheEntry>();
+    private boolean cleared;
 
     public ETagCache() {
     }
 
     ETagCache(ETagCacheCollection entries) {
         for (ETagCacheEntry entry : entries.getCacheEntries()) {
-            addEntry(entry);
+            putEntry(entry);
         }
     }
 
-    public List<ETagCacheEntry> getCacheEntries() {
+    public synchronized List<ETagCacheEntry> getCacheEntries() {
         return new ArrayList<ETagCacheEntry>(fileNameIndex.values());
     }
 
-    public void addEntry(ETagCacheEntry entry) {
+    public synchronized void addEntry(ETagCacheEntry entry) {
+        putEntry(entry);
+        addedEntries.add(entry);
+    }
+
+    /**
+     * Adds an entry without recording it as a change, eg when loading.
+     */
+    synchronized void putEntry(ETagCacheEntry entry) {
         fileNameIndex.put(
                 new MultiKey(entry.getLocalFileName(), entry.getLanguage()),
                 entry);
     }
 
-    public ETagCacheEntry findEntry(String localFileName, String language) {
+    public synchronized ETagCacheEntry findEntry(String localFileName,
+            String language) {
         return fileNameIndex.get(new MultiKey(localFileName, language));
     }
 
-    public void clear() {
+    public synchronized void clear() {
         fileNameIndex.clear();
+        addedEntries.clear();
+        cleared = true;
+    }
+
+    /**
+     * @return entries added since the last call, in order
+     */
+    synchronized List<ETagCacheEntry> takeAddedEntries() {
+        List<ETagCacheEntry> entries = addedEntries;
+        addedEntries = new ArrayList<ETagCacheEntry>();
+        return entries;
+    }
+
+    /**
+     * @return true if the cache has been cleared since the last call
+     */
+    synchronized boolean takeCleared() {
+        boolean wasCleared = cleared;
+        cleared = false;
+        return wasCleared;
+    }
+
+    /**
+     * Puts back changes taken by an ETagCacheStore which could not save them,
+     * ahead of any changes made since they were taken.
+     */
+    synchronized void restoreChanges(boolean wasCleared,
+            List<ETagCacheEntry> entries) {
+        cleared |= wasCleared;
+        addedEntries.addAll(0, entries);
+    }
+
+    synchronized int size() {
+        return fileNameIndex.size();
     }
 
-    ETagCacheCollection asETagCacheCollection() {
+    synchronized ETagCacheCollection asETagCacheCollection() {
         ETagCacheCollection col = new ETagCacheCollection();
         col.setCacheEntries(new ArrayList<ETagCacheEntry>(fileNameIndex
                 .values()));
@@ -39,6 +39,10 @@ public class ETagCacheEntry {
 
     private String serverETag;
 
+    private String localFileSize;
+
+    private String localFileKey;
+
     public ETagCacheEntry() {
     }
 
@@ -51,6 +55,22 @@ public class ETagCacheEntry {
         this.serverETag = serverETag;
     }
 
+    /**
+     * @param localFileSize
+     *            size of the local file when it was written
+     * @param localFileKey
+     *            file system key (eg inode) of the local file when it was
+     *            written, or null if the file system has none
+     */
+    public ETagCacheEntry(String localFileName, String language,
+            String localFileTime, String localFileMD5, String serverETag,
+            String localFileSize, String localFileKey) {
+        this(localFileName, language, localFileTime, localFileMD5,
+                serverETag);
+        this.localFileSize = localFileSize;
+        this.localFileKey = localFileKey;
+    }
+
     @XmlAttribute
     public String getLocalFileName() {
         return localFileName;
@@ -95,4 +115,22 @@ public class ETagCacheEntry {
     public void setServerETag(String serverETag) {
         this.serverETag = serverETag;
     }
+
+    @XmlAttribute
+    public String getLocalFileSize() {
+        return localFileSize;
+    }
+
+    public void setLocalFileSize(String localFileSize) {
+        this.localFileSize = localFileSize;
+    }
+
+    @XmlAttribute
+    public String getLocalFileKey() {
+        return localFileKey;
+    }
+
+    public void setLocalFileKey(String localFileKey) {
+        this.localFileKey = localFileKey;
+    }
 }
@@ -22,10 +22,9 @@ package org.zanata.client.etag;
 
 import java.io.InputStream;
 import java.io.OutputStream;
-import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
-import javax.xml.bind.Marshaller;
-import javax.xml.bind.Unmarshaller;
+
+import org.zanata.client.util.JaxbPool;
 
 /**
  * @author Carlos Munoz <a
@@ -34,14 +33,8 @@ import javax.xml.bind.Unmarshaller;
 public class ETagCacheReaderWriter {
     public static ETagCache readCache(InputStream is) {
         try {
-            JAXBContext jaxbCtx =
-                    JAXBContext.newInstance(ETagCacheCollection.class);
-            Unmarshaller unmarshaller = jaxbCtx.createUnmarshaller();
-
-            ETagCacheCollection cacheCol =
-                    (ETagCacheCollection) unmarshaller.unmarshal(is);
-            ETagCache cache = new ETagCache(cacheCol);
-            return cache;
+            return new ETagCache(JaxbPool.forClasses(ETagCacheCollection.class)
+                    .unmarshal(is, ETagCacheCollection.class));
         } catch (JAXBException e) {
             throw new RuntimeException(e);
         }
@@ -49,12 +42,8 @@ public class ETagCacheReaderWriter {
 
     public static void writeCache(ETagCache cache, OutputStream os) {
         try {
-            JAXBContext jaxbCtx =
-                    JAXBContext.newInstance(ETagCacheCollection.class);
-            Marshaller marshaller = jaxbCtx.createMarshaller();
-            marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT,
-                    Boolean.TRUE);
-            marshaller.marshal(cache.asETagCacheCollection(), os);
+            JaxbPool.forClasses(ETagCacheCollection.class).marshal(
+                    cache.asETagCacheCollection(), os);
         } catch (JAXBException e) {
             throw new RuntimeException(e);
         }
@@ -0,0 +1,279 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.client.etag;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UnsupportedEncodingException;
+import java.io.Writer;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.List;
+
+import javax.xml.bind.JAXBException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.zanata.client.util.JaxbPool;
+import org.zanata.util.PathUtil;
+
+import com.google.common.base.Charsets;
+
+/**
+ * Saves an {@link ETagCache} as a snapshot (etag-cache.xml, in the same format
+ * as always) plus a journal of the entries added since the snapshot was
+ * written, so that saving after each document only has to append a few lines.
+ * <p>
+ * Each save appends to the journal and syncs it to disk; an incomplete last
+ * line (eg after a crash) is ignored when loading. Once the journal grows
+ * larger than the snapshot (or the cache is cleared), the two are compacted
+ * into a new snapshot, which is written to a temporary file and renamed over
+ * the old one once the journal has been removed.
+ */
+public class ETagCacheStore {
+    private static final Logger log = LoggerFactory
+            .getLogger(ETagCacheStore.class);
+
+    private static final int MIN_ENTRIES_TO_COMPACT = 1000;
+    // marks the end of a complete journal line
+    private static final String END_OF_ENTRY = ";";
+
+    private final File snapshotFile;
+    private final File journalFile;
+    private int snapshotEntries;
+    private int journalEntries;
+    // the journal was removed, but the new snapshot did not replace the old
+    // one, so the snapshot on disk is missing the journal's entries
+    private boolean snapshotStale;
+
+    /**
+     * @param snapshotFile
+     *            the snapshot (an existing etag-cache.xml will be imported)
+     * @param journalFile
+     *            the journal of changes since the snapshot
+     */
+    public ETagCacheStore(File snapshotFile, File journalFile) {
+        this.snapshotFile = snapshotFile;
+        this.journalFile = journalFile;
+    }
+
+    /**
+     * Reads the snapshot and replays the journal. If the snapshot can't be
+     * read, an empty cache is returned.
+     */
+    public synchronized ETagCache load() {
+        ETagCache cache;
+        try (InputStream is = new FileInputStream(snapshotFile)) {
+            cache = ETagCacheReaderWriter.readCache(is);
+        } catch (Exception e) {
+            // could not read for some reason, use a new one
+            cache = new ETagCache();
+        }
+        snapshotEntries = cache.size();
+        journalEntries = 0;
+        if (journalFile.exists()) {
+            try {
+                replayJournal(cache);
+            } catch (IOException e) {
+                log.warn("Could not read Zanata ETag cache journal: {}",
+                        e.toString());
+            }
+        }
+        return cache;
+    }
+
+    private void replayJournal(ETagCache cache) throws IOException {
+        try (BufferedReader reader =
+                new BufferedReader(new InputStreamReader(new FileInputStream(
+                        journalFile), Charsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                ETagCacheEntry entry = parseEntry(line);
+                if (entry == null) {
+                    // incomplete or corrupt line, probably from a crash
+                    log.debug("ignoring ETag cache journal line: {}", line);
+                    continue;
+                }
+                cache.putEntry(entry);
+                journalEntries++;
+            }
+        }
+    }
+
+    /**
+     * Appends the entries added to the cache since the last save to the
+     * journal, compacting it if it has grown too large. If the changes can't
+     * be saved, they are kept in the cache for the next save.
+     */
+    public synchronized void save(ETagCache cache) throws IOException {
+        boolean cleared = cache.takeCleared();
+        List<ETagCacheEntry> entries = cache.takeAddedEntries();
+        if (cleared || snapshotStale) {
+            compact(cache, cleared, entries);
+            return;
+        }
+        if (!entries.isEmpty()) {
+            try {
+                appendToJournal(entries);
+            } catch (IOException | RuntimeException e) {
+                cache.restoreChanges(false, entries);
+                throw e;
+            }
+        }
+        if (journalEntries >= Math.max(MIN_ENTRIES_TO_COMPACT,
+                snapshotEntries)) {
+            compact(cache, false, Collections.<ETagCacheEntry>emptyList());
+        }
+    }
+
+    /**
+     * Writes the whole cache to a new snapshot and removes the journal. If
+     * the snapshot can't be written, the cache's changes are kept for the
+     * next save.
+     */
+    public synchronized void compact(ETagCache cache) throws IOException {
+        compact(cache, cache.takeCleared(), cache.takeAddedEntries());
+    }
+
+    private void compact(ETagCache cache, boolean cleared,
+            List<ETagCacheEntry> added) throws IOException {
+        if (!cleared && added.isEmpty() && journalEntries == 0
+                && !snapshotStale && snapshotFile.exists()) {
+            // nothing has changed since the snapshot was written
+            return;
+        }
+        try {
+            writeSnapshot(cache);
+        } catch (IOException | RuntimeException e) {
+            cache.restoreChanges(cleared, added);
+            throw e;
+        }
+    }
+
+    private void writeSnapshot(ETagCache cache) throws IOException {
+        PathUtil.makeDirs(snapshotFile.getParentFile());
+        File tmpFile =
+                new File(snapshotFile.getParentFile(), snapshotFile.getName()
+                        + ".tmp");
+        try (FileOutputStream os = new FileOutputStream(tmpFile)) {
+            JaxbPool.forClasses(ETagCacheCollection.class).marshalCompact(
+                    cache.asETagCacheCollection(), os);
+            os.getFD().sync();
+        } catch (JAXBException e) {
+            throw new IOException(e);
+        }
+        // The journal must go before the new snapshot replaces the old one:
+        // replaying it over the new snapshot would bring back any entries
+        // which were purged by clear(). If we crash in between, the journal's
+        // entries are lost, which only means those files are fetched again.
+        Files.deleteIfExists(journalFile.toPath());
+        snapshotStale = true;
+        try {
+            Files.move(tmpFile.toPath(), snapshotFile.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmpFile.toPath(), snapshotFile.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING);
+        }
+        snapshotStale = false;
+        journalEntries = 0;
+        snapshotEntries = cache.size();
+    }
+
+    private void appendToJournal(List<ETagCacheEntry> entries)
+            throws IOException {
+        PathUtil.makeDirs(journalFile.getParentFile());
+        try (FileOutputStream os = new FileOutputStream(journalFile, true)) {
+            Writer writer = new OutputStreamWriter(os, Charsets.UTF_8);
+            for (ETagCacheEntry entry : entries) {
+                writer.write(formatEntry(entry));
+                writer.write('\n');
+            }
+            writer.flush();
+            os.getFD().sync();
+        }
+        journalEntries += entries.size();
+    }
+
+    static String formatEntry(ETagCacheEntry entry) {
+        return encode(entry.getLocalFileName()) + '\t'
+                + encode(entry.getLanguage()) + '\t'
+                + encode(entry.getLocalFileTime()) + '\t'
+                + encode(entry.getLocalFileMD5()) + '\t'
+                + encode(entry.getServerETag()) + '\t'
+                + encode(entry.getLocalFileSize()) + '\t'
+                + encode(entry.getLocalFileKey()) + '\t' + END_OF_ENTRY;
+    }
+
+    /**
+     * @return the entry, or null if the line is not a complete entry
+     */
+    static ETagCacheEntry parseEntry(String line) {
+        String[] fields = line.split("\t", -1);
+        if (fields.length != 8 || !fields[7].equals(END_OF_ENTRY)) {
+            return null;
+        }
+        try {
+            return new ETagCacheEntry(decode(fields[0]), decode(fields[1]),
+                    decode(fields[2]), decode(fields[3]), decode(fields[4]),
+                    decode(fields[5]), decode(fields[6]));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    // null is written as an empty field, and any other value with a prefix
+    private static String encode(String value) {
+        if (value == null) {
+            return "";
+        }
+        try {
+            return "=" + URLEncoder.encode(value, "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static String decode(String field) {
+        if (field.isEmpty()) {
+            return null;
+        }
+        if (field.charAt(0) != '=') {
+            throw new IllegalArgumentException(field);
+        }
+        try {
+            return URLDecoder.decode(field.substring(1), "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
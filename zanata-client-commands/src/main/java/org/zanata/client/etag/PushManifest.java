@@ -0,0 +1,147 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.client.etag;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.collections.keyvalue.MultiKey;
+
+import com.google.common.base.Objects;
+
+/**
+ * Remembers what was last pushed successfully, so that unchanged documents
+ * and translations can be skipped. A manifest is only valid for the server
+ * URL, server version, project version, merge type, myTrans setting and
+ * extensions it was recorded with.
+ * <p>
+ * Entries may be read and updated from several threads.
+ */
+public class PushManifest {
+    private final String serverUrl;
+    private final String serverVersion;
+    private final String project;
+    private final String version;
+    private final String mergeType;
+    private final boolean myTrans;
+    private final String extensions;
+    private final Map<MultiKey, PushManifestEntry> entries =
+            new LinkedHashMap<MultiKey, PushManifestEntry>();
+
+    public PushManifest(String serverUrl, String serverVersion,
+            String project, String version, String mergeType, boolean myTrans,
+            String extensions) {
+        this.serverUrl = serverUrl;
+        this.serverVersion = serverVersion;
+        this.project = project;
+        this.version = version;
+        this.mergeType = mergeType;
+        this.myTrans = myTrans;
+        this.extensions = extensions;
+    }
+
+    PushManifest(PushManifestCollection col) {
+        this(col.getServerUrl(), col.getServerVersion(), col.getProject(), col
+                .getVersion(), col.getMergeType(), col.isMyTrans(), col
+                .getExtensions());
+        for (PushManifestEntry entry : col.getEntries()) {
+            addEntry(entry);
+        }
+    }
+
+    /**
+     * @return true if the other manifest was recorded with the same server
+     *         URL, server version, project version, merge type, myTrans
+     *         setting and extensions
+     */
+    public boolean isCompatibleWith(PushManifest other) {
+        return Objects.equal(serverUrl, other.serverUrl)
+                && Objects.equal(serverVersion, other.serverVersion)
+                && Objects.equal(project, other.project)
+                && Objects.equal(version, other.version)
+                && Objects.equal(mergeType, other.mergeType)
+                && myTrans == other.myTrans
+                && Objects.equal(extensions, other.extensions);
+    }
+
+    /**
+     * Copies all entries from another manifest into this one.
+     */
+    public void addEntries(PushManifest other) {
+        for (PushManifestEntry entry : other.getEntries()) {
+            addEntry(entry);
+        }
+    }
+
+    public synchronized List<PushManifestEntry> getEntries() {
+        return new ArrayList<PushManifestEntry>(entries.values());
+    }
+
+    public synchronized void addEntry(PushManifestEntry entry) {
+        entries.put(new MultiKey(entry.getDocName(), entry.getLanguage()),
+                entry);
+    }
+
+    public synchronized PushManifestEntry findEntry(String docName,
+            String language) {
+        return entries.get(new MultiKey(docName, language));
+    }
+
+    /**
+     * @param language
+     *            server locale, or null for the source document
+     * @return true if the document (or its translations for the language) was
+     *         last pushed with the given content hash
+     */
+    public boolean isUnchanged(String docName, String language,
+            String contentHash) {
+        PushManifestEntry entry = findEntry(docName, language);
+        return entry != null && entry.getContentHash().equals(contentHash);
+    }
+
+    /**
+     * Forgets the source document and all translations for a document.
+     */
+    public synchronized void removeDocument(String docName) {
+        Iterator<PushManifestEntry> iter = entries.values().iterator();
+        while (iter.hasNext()) {
+            if (iter.next().getDocName().equals(docName)) {
+                iter.remove();
+            }
+        }
+    }
+
+    synchronized PushManifestCollection asPushManifestCollection() {
+        PushManifestCollection col = new PushManifestCollection();
+        col.setServerUrl(serverUrl);
+        col.setServerVersion(serverVersion);
+        col.setProject(project);
+        col.setVersion(version);
+        col.setMergeType(mergeType);
+        col.setMyTrans(myTrans);
+        col.setExtensions(extensions);
+        col.setEntries(new ArrayList<PushManifestEntry>(entries.values()));
+        return col;
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.client.etag;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+
+/**
+ * XML form of a {@link PushManifest}.
+ */
+@XmlRootElement(name = "push-manifest")
+public class PushManifestCollection {
+    private String serverUrl;
+    private String serverVersion;
+    private String project;
+    private String version;
+    private String mergeType;
+    private boolean myTrans;
+    private String extensions;
+    private List<PushManifestEntry> entries =
+            new ArrayList<PushManifestEntry>();
+
+    @XmlAttribute
+    public String getServerUrl() {
+        return serverUrl;
+    }
+
+    public void setServerUrl(String serverUrl) {
+        this.serverUrl = serverUrl;
+    }
+
+    @XmlAttribute
+    public String getServerVersion() {
+        return serverVersion;
+    }
+
+    public void setServerVersion(String serverVersion) {
+        this.serverVersion = serverVersion;
+    }
+
+    @XmlAttribute
+    public String getProject() {
+        return project;
+    }
+
+    public void setProject(String project) {
+        this.project = project;
+    }
+
+    @XmlAttribute
+    public String getVersion() {
+        return version;
+    }
+
+    public void setVersion(String version) {
+        this.version = version;
+    }
+
+    @XmlAttribute
+    public String getMergeType() {
+        return mergeType;
+    }
+
+    public void setMergeType(String mergeType) {
+        this.mergeType = mergeType;
+    }
+
+    @XmlAttribute
+    public boolean isMyTrans() {
+        return myTrans;
+    }
+
+    public void setMyTrans(boolean myTrans) {
+        this.myTrans = myTrans;
+    }
+
+    @XmlAttribute
+    public String getExtensions() {
+        return extensions;
+    }
+
+    public void setExtensions(String extensions) {
+        this.extensions = extensions;
+    }
+
+    @XmlElement(name = "entry")
+    public List<PushManifestEntry> getEntries() {
+        return entries;
+    }
+
+    public void setEntries(List<PushManifestEntry> entries) {
+        this.entries = entries;
+    }
+}
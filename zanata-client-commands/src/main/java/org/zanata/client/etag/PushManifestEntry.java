@@ -0,0 +1,81 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.client.etag;
+
+import javax.xml.bind.annotation.XmlAttribute;
+
+/**
+ * Records the content hash of a source document, or of one locale's
+ * translations for a document, as last pushed successfully.
+ */
+public class PushManifestEntry {
+    private String docName;
+
+    private String language;
+
+    private String contentHash;
+
+    public PushManifestEntry() {
+    }
+
+    /**
+     * @param docName
+     *            qualified document name
+     * @param language
+     *            server locale of the translations, or null for the source
+     *            document
+     * @param contentHash
+     *            hash of the document as pushed
+     */
+    public PushManifestEntry(String docName, String language,
+            String contentHash) {
+        this.docName = docName;
+        this.language = language;
+        this.contentHash = contentHash;
+    }
+
+    @XmlAttribute(name = "doc")
+    public String getDocName() {
+        return docName;
+    }
+
+    public void setDocName(String docName) {
+        this.docName = docName;
+    }
+
+    @XmlAttribute(name = "lang")
+    public String getLanguage() {
+        return language;
+    }
+
+    public void setLanguage(String language) {
+        this.language = language;
+    }
+
+    @XmlAttribute(name = "hash")
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.client.etag;
+
+import java.io.File;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.xml.bind.JAXBException;
+
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.zanata.client.util.JaxbPool;
+import org.zanata.rest.dto.resource.Resource;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Joiner;
+
+/**
+ * Keeps the last copy of each source document fetched from the server, with
+ * its ETag, so that a pull only needs to download documents which have
+ * changed.
+ * <p>
+ * Each document is stored as an XML file (and its ETag in a separate file)
+ * named by a hash of the server, project version, document name and
+ * extensions, since the server's ETag only covers the document itself.
+ */
+public class SourceDocCache {
+    private static final Logger log = LoggerFactory
+            .getLogger(SourceDocCache.class);
+
+    private final File dir;
+    private final String scope;
+
+    /**
+     * @param dir
+     *            directory for the cached documents
+     * @param scope
+     *            identifies the server and project version the documents
+     *            come from
+     */
+    public SourceDocCache(File dir, String scope) {
+        this.dir = dir;
+        this.scope = scope;
+    }
+
+    /**
+     * @return the ETag of the cached copy of a document, or null if there is
+     *         none
+     */
+    public String getETag(String docName, Set<String> extensions) {
+        File eTagFile = eTagFile(docName, extensions);
+        if (!eTagFile.isFile()) {
+            return null;
+        }
+        try {
+            return FileUtils.readFileToString(eTagFile, "UTF-8");
+        } catch (IOException e) {
+            log.debug("unable to read " + eTagFile, e);
+            return null;
+        }
+    }
+
+    /**
+     * @return the cached copy of a document, or null if there is none (or it
+     *         can't be read)
+     */
+    public Resource getResource(String docName, Set<String> extensions) {
+        File docFile = docFile(docName, extensions);
+        if (!docFile.isFile()) {
+            return null;
+        }
+        try {
+            return JaxbPool.forDtos().unmarshal(docFile, Resource.class);
+        } catch (JAXBException e) {
+            log.debug("unable to read " + docFile, e);
+            return null;
+        }
+    }
+
+    /**
+     * Stores a document along with the ETag the server sent for it. Failures
+     * are logged, since the cache is only an optimisation.
+     */
+    public void put(String docName, Set<String> extensions, String eTag,
+            Resource doc) {
+        File eTagFile = eTagFile(docName, extensions);
+        File docFile = docFile(docName, extensions);
+        try {
+            FileUtils.forceMkdir(dir);
+            // the ETag is written last, so that it never refers to a
+            // partially written document
+            FileUtils.deleteQuietly(eTagFile);
+            File tmpFile = new File(dir, docFile.getName() + ".tmp");
+            JaxbPool.forDtos().marshal(doc, tmpFile);
+            if ((docFile.exists() && !docFile.delete())
+                    || !tmpFile.renameTo(docFile)) {
+                throw new IOException("unable to replace " + docFile);
+            }
+            FileUtils.writeStringToFile(eTagFile, eTag, "UTF-8");
+        } catch (IOException | JAXBException e) {
+            log.warn("Unable to cache source document {}: {}", docName,
+                    e.toString());
+        }
+    }
+
+    /**
+     * Removes all cached documents.
+     */
+    public void clear() {
+        FileUtils.deleteQuietly(dir);
+    }
+
+    private File eTagFile(String docName, Set<String> extensions) {
+        return new File(dir, key(docName, extensions) + ".etag");
+    }
+
+    private File docFile(String docName, Set<String> extensions) {
+        return new File(dir, key(docName, extensions) + ".xml");
+    }
+
+    private String key(String docName, Set<String> extensions) {
+        String sortedExtensions =
+                extensions == null ? "" : Joiner.on(';').join(
+                        new TreeSet<String>(extensions));
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-1");
+            md.update((scope + '\n' + docName + '\n' + sortedExtensions)
+                    .getBytes(Charsets.UTF_8));
+            return new String(Hex.encodeHex(md.digest()));
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
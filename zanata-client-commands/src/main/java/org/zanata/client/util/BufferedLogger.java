@@ -0,0 +1,126 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.client.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+
+/**
+ * Logs to an slf4j {@link Logger}, optionally holding the messages back until
+ * {@link #flush()} is called.
+ * <p>
+ * Commands which work on several documents at once give each document its own
+ * buffered logger, then flush them in document order, so that the output reads
+ * exactly as it would for a sequential run.
+ */
+public class BufferedLogger {
+
+    private enum Level {
+        DEBUG, INFO, WARN, ERROR
+    }
+
+    private static class Entry {
+        private final Level level;
+        private final String format;
+        private final Object[] args;
+
+        private Entry(Level level, String format, Object[] args) {
+            this.level = level;
+            this.format = format;
+            this.args = args;
+        }
+    }
+
+    private final Logger log;
+    private final boolean buffered;
+    private final List<Entry> entries = new ArrayList<Entry>();
+
+    /**
+     * @param log
+     *            the logger which will eventually receive the messages
+     * @param buffered
+     *            if false, messages are passed straight through to the logger
+     */
+    public BufferedLogger(Logger log, boolean buffered) {
+        this.log = log;
+        this.buffered = buffered;
+    }
+
+    public boolean isDebugEnabled() {
+        return log.isDebugEnabled();
+    }
+
+    public void debug(String format, Object... args) {
+        if (log.isDebugEnabled()) {
+            append(Level.DEBUG, format, args);
+        }
+    }
+
+    public void info(String format, Object... args) {
+        append(Level.INFO, format, args);
+    }
+
+    public void warn(String format, Object... args) {
+        append(Level.WARN, format, args);
+    }
+
+    public void error(String format, Object... args) {
+        append(Level.ERROR, format, args);
+    }
+
+    /**
+     * Writes out (and forgets) any messages held back so far.
+     */
+    public synchronized void flush() {
+        for (Entry entry : entries) {
+            write(entry);
+        }
+        entries.clear();
+    }
+
+    private synchronized void append(Level level, String format, Object[] args) {
+        Entry entry = new Entry(level, format, args);
+        if (buffered) {
+            entries.add(entry);
+        } else {
+            write(entry);
+        }
+    }
+
+    private void write(Entry entry) {
+        switch (entry.level) {
+        case DEBUG:
+            log.debug(entry.format, entry.args);
+            break;
+        case INFO:
+            log.info(entry.format, entry.args);
+            break;
+        case WARN:
+            log.warn(entry.format, entry.args);
+            break;
+        case ERROR:
+            log.error(entry.format, entry.args);
+            break;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.client.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
+
+/**
+ * The size, modification time and file key (eg device and inode, where the
+ * file system has them) of a file. If all three are unchanged since a file was
+ * written, it is assumed not to have been modified, which is much cheaper to
+ * check than hashing its contents.
+ */
+public final class FileStat {
+    private final long size;
+    private final long lastModified;
+    private final String fileKey;
+
+    private FileStat(long size, long lastModified, String fileKey) {
+        this.size = size;
+        this.lastModified = lastModified;
+        this.fileKey = fileKey;
+    }
+
+    /**
+     * @return the file's current stat, or null if it does not exist
+     */
+    public static FileStat of(File file) {
+        try {
+            BasicFileAttributes attrs =
+                    Files.readAttributes(file.toPath(),
+                            BasicFileAttributes.class);
+            Object key = attrs.fileKey();
+            return new FileStat(attrs.size(), attrs.lastModifiedTime()
+                    .toMillis(), key == null ? null : key.toString());
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * @return the modification time, as for {@link File#lastModified()}
+     */
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * @return the file key, or null if the file system does not provide one
+     */
+    public String getFileKey() {
+        return fileKey;
+    }
+
+    /**
+     * @param recordedSize
+     *            size recorded earlier, or null if unknown
+     * @param recordedLastModified
+     *            modification time recorded earlier
+     * @param recordedFileKey
+     *            file key recorded earlier, or null if unknown
+     * @return true if the size, modification time and file key all match the
+     *         recorded values. Returns false if the size is unknown, or if
+     *         the file key is unknown and the file system has one.
+     */
+    public boolean matches(String recordedSize, String recordedLastModified,
+            String recordedFileKey) {
+        return Long.toString(size).equals(recordedSize)
+                && Long.toString(lastModified).equals(recordedLastModified)
+                && (fileKey == null ? recordedFileKey == null : fileKey
+                        .equals(recordedFileKey));
+    }
+
+    /**
+     * As {@link #matches}, but lenient towards cache entries made before the
+     * size and file key were recorded: the size is only compared if it was
+     * recorded, and the file key only if it was recorded and the file system
+     * provides one.
+     *
+     * @param recordedSize
+     *            size recorded earlier, or null if unknown
+     * @param recordedLastModified
+     *            modification time recorded earlier
+     * @param recordedFileKey
+     *            file key recorded earlier, or null if unknown
+     */
+    public boolean matchesRecorded(String recordedSize,
+            String recordedLastModified, String recordedFileKey) {
+        return Long.toString(lastModified).equals(recordedLastModified)
+                && (recordedSize == null || Long.toString(size).equals(
+                        recordedSize))
+                && (recordedFileKey == null || fileKey == null || fileKey
+                        .equals(recordedFileKey));
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.client.util;
+
+import java.io.File;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.stream.XMLStreamReader;
+
+import org.zanata.rest.dto.resource.Resource;
+import org.zanata.rest.dto.resource.TranslationsResource;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * A shared JAXB context for a set of classes, with pools of marshallers and
+ * unmarshallers.
+ * <p>
+ * Creating a JAXBContext is expensive, so there is only ever one instance for
+ * each set of classes (see {@link #forClasses(Class...)}). Marshallers and
+ * unmarshallers are cheap, but not thread-safe; the methods here borrow one
+ * from a pool, so they may be called from any number of threads.
+ */
+public class JaxbPool {
+    private static final ConcurrentMap<Set<Class<?>>, JaxbPool> pools =
+            new ConcurrentHashMap<Set<Class<?>>, JaxbPool>();
+
+    private final JAXBContext context;
+    private final Queue<Marshaller> formattedMarshallers =
+            new ConcurrentLinkedQueue<Marshaller>();
+    private final Queue<Marshaller> compactMarshallers =
+            new ConcurrentLinkedQueue<Marshaller>();
+    private final Queue<Unmarshaller> unmarshallers =
+            new ConcurrentLinkedQueue<Unmarshaller>();
+
+    private JaxbPool(JAXBContext context) {
+        this.context = context;
+    }
+
+    /**
+     * @return the pool for the given classes, creating its context the first
+     *         time
+     */
+    public static JaxbPool forClasses(Class<?>... classes) {
+        Set<Class<?>> key = ImmutableSet.copyOf(classes);
+        JaxbPool pool = pools.get(key);
+        if (pool == null) {
+            synchronized (pools) {
+                pool = pools.get(key);
+                if (pool == null) {
+                    try {
+                        pool = new JaxbPool(JAXBContext.newInstance(classes));
+                    } catch (JAXBException e) {
+                        throw new RuntimeException(e);
+                    }
+                    pools.put(key, pool);
+                }
+            }
+        }
+        return pool;
+    }
+
+    /**
+     * @return the pool for {@link Resource} and {@link TranslationsResource}
+     */
+    public static JaxbPool forDtos() {
+        return forClasses(Resource.class, TranslationsResource.class);
+    }
+
+    public JAXBContext getContext() {
+        return context;
+    }
+
+    public <T> T unmarshal(File file, Class<T> type) throws JAXBException {
+        Unmarshaller unmarshaller = borrowUnmarshaller();
+        try {
+            return type.cast(unmarshaller.unmarshal(file));
+        } finally {
+            unmarshallers.offer(unmarshaller);
+        }
+    }
+
+    public <T> T unmarshal(InputStream is, Class<T> type)
+            throws JAXBException {
+        Unmarshaller unmarshaller = borrowUnmarshaller();
+        try {
+            return type.cast(unmarshaller.unmarshal(is));
+        } finally {
+            unmarshallers.offer(unmarshaller);
+        }
+    }
+
+    /**
+     * Reads the element at the reader's current position (which must be a
+     * start element), leaving the reader just after its end element.
+     */
+    public <T> T unmarshal(XMLStreamReader reader, Class<T> type)
+            throws JAXBException {
+        Unmarshaller unmarshaller = borrowUnmarshaller();
+        try {
+            return unmarshaller.unmarshal(reader, type).getValue();
+        } finally {
+            unmarshallers.offer(unmarshaller);
+        }
+    }
+
+    /**
+     * Writes formatted (indented) XML.
+     */
+    public void marshal(Object jaxbElement, File file) throws JAXBException {
+        Marshaller marshaller = borrowMarshaller(formattedMarshallers, true);
+        try {
+            marshaller.marshal(jaxbElement, file);
+        } finally {
+            formattedMarshallers.offer(marshaller);
+        }
+    }
+
+    /**
+     * Writes formatted (indented) XML.
+     */
+    public void marshal(Object jaxbElement, OutputStream os)
+            throws JAXBException {
+        Marshaller marshaller = borrowMarshaller(formattedMarshallers, true);
+        try {
+            marshaller.marshal(jaxbElement, os);
+        } finally {
+            formattedMarshallers.offer(marshaller);
+        }
+    }
+
+    /**
+     * Writes formatted (indented) XML.
+     */
+    public void marshal(Object jaxbElement, Writer writer)
+            throws JAXBException {
+        Marshaller marshaller = borrowMarshaller(formattedMarshallers, true);
+        try {
+            marshaller.marshal(jaxbElement, writer);
+        } finally {
+            formattedMarshallers.offer(marshaller);
+        }
+    }
+
+    /**
+     * Writes XML without any formatting.
+     */
+    public void marshalCompact(Object jaxbElement, OutputStream os)
+            throws JAXBException {
+        Marshaller marshaller = borrowMarshaller(compactMarshallers, false);
+        try {
+            marshaller.marshal(jaxbElement, os);
+        } finally {
+            compactMarshallers.offer(marshaller);
+        }
+    }
+
+    private Unmarshaller borrowUnmarshaller() throws JAXBException {
+        Unmarshaller unmarshaller = unmarshallers.poll();
+        return unmarshaller != null ? unmarshaller : context
+                .createUnmarshaller();
+    }
+
+    private Marshaller borrowMarshaller(Queue<Marshaller> pool,
+            boolean formatted) throws JAXBException {
+        Marshaller marshaller = pool.poll();
+        if (marshaller == null) {
+            marshaller = context.createMarshaller();
+            marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT,
+                    formatted);
+        }
+        return marshaller;
+    }
+}
@@ -349,17 +349,23 @@ public class MockServerRule extends ExternalResource {
         when(fileResourceClient.downloadSourceFile(
                 eq(pullOpts.getProj()), eq(pullOpts.getProjectVersion()),
                 eq(FileResource.FILETYPE_RAW_SOURCE_DOCUMENT),
-                anyString())).thenReturn(downloadSourceResponse);
+                anyString(), (String) any())).thenReturn(
+                downloadSourceResponse);
         when(downloadSourceResponse.getClientResponseStatus()).thenReturn(
                 ClientResponse.Status.OK);
         when(downloadSourceResponse.getStatus()).thenReturn(200);
+        when(downloadSourceResponse.getHeaders()).thenReturn(
+                new MultivaluedMapImpl());
         when(downloadSourceResponse.getEntity(InputStream.class))
                 .thenReturn(sourceFileStream);
         // return provide translation stream
         when(fileResourceClient.downloadTranslationFile(eq(pullOpts.getProj()),
                 eq(pullOpts.getProjectVersion()), anyString(), anyString(),
-                anyString())).thenReturn(downloadTransResponse);
+                anyString(), (String) any())).thenReturn(
+                downloadTransResponse);
         when(downloadTransResponse.getStatus()).thenReturn(200);
+        when(downloadTransResponse.getHeaders()).thenReturn(
+                new MultivaluedMapImpl());
         when(downloadTransResponse.getClientResponseStatus()).thenReturn(
                 ClientResponse.Status.OK);
         when(downloadTransResponse.getEntity(InputStream.class))
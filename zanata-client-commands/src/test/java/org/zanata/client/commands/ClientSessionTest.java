@@ -0,0 +1,91 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.client.commands;
+
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.zanata.rest.client.RestClientFactory;
+import org.zanata.rest.client.SourceDocResourceClient;
+import org.zanata.rest.dto.resource.ResourceMeta;
+
+import com.google.common.collect.Lists;
+
+import static org.hamcrest.Matchers.contains;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ClientSessionTest {
+    private ClientSession session;
+    private SourceDocResourceClient client;
+
+    @Before
+    public void setUp() {
+        session = new ClientSession(mock(RestClientFactory.class));
+        client = mock(SourceDocResourceClient.class);
+        when(client.getResourceMeta(null)).thenReturn(
+                Lists.newArrayList(new ResourceMeta("a"),
+                        new ResourceMeta("b")));
+    }
+
+    private static List<String> names(List<ResourceMeta> docs) {
+        List<String> names = Lists.newArrayList();
+        for (ResourceMeta doc : docs) {
+            names.add(doc.getName());
+        }
+        return names;
+    }
+
+    @Test
+    public void fetchesDocListOncePerVersion() {
+        assertThat(names(session.getDocList("proj", "1", client)),
+                contains("a", "b"));
+        assertThat(names(session.getDocList("proj", "1", client)),
+                contains("a", "b"));
+        session.getDocList("proj", "2", client);
+
+        verify(client, times(2)).getResourceMeta(null);
+    }
+
+    @Test
+    public void tracksPushedAndDeletedDocs() {
+        session.getDocList("proj", "1", client);
+        session.documentPushed("proj", "1", "c");
+        session.documentPushed("proj", "1", "a");
+        session.documentDeleted("proj", "1", "b");
+
+        assertThat(names(session.getDocList("proj", "1", client)),
+                contains("a", "c"));
+    }
+
+    @Test
+    public void ignoresChangesToVersionsNotYetFetched() {
+        session.documentDeleted("proj", "1", "a");
+        session.documentPushed("proj", "1", "c");
+
+        assertThat(names(session.getDocList("proj", "1", client)),
+                contains("a", "b"));
+    }
+}
@@ -8,6 +8,7 @@ import static org.zanata.client.commands.FileMappingRuleHandler.Placeholders.all
 import static org.zanata.client.commands.Messages._;
 
 import java.io.File;
+import java.net.URL;
 
 import org.hamcrest.Matchers;
 import org.junit.Before;
@@ -101,6 +102,23 @@ public class OptionsUtilTest {
                 Matchers.contains("a.properties", "b.properties"));
     }
 
+    @Test
+    public void clientFactoryKeyReflectsConnectionSettings() throws Exception {
+        opts.setUrl(new URL("https://translate.example.com/"));
+        opts.setUsername("admin");
+        opts.setKey("abc");
+        String key = OptionsUtil.clientFactoryKey(opts);
+        assertThat(OptionsUtil.clientFactoryKey(opts), Matchers.equalTo(key));
+
+        opts.setDisableSSLCert(true);
+        String noSslKey = OptionsUtil.clientFactoryKey(opts);
+        assertThat(noSslKey, Matchers.not(Matchers.equalTo(key)));
+
+        opts.setHttpRetries(0);
+        assertThat(OptionsUtil.clientFactoryKey(opts),
+                Matchers.not(Matchers.equalTo(noSslKey)));
+    }
+
     @Test
     public void willWarnUserIfRuleSeemsWrong() {
         opts.setInteractiveMode(false);
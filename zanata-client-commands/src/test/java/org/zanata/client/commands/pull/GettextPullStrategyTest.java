@@ -1,20 +1,39 @@
 package org.zanata.client.commands.pull;
 
+import com.google.common.base.Charsets;
 import com.google.common.base.Optional;
 import com.google.common.collect.Lists;
+import com.google.common.io.Files;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.zanata.client.config.FileMappingRule;
 import org.zanata.client.config.LocaleList;
 import org.zanata.client.config.LocaleMapping;
-
+import org.zanata.client.util.JaxbPool;
+import org.zanata.common.ContentState;
+import org.zanata.common.LocaleId;
+import org.zanata.common.io.FileDetails;
+import org.zanata.rest.dto.resource.Resource;
+import org.zanata.rest.dto.resource.TextFlow;
+import org.zanata.rest.dto.resource.TextFlowTarget;
+import org.zanata.rest.dto.resource.TranslationsResource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.Assert.fail;
 import static org.zanata.client.TestUtils.createAndAddLocaleMapping;
 
 public class GettextPullStrategyTest {
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
     private GettextPullStrategy strategy;
     private PullOptionsImpl opts;
 
@@ -72,4 +91,75 @@ public class GettextPullStrategyTest {
 
     }
 
+    @Test
+    public void canStreamTransFile() throws Exception {
+        opts.setTransDir(tempFolder.getRoot());
+        LocaleMapping deMapping = createAndAddLocaleMapping("de",
+            Optional.<String>absent(), opts);
+        Resource doc = sourceDoc("one", "two", "three");
+        byte[] xml = translationsXml(
+            target("one", "eins"), target("three", "drei"));
+
+        FileDetails details = strategy.writeTransFile(doc, "foo/po/message",
+            deMapping, new ByteArrayInputStream(xml));
+
+        File transFile =
+            strategy.getTransFileToWrite("foo/po/message", deMapping);
+        String po = Files.toString(transFile, Charsets.UTF_8);
+        assertThat(po, containsString(
+            "msgid \"one\"\nmsgstr \"eins\"\n\n" +
+            "msgid \"two\"\nmsgstr \"\"\n\n" +
+            "msgid \"three\"\nmsgstr \"drei\"\n"));
+        assertThat(details, notNullValue());
+        assertThat(details.getFile(), equalTo(transFile));
+        assertThat(transFile.getParentFile().list().length, equalTo(1));
+    }
+
+    @Test
+    public void refusesToStreamTargetsOutOfOrder() throws Exception {
+        opts.setTransDir(tempFolder.getRoot());
+        LocaleMapping deMapping = createAndAddLocaleMapping("de",
+            Optional.<String>absent(), opts);
+        Resource doc = sourceDoc("one", "two");
+        byte[] xml = translationsXml(
+            target("two", "zwei"), target("one", "eins"));
+
+        try {
+            strategy.writeTransFile(doc, "foo/po/message", deMapping,
+                new ByteArrayInputStream(xml));
+            fail("expected TranslationsOutOfOrderException");
+        } catch (TranslationsOutOfOrderException e) {
+            // expected
+        }
+        File transFile =
+            strategy.getTransFileToWrite("foo/po/message", deMapping);
+        assertThat(transFile.getParentFile().list().length, equalTo(0));
+    }
+
+    private static Resource sourceDoc(String... ids) {
+        Resource doc = new Resource("foo/po/message");
+        for (String id : ids) {
+            doc.getTextFlows().add(new TextFlow(id, LocaleId.EN_US, id));
+        }
+        return doc;
+    }
+
+    private static TextFlowTarget target(String resId, String content) {
+        TextFlowTarget target = new TextFlowTarget(resId);
+        target.setState(ContentState.Approved);
+        target.setContents(content);
+        return target;
+    }
+
+    private static byte[] translationsXml(TextFlowTarget... targets)
+        throws Exception {
+        TranslationsResource translations = new TranslationsResource();
+        for (TextFlowTarget target : targets) {
+            translations.getTextFlowTargets().add(target);
+        }
+        ByteArrayOutputStream xml = new ByteArrayOutputStream();
+        JaxbPool.forDtos().marshalCompact(translations, xml);
+        return xml.toByteArray();
+    }
+
 }
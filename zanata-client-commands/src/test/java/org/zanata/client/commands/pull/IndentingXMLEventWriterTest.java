@@ -0,0 +1,79 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.client.commands.pull;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import javax.xml.stream.XMLEventFactory;
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLEventWriter;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.events.XMLEvent;
+
+import org.junit.Test;
+
+public class IndentingXMLEventWriterTest {
+
+    private static String indent(String xml) throws Exception {
+        XMLEventReader reader =
+                XMLInputFactory.newInstance().createXMLEventReader(
+                        new StringReader(xml));
+        StringWriter out = new StringWriter();
+        XMLEventWriter writer =
+                new IndentingXMLEventWriter(XMLOutputFactory.newInstance()
+                        .createXMLEventWriter(out),
+                        XMLEventFactory.newInstance());
+        while (reader.hasNext()) {
+            XMLEvent event = reader.nextEvent();
+            if (!event.isStartDocument()) {
+                writer.add(event);
+            }
+        }
+        writer.close();
+        return out.toString();
+    }
+
+    @Test
+    public void indentsCompactXml() throws Exception {
+        assertThat(indent("<a><b>x</b><c><d>y</d></c><e/></a>"),
+                equalTo("\n<a>\n    <b>x</b>\n    <c>\n        <d>y</d>\n"
+                        + "    </c>\n    <e></e>\n</a>\n"));
+    }
+
+    @Test
+    public void replacesExistingIndentation() throws Exception {
+        assertThat(indent("<a>\n  <b>x</b>\n  <c>\n   <d>y</d>\n  </c>\n</a>"),
+                equalTo("\n<a>\n    <b>x</b>\n    <c>\n        <d>y</d>\n"
+                        + "    </c>\n</a>\n"));
+    }
+
+    @Test
+    public void keepsTextContent() throws Exception {
+        assertThat(indent("<a><b>  </b><c> x </c><d>x<e/> y</d></a>"),
+                equalTo("\n<a>\n    <b>  </b>\n    <c> x </c>\n"
+                        + "    <d>x<e></e> y</d>\n</a>\n"));
+    }
+}
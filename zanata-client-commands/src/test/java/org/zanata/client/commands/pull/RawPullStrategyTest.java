@@ -26,10 +26,13 @@ import static org.junit.Assert.assertThat;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -85,4 +88,17 @@ public class RawPullStrategyTest {
                 is(true));
     }
 
+    @Test
+    public void returnsHashOfWrittenFile() throws IOException {
+        byte[] content = "some odt content".getBytes("UTF-8");
+        LocaleMapping de = new LocaleMapping("de");
+
+        String md5 = strategy.writeTransFile("foo/test.odt", de,
+                new ByteArrayInputStream(content));
+
+        assertThat(md5, is(DigestUtils.md5Hex(content)));
+        File written = strategy.getTransFileToWrite("foo/test.odt", de);
+        assertThat(FileUtils.readFileToByteArray(written), is(content));
+    }
+
 }
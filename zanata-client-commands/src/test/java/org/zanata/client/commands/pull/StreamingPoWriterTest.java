@@ -0,0 +1,104 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.client.commands.pull;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+import java.io.StringWriter;
+
+import org.junit.Test;
+import org.zanata.common.ContentState;
+import org.zanata.common.LocaleId;
+import org.zanata.rest.dto.resource.Resource;
+import org.zanata.rest.dto.resource.TextFlow;
+import org.zanata.rest.dto.resource.TextFlowTarget;
+
+public class StreamingPoWriterTest {
+    private final StringWriter out = new StringWriter();
+
+    @Test
+    public void writesHeaderWithEncodingFields() throws Exception {
+        new StreamingPoWriter(out, false, false).writeHeader(
+                new Resource("doc"), null);
+
+        assertThat(out.toString(), equalTo("msgid \"\"\n"
+                + "msgstr \"\"\n"
+                + "\"MIME-Version: 1.0\\n\"\n"
+                + "\"Content-Type: text/plain; charset=UTF-8\\n\"\n"
+                + "\"Content-Transfer-Encoding: 8bit\\n\"\n\n"));
+    }
+
+    @Test
+    public void marksTranslationsNeedingReviewAsFuzzy() throws Exception {
+        TextFlowTarget target = new TextFlowTarget("greeting");
+        target.setState(ContentState.NeedReview);
+        target.setContents("hallo");
+
+        new StreamingPoWriter(out, false, false).writeEntry(new TextFlow(
+                "greeting", LocaleId.EN_US, "hello"), target);
+
+        assertThat(out.toString(), equalTo("#, fuzzy\n"
+                + "msgid \"hello\"\n"
+                + "msgstr \"hallo\"\n\n"));
+    }
+
+    @Test
+    public void leavesNewTranslationsEmpty() throws Exception {
+        TextFlowTarget target = new TextFlowTarget("greeting");
+        target.setState(ContentState.New);
+        target.setContents("hallo");
+
+        new StreamingPoWriter(out, false, false).writeEntry(new TextFlow(
+                "greeting", LocaleId.EN_US, "hello"), target);
+
+        assertThat(out.toString(), equalTo("msgid \"hello\"\n"
+                + "msgstr \"\"\n\n"));
+    }
+
+    @Test
+    public void writesPluralForms() throws Exception {
+        TextFlow textFlow = new TextFlow("files", LocaleId.EN_US, "%d file");
+        textFlow.setContents("%d file", "%d files");
+        TextFlowTarget target = new TextFlowTarget("files");
+        target.setState(ContentState.Translated);
+        target.setContents("%d Datei", "%d Dateien");
+
+        new StreamingPoWriter(out, false, false).writeEntry(textFlow, target);
+
+        assertThat(out.toString(), equalTo("msgid \"%d file\"\n"
+                + "msgid_plural \"%d files\"\n"
+                + "msgstr[0] \"%d Datei\"\n"
+                + "msgstr[1] \"%d Dateien\"\n\n"));
+    }
+
+    @Test
+    public void escapesAndSplitsMultilineStrings() throws Exception {
+        new StreamingPoWriter(out, true, true).writeEntry(new TextFlow(
+                "id1", LocaleId.EN_US, "say \"hi\"\n\tnow\\"), null);
+
+        assertThat(out.toString(), equalTo("msgctxt \"id1\"\n"
+                + "msgid \"\"\n"
+                + "\"say \\\"hi\\\"\\n\"\n"
+                + "\"\\tnow\\\\\"\n"
+                + "msgstr \"\"\n\n"));
+    }
+}
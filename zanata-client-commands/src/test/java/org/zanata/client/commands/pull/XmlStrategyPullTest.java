@@ -3,11 +3,19 @@ package org.zanata.client.commands.pull;
 import com.google.common.base.Optional;
 import com.google.common.collect.Lists;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.zanata.client.config.FileMappingRule;
 import org.zanata.client.config.LocaleList;
 import org.zanata.client.config.LocaleMapping;
+import org.zanata.client.util.JaxbPool;
+import org.zanata.common.ContentState;
+import org.zanata.rest.dto.resource.TextFlowTarget;
+import org.zanata.rest.dto.resource.TranslationsResource;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -15,6 +23,8 @@ import static org.hamcrest.Matchers.equalTo;
 import static org.zanata.client.TestUtils.createAndAddLocaleMapping;
 
 public class XmlStrategyPullTest {
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
     private XmlStrategy strategy;
     private PullOptionsImpl opts;
 
@@ -73,4 +83,32 @@ public class XmlStrategyPullTest {
 
     }
 
+    @Test
+    public void canStreamTransFile() throws Exception {
+        opts.setTransDir(tempFolder.getRoot());
+        LocaleMapping deMapping = createAndAddLocaleMapping("de",
+            Optional.<String>absent(), opts);
+        TranslationsResource translations = new TranslationsResource();
+        TextFlowTarget target = new TextFlowTarget("hello");
+        target.setState(ContentState.Approved);
+        target.setContents("hallo \u00e4");
+        translations.getTextFlowTargets().add(target);
+        ByteArrayOutputStream xml = new ByteArrayOutputStream();
+        JaxbPool.forDtos().marshalCompact(translations, xml);
+        File transFile = strategy.getTransFileToWrite("foo/message",
+            deMapping);
+        transFile.getParentFile().mkdirs();
+        transFile.createNewFile();
+
+        strategy.writeTransFile(null, "foo/message", deMapping,
+            new ByteArrayInputStream(xml.toByteArray()));
+
+        TranslationsResource written = JaxbPool.forDtos().unmarshal(
+            transFile, TranslationsResource.class);
+        assertThat(written.getTextFlowTargets().size(), equalTo(1));
+        assertThat(written.getTextFlowTargets().get(0).getContents(),
+            equalTo(target.getContents()));
+        assertThat(transFile.getParentFile().list().length, equalTo(1));
+    }
+
 }
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.client.commands.push;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.zanata.rest.client.CopyTransClient;
+import org.zanata.rest.client.RestClientFactory;
+import org.zanata.rest.dto.CopyTransStatus;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+public class CopyTransTrackerTest {
+    @Mock
+    private CopyTransClient copyTransClient;
+    @Mock
+    private RestClientFactory clientFactory;
+    private CopyTransTracker tracker;
+
+    @Before
+    public void setUp() {
+        initMocks(this);
+        tracker =
+                new CopyTransTracker(copyTransClient, clientFactory,
+                        "project", "1.0", 1, 4);
+    }
+
+    private static CopyTransStatus status(boolean inProgress, int percentage) {
+        CopyTransStatus status = new CopyTransStatus();
+        status.setInProgress(inProgress);
+        status.setPercentageComplete(percentage);
+        return status;
+    }
+
+    @Test
+    public void startsAllThenWaitsForAll() throws Exception {
+        when(copyTransClient.getCopyTransStatus("project", "1.0", "doc1"))
+                .thenReturn(status(true, 50), status(false, 100));
+        when(copyTransClient.getCopyTransStatus("project", "1.0", "doc2"))
+                .thenReturn(status(true, 10), status(true, 60),
+                        status(false, 100));
+
+        assertThat(tracker.start("doc1"), is(true));
+        assertThat(tracker.start("doc2"), is(true));
+        verify(copyTransClient, never()).getCopyTransStatus("project", "1.0",
+                "doc1");
+
+        tracker.awaitAll();
+
+        verify(copyTransClient, times(2)).getCopyTransStatus("project",
+                "1.0", "doc1");
+        verify(copyTransClient, times(3)).getCopyTransStatus("project",
+                "1.0", "doc2");
+    }
+
+    @Test
+    public void documentWhichCouldNotBeStartedIsNotTracked() throws Exception {
+        when(copyTransClient.startCopyTrans("project", "1.0", "doc1"))
+                .thenThrow(new RuntimeException("server error"));
+
+        assertThat(tracker.start("doc1"), is(false));
+        tracker.awaitAll();
+
+        verify(copyTransClient, never()).getCopyTransStatus("project", "1.0",
+                "doc1");
+    }
+
+    @Test
+    public void failureNamesTheDocument() throws Exception {
+        when(copyTransClient.getCopyTransStatus("project", "1.0", "doc1"))
+                .thenReturn(status(false, 100));
+        when(copyTransClient.getCopyTransStatus("project", "1.0", "doc2"))
+                .thenThrow(new RuntimeException("server error"));
+        tracker.start("doc1");
+        tracker.start("doc2");
+
+        try {
+            tracker.awaitAll();
+            fail("expected CopyTransFailedException");
+        } catch (CopyTransTracker.CopyTransFailedException e) {
+            assertThat(e.getDocName(), equalTo("doc2"));
+        }
+    }
+
+    @Test
+    public void pollIntervalGrowsUntilProgressIsSeen() throws Exception {
+        tracker =
+                new CopyTransTracker(copyTransClient, clientFactory,
+                        "project", "1.0", 100, 200);
+
+        assertThat(tracker.nextPollMillis(100, false), equalTo(150L));
+        assertThat(tracker.nextPollMillis(150, false), equalTo(200L));
+        assertThat(tracker.nextPollMillis(200, false), equalTo(200L));
+        assertThat(tracker.nextPollMillis(200, true), equalTo(100L));
+    }
+}
@@ -1,9 +1,14 @@
 package org.zanata.client.commands.push;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.MockitoAnnotations.initMocks;
 import static org.zanata.client.TestUtils.fileFromClasspath;
@@ -12,8 +17,11 @@ import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.apache.commons.io.FileUtils;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.mockito.Mock;
 import org.zanata.client.TestUtils;
 import org.zanata.client.commands.OptionsUtil;
@@ -33,6 +41,8 @@ import org.zanata.rest.dto.resource.ResourceMeta;
 import org.zanata.rest.dto.resource.TextFlowTarget;
 import org.zanata.rest.dto.resource.TranslationsResource;
 
+import com.google.common.base.Strings;
+
 public class PushCommandTest {
     @Mock
     private RestClientFactory clientFactory;
@@ -42,10 +52,21 @@ public class PushCommandTest {
     private AsyncProcessClient asyncProcessClient;
     @Mock
     private CopyTransClient copyTransClient;
+    private int localeThreads = 1;
+    private boolean force = false;
+    private String pushType;
+    private boolean failTranslations = false;
+    private File projectDir;
+    private final List<ResourceMeta> docsOnServer =
+            new ArrayList<ResourceMeta>();
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
 
     @Before
     public void setUp() {
         initMocks(this);
+        docsOnServer.add(new ResourceMeta("obsolete"));
+        docsOnServer.add(new ResourceMeta("RPM"));
         when(clientFactory.getSourceDocResourceClient(anyString(), anyString()))
                 .thenReturn(sourceDocResourceClient);
         when(clientFactory.getAsyncProcessClient()).thenReturn(
@@ -68,6 +89,122 @@ public class PushCommandTest {
         push(true, true);
     }
 
+    @Test
+    public void pushSrcAndTargetConcurrently() throws Exception {
+        push(true, false, 2);
+        StringSet extensionSet = new StringSet("gettext;comment");
+        verify(asyncProcessClient).startSourceDocCreationOrUpdate(eq("RPM"),
+                anyString(), anyString(), any(Resource.class),
+                eq(extensionSet), eq(false));
+        verify(asyncProcessClient).startSourceDocCreationOrUpdate(
+                eq("sub,RPM"), anyString(), anyString(), any(Resource.class),
+                eq(extensionSet), eq(false));
+        verify(copyTransClient).startCopyTrans("project", "1.0", "RPM");
+        verify(copyTransClient).startCopyTrans("project", "1.0", "sub/RPM");
+    }
+
+    @Test
+    public void pushTargetLocalesConcurrently() throws Exception {
+        localeThreads = 4;
+        push(true, false);
+        verify(asyncProcessClient).startTranslatedDocCreationOrUpdate(
+                eq("RPM"), anyString(), anyString(), eq(new LocaleId("ja-JP")),
+                any(TranslationsResource.class),
+                eq(new StringSet("gettext;comment")), eq("auto"), eq(false));
+    }
+
+    @Test
+    public void pushTargetLocalesWithoutLocaleThreads() throws Exception {
+        localeThreads = 0;
+        push(true, false);
+        verify(asyncProcessClient).startTranslatedDocCreationOrUpdate(
+                eq("RPM"), anyString(), anyString(), eq(new LocaleId("ja-JP")),
+                any(TranslationsResource.class),
+                eq(new StringSet("gettext;comment")), eq("auto"), eq(false));
+    }
+
+    @Test
+    public void pushSkipsDocumentsUnchangedSinceLastPush() throws Exception {
+        push(true, false);
+        push(true, false);
+        StringSet extensionSet = new StringSet("gettext;comment");
+        verify(asyncProcessClient, times(1)).startSourceDocCreationOrUpdate(
+                eq("RPM"), anyString(), anyString(), any(Resource.class),
+                eq(extensionSet), eq(false));
+        verify(asyncProcessClient, times(1))
+                .startTranslatedDocCreationOrUpdate(eq("RPM"), anyString(),
+                        anyString(), eq(new LocaleId("ja-JP")),
+                        any(TranslationsResource.class), eq(extensionSet),
+                        eq("auto"), eq(false));
+        // not on the server, so it is always pushed
+        verify(asyncProcessClient, times(2)).startSourceDocCreationOrUpdate(
+                eq("sub,RPM"), anyString(), anyString(), any(Resource.class),
+                eq(extensionSet), eq(false));
+    }
+
+    @Test
+    public void forcePushIgnoresManifest() throws Exception {
+        force = true;
+        push(true, false);
+        push(true, false);
+        verify(asyncProcessClient, times(2)).startSourceDocCreationOrUpdate(
+                eq("RPM"), anyString(), anyString(), any(Resource.class),
+                eq(new StringSet("gettext;comment")), eq(false));
+    }
+
+    @Test
+    public void transOnlyPushRepushesDocumentsMissingFromServer()
+            throws Exception {
+        pushType = "trans";
+        StringSet extensionSet = new StringSet("gettext;comment");
+        push(true, false);
+        push(true, false);
+        verify(asyncProcessClient, times(1))
+                .startTranslatedDocCreationOrUpdate(eq("RPM"), anyString(),
+                        anyString(), eq(new LocaleId("ja-JP")),
+                        any(TranslationsResource.class), eq(extensionSet),
+                        eq("auto"), eq(false));
+
+        docsOnServer.clear();
+        push(true, false);
+        verify(asyncProcessClient, times(2))
+                .startTranslatedDocCreationOrUpdate(eq("RPM"), anyString(),
+                        anyString(), eq(new LocaleId("ja-JP")),
+                        any(TranslationsResource.class), eq(extensionSet),
+                        eq("auto"), eq(false));
+    }
+
+    @Test
+    public void changedSourceKeepsTranslationsPendingUntilTheyArePushed()
+            throws Exception {
+        projectDir = tempFolder.newFolder("project");
+        FileUtils.copyDirectory(fileFromClasspath("test1"), projectDir);
+        StringSet extensionSet = new StringSet("gettext;comment");
+        push(true, false);
+
+        FileUtils.writeStringToFile(new File(projectDir, "pot/RPM.pot"),
+                "\n#. Tag: para\nmsgid \"New string\"\nmsgstr \"\"\n",
+                "UTF-8", true);
+        failTranslations = true;
+        try {
+            push(true, false);
+            fail("expected the translation push to fail");
+        } catch (RuntimeException e) {
+            // expected
+        }
+
+        failTranslations = false;
+        push(true, false);
+        verify(asyncProcessClient, times(3)).startSourceDocCreationOrUpdate(
+                eq("RPM"), anyString(), anyString(), any(Resource.class),
+                eq(extensionSet), eq(false));
+        verify(asyncProcessClient, times(3))
+                .startTranslatedDocCreationOrUpdate(eq("RPM"), anyString(),
+                        anyString(), eq(new LocaleId("ja-JP")),
+                        any(TranslationsResource.class), eq(extensionSet),
+                        eq("auto"), eq(false));
+    }
+
     @Test
     public void testSplitTranslationResource() throws Exception {
         int batchSize = 100;
@@ -94,6 +231,58 @@ public class PushCommandTest {
         checkSplitResult(listSize, batchSize);
     }
 
+    @Test
+    public void testSplitTranslationResourceByBytes() throws Exception {
+        PushCommand cmd = generatePushCommand(true, true);
+        TranslationsResource transRes = new TranslationsResource();
+        for (int i = 0; i < 10; i++) {
+            TextFlowTarget target = new TextFlowTarget(String.valueOf(i));
+            target.setContents(Strings.repeat("a", 1000));
+            transRes.getTextFlowTargets().add(target);
+        }
+        long targetBytes =
+                PushCommand.estimateSize(transRes.getTextFlowTargets().get(0));
+
+        List<TranslationsResource> list =
+                cmd.splitIntoBatch(transRes, 100, targetBytes * 3);
+
+        assertEquals(4, list.size());
+        assertEquals(3, list.get(0).getTextFlowTargets().size());
+        assertEquals(1, list.get(3).getTextFlowTargets().size());
+    }
+
+    @Test
+    public void testSplitOversizedTranslationIntoOwnBatch() throws Exception {
+        PushCommand cmd = generatePushCommand(true, true);
+        TranslationsResource transRes = new TranslationsResource();
+        for (int i = 0; i < 3; i++) {
+            TextFlowTarget target = new TextFlowTarget(String.valueOf(i));
+            target.setContents(Strings.repeat("\u65e5", 1000));
+            transRes.getTextFlowTargets().add(target);
+        }
+
+        List<TranslationsResource> list =
+                cmd.splitIntoBatch(transRes, 100, 100);
+
+        assertEquals(3, list.size());
+    }
+
+    @Test
+    public void testNoSplitUnlessMergeAuto() throws Exception {
+        PushCommand cmd = generatePushCommand(true, true);
+        ((PushOptionsImpl) cmd.getOpts()).setMergeType("import");
+        TranslationsResource transRes = new TranslationsResource();
+        for (int i = 0; i < 10; i++) {
+            transRes.getTextFlowTargets().add(
+                    new TextFlowTarget(String.valueOf(i)));
+        }
+
+        List<TranslationsResource> list = cmd.splitIntoBatch(transRes, 2, 10);
+
+        assertEquals(1, list.size());
+        assertEquals(10, list.get(0).getTextFlowTargets().size());
+    }
+
     private void checkSplitResult(int listSize, int batchSize) throws Exception {
         PushCommand cmd = generatePushCommand(true, true);
         TranslationsResource transRes = new TranslationsResource();
@@ -124,6 +313,11 @@ public class PushCommandTest {
     private PushCommand
             generatePushCommand(boolean pushTrans, boolean mapLocale)
                     throws Exception {
+        return generatePushCommand(pushTrans, mapLocale, 1);
+    }
+
+    private PushCommand generatePushCommand(boolean pushTrans,
+            boolean mapLocale, int threads) throws Exception {
 
         PushOptionsImpl opts = new PushOptionsImpl();
         opts.setInteractiveMode(false);
@@ -131,13 +325,18 @@ public class PushCommandTest {
         opts.setProj(projectSlug);
         String versionSlug = "1.0";
         opts.setProjectVersion(versionSlug);
-        opts.setSrcDir(fileFromClasspath("test1/pot"));
-        if (pushTrans) {
+        File projectDir =
+                this.projectDir != null ? this.projectDir
+                        : fileFromClasspath("test1");
+        opts.setSrcDir(new File(projectDir, "pot"));
+        if (pushType != null) {
+            opts.setPushType(pushType);
+        } else if (pushTrans) {
             opts.setPushType("both");
         } else {
             opts.setPushType("source");
         }
-        opts.setTransDir(fileFromClasspath("test1"));
+        opts.setTransDir(projectDir);
         opts.setProjectType("podir");
         // opts.setNoCopyTrans(false);
         opts.setCopyTrans(true);
@@ -145,6 +344,9 @@ public class PushCommandTest {
         opts.setExcludes("");
         opts.setSourceLang("en-US");
         opts.setMergeType("auto");
+        opts.setPushThreads(threads);
+        opts.setLocaleThreads(localeThreads);
+        opts.setForce(force);
         LocaleList locales = new LocaleList();
         if (mapLocale) {
             locales.add(new LocaleMapping("ja", "ja-JP"));
@@ -154,17 +356,21 @@ public class PushCommandTest {
         opts.setLocaleMapList(locales);
         OptionsUtil.applyConfigFiles(opts);
 
-        return new PushCommand(opts,
-                clientFactory.getCopyTransClient(),
-                clientFactory.getAsyncProcessClient(), clientFactory);
+        PushCommand cmd =
+                new PushCommand(opts, clientFactory.getCopyTransClient(),
+                        clientFactory.getAsyncProcessClient(), clientFactory);
+        cmd.setCacheDir(tempFolder.getRoot());
+        return cmd;
     }
 
     private void push(boolean pushTrans, boolean mapLocale) throws Exception {
-        List<ResourceMeta> resourceMetaList = new ArrayList<ResourceMeta>();
-        resourceMetaList.add(new ResourceMeta("obsolete"));
-        resourceMetaList.add(new ResourceMeta("RPM"));
+        push(pushTrans, mapLocale, 1);
+    }
+
+    private void push(boolean pushTrans, boolean mapLocale, int threads)
+            throws Exception {
         when(sourceDocResourceClient.getResourceMeta(null)).thenReturn(
-                        resourceMetaList);
+                new ArrayList<ResourceMeta>(docsOnServer));
         when(sourceDocResourceClient.deleteResource("obsolete")).thenReturn(
                 null);
         StringSet extensionSet = new StringSet("gettext;comment");
@@ -206,20 +412,28 @@ public class PushCommandTest {
             } else {
                 expectedLocale = new LocaleId("ja-JP");
             }
-            when(
-                    asyncProcessClient
-                            .startTranslatedDocCreationOrUpdate(eq("RPM"),
-                                    anyString(), anyString(),
-                                    eq(expectedLocale),
-                                    any(TranslationsResource.class),
-                                    eq(extensionSet), eq("auto"), eq(false))).
-                                    thenReturn(mockStatus);
+            if (failTranslations) {
+                doThrow(new RuntimeException("translation push failed"))
+                        .when(asyncProcessClient)
+                        .startTranslatedDocCreationOrUpdate(eq("RPM"),
+                                anyString(), anyString(), eq(expectedLocale),
+                                any(TranslationsResource.class),
+                                eq(extensionSet), eq("auto"), eq(false));
+            } else {
+                doReturn(mockStatus)
+                        .when(asyncProcessClient)
+                        .startTranslatedDocCreationOrUpdate(eq("RPM"),
+                                anyString(), anyString(), eq(expectedLocale),
+                                any(TranslationsResource.class),
+                                eq(extensionSet), eq("auto"), eq(false));
+            }
             // when(mockTranslationResources.putTranslations(eq("RPM"),
             // eq(expectedLocale), (TranslationsResource) notNull(),
             // eq(extensionSet), eq("auto")))
             // .thenReturn(okResponse);
         }
-        ZanataCommand cmd = generatePushCommand(pushTrans, mapLocale);
+        ZanataCommand cmd =
+                generatePushCommand(pushTrans, mapLocale, threads);
         cmd.runWithActions();
     }
 
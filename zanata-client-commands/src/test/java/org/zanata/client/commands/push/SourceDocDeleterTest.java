@@ -0,0 +1,114 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.client.commands.push;
+
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.zanata.rest.client.SourceDocResourceClient;
+
+import com.sun.jersey.api.client.ClientResponse;
+import com.sun.jersey.api.client.UniformInterfaceException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+public class SourceDocDeleterTest {
+    @Mock
+    private SourceDocResourceClient client;
+    private SourceDocDeleter deleter;
+
+    @Before
+    public void setUp() {
+        initMocks(this);
+        deleter = new SourceDocDeleter(client, 2);
+    }
+
+    private static UniformInterfaceException failure(
+            ClientResponse.Status status) {
+        ClientResponse response = mock(ClientResponse.class);
+        when(response.getStatus()).thenReturn(status.getStatusCode());
+        when(response.getClientResponseStatus()).thenReturn(status);
+        return new UniformInterfaceException(response);
+    }
+
+    @Test
+    public void deletesAllDocuments() throws Exception {
+        SourceDocDeleter.Summary summary =
+                deleter.deleteAll(Arrays.asList("doc1", "dir/doc2", "doc3"));
+
+        assertThat(summary.getDeleted(),
+                contains("doc1", "dir/doc2", "doc3"));
+        assertThat(summary.getFailed().isEmpty(), is(true));
+        verify(client).deleteResource("doc1");
+        verify(client).deleteResource("dir,doc2");
+        verify(client).deleteResource("doc3");
+    }
+
+    @Test
+    public void reportsFailuresWithoutRetrying() throws Exception {
+        // retries are left to the REST client's RetryFilter
+        when(client.deleteResource("doc1")).thenThrow(
+                failure(ClientResponse.Status.INTERNAL_SERVER_ERROR));
+
+        SourceDocDeleter.Summary summary =
+                deleter.deleteAll(Arrays.asList("doc1", "doc2"));
+
+        assertThat(summary.getDeleted(), contains("doc2"));
+        assertThat(summary.getFailed(), hasKey("doc1"));
+        verify(client, times(1)).deleteResource("doc1");
+    }
+
+    @Test
+    public void reportsClientErrors() throws Exception {
+        when(client.deleteResource("doc1")).thenThrow(
+                failure(ClientResponse.Status.FORBIDDEN));
+
+        SourceDocDeleter.Summary summary =
+                deleter.deleteAll(Arrays.asList("doc1"));
+
+        assertThat(summary.getDeleted(), empty());
+        assertThat(summary.getFailed(), hasKey("doc1"));
+        verify(client, times(1)).deleteResource("doc1");
+    }
+
+    @Test
+    public void documentAlreadyGoneIsNotAFailure() throws Exception {
+        when(client.deleteResource("doc1")).thenThrow(
+                failure(ClientResponse.Status.NOT_FOUND));
+
+        SourceDocDeleter.Summary summary =
+                deleter.deleteAll(Arrays.asList("doc1"));
+
+        assertThat(summary.getNotFound(), contains("doc1"));
+        assertThat(summary.getFailed().isEmpty(), is(true));
+    }
+}
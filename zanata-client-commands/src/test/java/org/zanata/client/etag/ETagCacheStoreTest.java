@@ -0,0 +1,211 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.client.etag;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+
+public class ETagCacheStoreTest {
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private File snapshotFile;
+    private File journalFile;
+
+    @Before
+    public void setUp() {
+        snapshotFile = new File(tempFolder.getRoot(), "etag-cache.xml");
+        journalFile = new File(tempFolder.getRoot(), "etag-cache.journal");
+    }
+
+    private ETagCacheStore newStore() {
+        return new ETagCacheStore(snapshotFile, journalFile);
+    }
+
+    private static ETagCacheEntry entry(String doc, String locale,
+            String eTag) {
+        return new ETagCacheEntry(doc, locale, "1234", "md5", eTag);
+    }
+
+    @Test
+    public void importsExistingSnapshot() throws Exception {
+        try (InputStream is =
+                getClass().getResourceAsStream("/etagcache/etag-cache.xml");
+                OutputStream os = new FileOutputStream(snapshotFile)) {
+            IOUtils.copy(is, os);
+        }
+
+        ETagCache cache = newStore().load();
+
+        assertThat(cache.getCacheEntries().size(), is(3));
+    }
+
+    @Test
+    public void savesChangesToJournal() throws Exception {
+        ETagCacheStore store = newStore();
+        ETagCache cache = store.load();
+        cache.addEntry(entry("doc1", "de", "etag1"));
+        store.save(cache);
+        cache.addEntry(entry("doc2", "fr", null));
+        cache.addEntry(entry("doc1", "de", "etag2"));
+        store.save(cache);
+
+        assertThat(snapshotFile.exists(), is(false));
+        ETagCache loaded = newStore().load();
+        assertThat(loaded.getCacheEntries().size(), is(2));
+        assertThat(loaded.findEntry("doc1", "de").getServerETag(),
+                is("etag2"));
+        assertThat(loaded.findEntry("doc2", "fr").getServerETag(),
+                nullValue());
+    }
+
+    @Test
+    public void compactionWritesSnapshotAndRemovesJournal() throws Exception {
+        ETagCacheStore store = newStore();
+        ETagCache cache = store.load();
+        cache.addEntry(entry("doc 1\t", "de", "\"etag\""));
+        store.save(cache);
+        store.compact(cache);
+
+        assertThat(journalFile.exists(), is(false));
+        try (InputStream is = FileUtils.openInputStream(snapshotFile)) {
+            assertThat(ETagCacheReaderWriter.readCache(is)
+                    .findEntry("doc 1\t", "de").getServerETag(),
+                    is("\"etag\""));
+        }
+        assertThat(newStore().load().findEntry("doc 1\t", "de")
+                .getServerETag(), is("\"etag\""));
+    }
+
+    @Test
+    public void journalKeepsLocalFileStat() throws Exception {
+        ETagCacheStore store = newStore();
+        ETagCache cache = store.load();
+        cache.addEntry(new ETagCacheEntry("doc1", "de", "1234", "md5",
+                "etag1", "42", "(dev=801,ino=12)"));
+        cache.addEntry(entry("doc2", "de", "etag2"));
+        store.save(cache);
+
+        ETagCache loaded = newStore().load();
+
+        ETagCacheEntry doc1 = loaded.findEntry("doc1", "de");
+        assertThat(doc1.getLocalFileSize(), is("42"));
+        assertThat(doc1.getLocalFileKey(), is("(dev=801,ino=12)"));
+        assertThat(loaded.findEntry("doc2", "de").getLocalFileSize(),
+                nullValue());
+    }
+
+    @Test
+    public void ignoresIncompleteJournalLine() throws Exception {
+        ETagCacheStore store = newStore();
+        ETagCache cache = store.load();
+        cache.addEntry(entry("doc1", "de", "etag1"));
+        store.save(cache);
+        String line = ETagCacheStore.formatEntry(entry("doc2", "de", "etag2"));
+        FileUtils.writeStringToFile(journalFile,
+                line.substring(0, line.length() - 2), "UTF-8", true);
+
+        ETagCache loaded = newStore().load();
+
+        assertThat(loaded.getCacheEntries().size(), is(1));
+        assertThat(loaded.findEntry("doc2", "de"), nullValue());
+    }
+
+    @Test
+    public void clearedCacheIsCompactedOnSave() throws Exception {
+        ETagCacheStore store = newStore();
+        ETagCache cache = store.load();
+        cache.addEntry(entry("doc1", "de", "etag1"));
+        store.save(cache);
+        cache.clear();
+        store.save(cache);
+
+        assertThat(journalFile.exists(), is(false));
+        assertThat(newStore().load().getCacheEntries().size(), is(0));
+    }
+
+    @Test
+    public void journalIsRemovedBeforeSnapshotIsReplaced() throws Exception {
+        ETagCacheStore store = newStore();
+        ETagCache cache = store.load();
+        cache.addEntry(entry("doc1", "de", "etag1"));
+        store.compact(cache);
+        cache.addEntry(entry("doc2", "de", "etag2"));
+        store.save(cache);
+        // a journal which can't be deleted stands in for a crash
+        journalFile.delete();
+        assertThat(new File(journalFile, "busy").mkdirs(), is(true));
+        cache.clear();
+
+        try {
+            store.save(cache);
+            fail();
+        } catch (IOException e) {
+            // expected
+        }
+
+        // the old snapshot is still there, and the new one is not in place
+        assertThat(newStore().load().findEntry("doc1", "de")
+                .getServerETag(), is("etag1"));
+    }
+
+    @Test
+    public void changesAreKeptIfSnapshotCannotReplaceTheOldOne()
+            throws Exception {
+        ETagCacheStore store = newStore();
+        ETagCache cache = store.load();
+        cache.addEntry(entry("doc1", "de", "etag1"));
+        store.save(cache);
+        cache.addEntry(entry("doc2", "de", "etag2"));
+        // a directory in the way of the snapshot makes the move fail
+        assertThat(new File(snapshotFile, "busy").mkdirs(), is(true));
+
+        try {
+            store.compact(cache);
+            fail();
+        } catch (IOException e) {
+            // expected
+        }
+        FileUtils.deleteDirectory(snapshotFile);
+        store.save(cache);
+
+        ETagCache loaded = newStore().load();
+        assertThat(loaded.findEntry("doc1", "de").getServerETag(),
+                is("etag1"));
+        assertThat(loaded.findEntry("doc2", "de").getServerETag(),
+                is("etag2"));
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.client.etag;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+@RunWith(JUnit4.class)
+public class PushManifestTest {
+
+    private static final String SERVER = "https://translate.example.com/";
+
+    private static PushManifest newManifest() {
+        return new PushManifest(SERVER, "3.6.0", "about-fedora", "master",
+                "auto", false, "comment;gettext");
+    }
+
+    @Test
+    public void writeAndReadManifest() throws Exception {
+        PushManifest manifest = newManifest();
+        manifest.addEntry(new PushManifestEntry("doc1", null, "abcd"));
+        manifest.addEntry(new PushManifestEntry("doc1", "de", "ef01"));
+
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        PushManifestReaderWriter.writeManifest(manifest, os);
+        PushManifest readManifest =
+                PushManifestReaderWriter.readManifest(new ByteArrayInputStream(
+                        os.toByteArray()));
+
+        assertThat(readManifest.isCompatibleWith(manifest), is(true));
+        assertThat(readManifest.getEntries().size(), is(2));
+        assertThat(readManifest.isUnchanged("doc1", null, "abcd"), is(true));
+        assertThat(readManifest.isUnchanged("doc1", "de", "ef01"), is(true));
+    }
+
+    @Test
+    public void manifestIsOnlyCompatibleWithSameContext() {
+        PushManifest manifest = newManifest();
+
+        assertThat(manifest.isCompatibleWith(newManifest()), is(true));
+        assertThat(manifest.isCompatibleWith(new PushManifest(SERVER,
+                "3.6.0", "about-fedora", "master", "import", false,
+                "comment;gettext")), is(false));
+        assertThat(manifest.isCompatibleWith(new PushManifest(SERVER,
+                "3.7.0", "about-fedora", "master", "auto", false,
+                "comment;gettext")), is(false));
+        assertThat(manifest.isCompatibleWith(new PushManifest(
+                "https://other.example.com/", "3.6.0", "about-fedora",
+                "master", "auto", false, "comment;gettext")), is(false));
+        assertThat(manifest.isCompatibleWith(new PushManifest(SERVER,
+                "3.6.0", "about-fedora", "master", "auto", true,
+                "comment;gettext")), is(false));
+    }
+
+    @Test
+    public void changedHashIsNotUnchanged() {
+        PushManifest manifest = newManifest();
+        manifest.addEntry(new PushManifestEntry("doc1", "de", "ef01"));
+
+        assertThat(manifest.isUnchanged("doc1", "de", "0000"), is(false));
+        assertThat(manifest.isUnchanged("doc1", "fr", "ef01"), is(false));
+        assertThat(manifest.isUnchanged("doc2", "de", "ef01"), is(false));
+    }
+
+    @Test
+    public void removeDocumentForgetsSourceAndTranslations() {
+        PushManifest manifest = newManifest();
+        manifest.addEntry(new PushManifestEntry("doc1", null, "abcd"));
+        manifest.addEntry(new PushManifestEntry("doc1", "de", "ef01"));
+        manifest.addEntry(new PushManifestEntry("doc2", null, "2345"));
+
+        manifest.removeDocument("doc1");
+
+        assertThat(manifest.getEntries().size(), is(1));
+        assertThat(manifest.findEntry("doc1", null), nullValue());
+        assertThat(manifest.findEntry("doc1", "de"), nullValue());
+    }
+}
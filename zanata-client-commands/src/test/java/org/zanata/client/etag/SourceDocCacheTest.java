@@ -0,0 +1,96 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.client.etag;
+
+import java.io.File;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.zanata.rest.dto.resource.Resource;
+
+import com.google.common.collect.ImmutableSet;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class SourceDocCacheTest {
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private static final Set<String> EXTENSIONS =
+            ImmutableSet.of("gettext", "comment");
+    private File dir;
+    private SourceDocCache cache;
+
+    @Before
+    public void setUp() {
+        dir = new File(tempFolder.getRoot(), "source-docs");
+        cache = new SourceDocCache(dir, "server proj ver");
+    }
+
+    @Test
+    public void emptyCacheHasNoETagOrResource() {
+        assertThat(cache.getETag("doc", EXTENSIONS), nullValue());
+        assertThat(cache.getResource("doc", EXTENSIONS), nullValue());
+    }
+
+    @Test
+    public void storesResourceWithETag() {
+        cache.put("doc", EXTENSIONS, "etag1", new Resource("doc"));
+
+        assertThat(cache.getETag("doc", ImmutableSet.of("comment", "gettext")),
+                is("etag1"));
+        assertThat(cache.getResource("doc", EXTENSIONS).getName(), is("doc"));
+    }
+
+    @Test
+    public void replacesExistingEntry() {
+        cache.put("doc", EXTENSIONS, "etag1", new Resource("doc"));
+        cache.put("doc", EXTENSIONS, "etag2", new Resource("doc2"));
+
+        assertThat(cache.getETag("doc", EXTENSIONS), is("etag2"));
+        assertThat(cache.getResource("doc", EXTENSIONS).getName(),
+                is("doc2"));
+    }
+
+    @Test
+    public void entriesDependOnExtensionsAndScope() {
+        cache.put("doc", EXTENSIONS, "etag1", new Resource("doc"));
+
+        assertThat(cache.getETag("doc", ImmutableSet.of("gettext")),
+                nullValue());
+        assertThat(new SourceDocCache(dir, "server proj ver2").getETag("doc",
+                EXTENSIONS), nullValue());
+    }
+
+    @Test
+    public void clearRemovesEverything() {
+        cache.put("doc", EXTENSIONS, "etag1", new Resource("doc"));
+        cache.clear();
+
+        assertThat(cache.getETag("doc", EXTENSIONS), nullValue());
+        assertThat(dir.exists(), is(false));
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.client.util;
+
+import java.io.File;
+import java.util.Arrays;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assume.assumeThat;
+
+public class FileDigestsTest {
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void hashesSmallFile() throws Exception {
+        File file = tempFolder.newFile("small.po");
+        FileUtils.writeStringToFile(file, "msgid \"hello\"", "UTF-8");
+
+        assertThat(FileDigests.md5Hex(file),
+                is(DigestUtils.md5Hex("msgid \"hello\"")));
+    }
+
+    @Test
+    public void hashesEmptyFile() throws Exception {
+        File file = tempFolder.newFile("empty.po");
+
+        assertThat(FileDigests.md5Hex(file),
+                is("d41d8cd98f00b204e9800998ecf8427e"));
+    }
+
+    @Test
+    public void hashesFileLargerThanBuffer() throws Exception {
+        byte[] content = new byte[1024 * 1024 + 17];
+        Arrays.fill(content, (byte) 'x');
+        content[content.length - 1] = 'y';
+        File file = tempFolder.newFile("large.po");
+        FileUtils.writeByteArrayToFile(file, content);
+
+        assertThat(FileDigests.md5Hex(file), is(DigestUtils.md5Hex(content)));
+    }
+
+    @Test
+    public void statMatchesUntilFileChanges() throws Exception {
+        File file = tempFolder.newFile("stat.po");
+        FileUtils.writeStringToFile(file, "abc", "UTF-8");
+        FileStat stat = FileStat.of(file);
+        assertThat(stat, notNullValue());
+        String size = Long.toString(stat.getSize());
+        String time = Long.toString(stat.getLastModified());
+
+        assertThat(FileStat.of(file).matches(size, time, stat.getFileKey()),
+                is(true));
+        assertThat(FileStat.of(file).matches(null, time, stat.getFileKey()),
+                is(false));
+
+        FileUtils.writeStringToFile(file, "abcd", "UTF-8");
+        assertThat(FileStat.of(file).matches(size, time, stat.getFileKey()),
+                is(false));
+    }
+
+    @Test
+    public void recordedStatIgnoresFieldsWhichWereNotRecorded()
+            throws Exception {
+        File file = tempFolder.newFile("recorded.po");
+        FileUtils.writeStringToFile(file, "abc", "UTF-8");
+        FileStat stat = FileStat.of(file);
+        String size = Long.toString(stat.getSize());
+        String time = Long.toString(stat.getLastModified());
+
+        assertThat(stat.matchesRecorded(null, time, null), is(true));
+        assertThat(stat.matchesRecorded(size, time, stat.getFileKey()),
+                is(true));
+        assertThat(stat.matchesRecorded("4", time, null), is(false));
+    }
+
+    @Test
+    public void recordedStatDoesNotMatchAnotherFile() throws Exception {
+        File file = tempFolder.newFile("replaced.po");
+        FileUtils.writeStringToFile(file, "abc", "UTF-8");
+        FileStat stat = FileStat.of(file);
+        assumeThat(stat.getFileKey(), notNullValue());
+
+        assertThat(stat.matchesRecorded(Long.toString(stat.getSize()),
+                Long.toString(stat.getLastModified()), "(dev=0,ino=0)"),
+                is(false));
+    }
+
+    @Test
+    public void statOfMissingFileIsNull() throws Exception {
+        assertThat(FileStat.of(new File(tempFolder.getRoot(), "missing")),
+                nullValue());
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.client.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.zanata.common.LocaleId;
+import org.zanata.rest.dto.resource.Resource;
+import org.zanata.rest.dto.resource.TextFlow;
+import org.zanata.rest.dto.resource.TranslationsResource;
+
+import com.google.common.collect.Lists;
+
+import static org.junit.Assert.assertThat;
+
+public class JaxbPoolTest {
+
+    @Test
+    public void contextIsCreatedOnceForEachSetOfClasses() {
+        assertThat(JaxbPool.forDtos(), Matchers.sameInstance(JaxbPool
+                .forClasses(TranslationsResource.class, Resource.class)));
+        assertThat(JaxbPool.forDtos().getContext(),
+                Matchers.sameInstance(JaxbPool.forDtos().getContext()));
+        assertThat(JaxbPool.forClasses(Resource.class),
+                Matchers.not(Matchers.sameInstance(JaxbPool.forDtos())));
+    }
+
+    @Test
+    public void canMarshalAndUnmarshalFromManyThreads() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = Lists.newArrayList();
+            for (int i = 0; i < 100; i++) {
+                final String name = "doc" + i;
+                results.add(executor.submit(new Callable<String>() {
+                    @Override
+                    public String call() throws Exception {
+                        Resource doc = new Resource(name);
+                        doc.getTextFlows().add(
+                                new TextFlow("id", LocaleId.EN_US,
+                                        "content " + name));
+                        ByteArrayOutputStream out =
+                                new ByteArrayOutputStream();
+                        JaxbPool.forDtos().marshal(doc, out);
+                        return JaxbPool.forDtos().unmarshal(
+                                new ByteArrayInputStream(out.toByteArray()),
+                                Resource.class).getName();
+                    }
+                }));
+            }
+            for (int i = 0; i < results.size(); i++) {
+                assertThat(results.get(i).get(), Matchers.equalTo("doc" + i));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -21,6 +21,7 @@
 
 package org.zanata.maven;
 
+import org.zanata.client.commands.ClientSession;
 import org.zanata.client.commands.PushPullCommand;
 import org.zanata.client.commands.PushPullType;
 import org.zanata.client.commands.pull.PullCommand;
@@ -80,6 +81,14 @@ public abstract class AbstractPullMojo extends
      */
     private boolean useCache;
 
+    /**
+     * Maximum number of documents and locales to pull concurrently. Log output
+     * is still reported in document order.
+     *
+     * @parameter expression="${zanata.pullThreads}" default-value="1"
+     */
+    private int pullThreads = 1;
+
     /**
      * Type of pull to perform from the server: "source" pulls source documents
      * only. "trans" pulls translation documents only. "both" pulls both source
@@ -115,11 +124,15 @@ public abstract class AbstractPullMojo extends
     }
 
     public PushPullCommand<PullOptions> initCommand() {
+        ClientSession session = getClientSession();
+        PushPullCommand<PullOptions> command;
         if (PROJECT_TYPE_FILE.equalsIgnoreCase(getProjectType())) {
-            return new RawPullCommand(this);
+            command = new RawPullCommand(this, session.getClientFactory());
         } else {
-            return new PullCommand(this);
+            command = new PullCommand(this, session.getClientFactory());
         }
+        command.setClientSession(session);
+        return command;
     }
 
     @Override
@@ -147,6 +160,11 @@ public abstract class AbstractPullMojo extends
         return useCache;
     }
 
+    @Override
+    public int getPullThreads() {
+        return pullThreads;
+    }
+
     @Override
     public boolean isContinueAfterError() {
         return continueAfterError;
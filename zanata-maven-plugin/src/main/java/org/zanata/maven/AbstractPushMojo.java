@@ -24,6 +24,7 @@ package org.zanata.maven;
 import com.google.common.base.Splitter;
 import com.google.common.collect.ImmutableList;
 import org.apache.commons.lang.StringUtils;
+import org.zanata.client.commands.ClientSession;
 import org.zanata.client.commands.PushPullCommand;
 import org.zanata.client.commands.PushPullType;
 import org.zanata.client.commands.push.PushCommand;
@@ -47,11 +48,15 @@ public abstract class AbstractPushMojo extends
 
     @Override
     public PushPullCommand<PushOptions> initCommand() {
+        ClientSession session = getClientSession();
+        PushPullCommand<PushOptions> command;
         if (PROJECT_TYPE_FILE.equalsIgnoreCase(getProjectType())) {
-            return new RawPushCommand(this);
+            command = new RawPushCommand(this, session.getClientFactory());
         } else {
-            return new PushCommand(this);
+            command = new PushCommand(this, session.getClientFactory());
         }
+        command.setClientSession(session);
+        return command;
     }
 
     /**
@@ -154,6 +159,49 @@ public abstract class AbstractPushMojo extends
      */
     private boolean myTrans = false;
 
+    /**
+     * Maximum number of documents to push concurrently. Log output is still
+     * reported one document at a time, in document order.
+     *
+     * @parameter expression="${zanata.pushThreads}" default-value="1"
+     */
+    private int pushThreads = 1;
+
+    /**
+     * Maximum number of locales to push concurrently for each document.
+     * Warnings are still reported in locale order.
+     *
+     * @parameter expression="${zanata.localeThreads}" default-value="1"
+     */
+    private int localeThreads = 1;
+
+    /**
+     * Maximum number of translations to push in a single request. Larger
+     * translation files are pushed in batches. Only applies to merge type
+     * "auto".
+     *
+     * @parameter expression="${zanata.batchEntries}" default-value="5000"
+     */
+    private int batchEntries = 5000;
+
+    /**
+     * Maximum estimated size, in bytes, of translations to push in a single
+     * request. Larger translation files are pushed in batches. Only applies to
+     * merge type "auto".
+     *
+     * @parameter expression="${zanata.batchBytes}" default-value="5242880"
+     */
+    private long batchBytes = 5 * 1024 * 1024;
+
+    /**
+     * Push all documents and translations, even if they are unchanged since
+     * they were last pushed successfully (see
+     * .zanata-cache/push-manifest.xml).
+     *
+     * @parameter expression="${zanata.force}" default-value="false"
+     */
+    private boolean force = false;
+
     @Override
     public String getSourceLang() {
         return sourceLang;
@@ -219,4 +267,29 @@ public abstract class AbstractPushMojo extends
     public boolean isMyTrans() {
         return myTrans;
     }
+
+    @Override
+    public int getPushThreads() {
+        return pushThreads;
+    }
+
+    @Override
+    public int getLocaleThreads() {
+        return localeThreads;
+    }
+
+    @Override
+    public int getBatchEntries() {
+        return batchEntries;
+    }
+
+    @Override
+    public long getBatchBytes() {
+        return batchBytes;
+    }
+
+    @Override
+    public boolean getForce() {
+        return force;
+    }
 }
@@ -4,9 +4,13 @@ import java.io.File;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
 
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.MapMaker;
 import org.apache.maven.project.MavenProject;
+import org.zanata.client.commands.ClientSession;
+import org.zanata.client.commands.OptionsUtil;
 import org.zanata.client.commands.PushPullCommand;
 import org.zanata.client.commands.PushPullOptions;
 import org.zanata.client.config.LocaleList;
@@ -31,6 +35,17 @@ public abstract class AbstractPushPullMojo<O extends PushPullOptions> extends
 
     private static final char MODULE_SUFFIX = '/';
 
+    /**
+     * Client sessions shared by the modules of each reactor build. Maven gives
+     * every mojo in a build the same reactorProjects list, so the list
+     * identifies the build; weak keys let the sessions go once the build is
+     * over. Within a build, sessions are keyed by server, credentials and
+     * connection settings (see {@link OptionsUtil#clientFactoryKey}), so a
+     * module with different settings gets a session of its own.
+     */
+    private static final ConcurrentMap<Object, ConcurrentMap<String, ClientSession>>
+            reactorSessions = new MapMaker().weakKeys().makeMap();
+
     @Override
     protected void runCommand() throws Exception {
         if (skip) {
@@ -40,6 +55,39 @@ public abstract class AbstractPushPullMojo<O extends PushPullOptions> extends
         super.runCommand();
     }
 
+    /**
+     * Returns the client session shared by every push/pull goal in this
+     * reactor build which talks to the same server (with the same settings)
+     * as this one, creating it (and checking the server version) the first
+     * time. The session's HTTP metrics are reset, so that each goal reports
+     * only its own requests.
+     */
+    protected ClientSession getClientSession() {
+        if (reactorProjects == null) {
+            return new ClientSession(OptionsUtil.createClientFactory(this));
+        }
+        ConcurrentMap<String, ClientSession> sessions =
+                reactorSessions.get(reactorProjects);
+        if (sessions == null) {
+            reactorSessions.putIfAbsent(reactorProjects,
+                    new MapMaker().<String, ClientSession> makeMap());
+            sessions = reactorSessions.get(reactorProjects);
+        }
+        String serverKey = OptionsUtil.clientFactoryKey(this);
+        synchronized (sessions) {
+            ClientSession session = sessions.get(serverKey);
+            if (session == null) {
+                session =
+                        new ClientSession(
+                                OptionsUtil.createClientFactory(this));
+                sessions.put(serverKey, session);
+            } else {
+                session.getClientFactory().resetMetrics();
+            }
+            return session;
+        }
+    }
+
     @Override
     public boolean isRootModule() {
         return project.isExecutionRoot();
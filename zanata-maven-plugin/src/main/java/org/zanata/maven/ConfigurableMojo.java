@@ -11,8 +11,9 @@ import org.apache.maven.plugin.MojoFailureException;
 import org.zanata.client.commands.ConfigurableCommand;
 import org.zanata.client.commands.ConfigurableOptions;
 import org.zanata.client.commands.OptionsUtil;
-import org.zanata.client.commands.ZanataCommand;
 import org.zanata.client.config.CommandHook;
+import org.zanata.rest.client.RestClientFactory;
+import org.zanata.rest.client.RestMetrics;
 
 import com.pyx4j.log4j.MavenLogAppender;
 
@@ -99,6 +100,101 @@ public abstract class ConfigurableMojo<O extends ConfigurableOptions> extends
      */
     private boolean disableSSLCert = false;
 
+    /**
+     * Use a pool of keep-alive HTTP connections.
+     *
+     * @parameter expression="${zanata.httpPool}" default-value="false"
+     */
+    private boolean httpPool = false;
+
+    /**
+     * Maximum number of pooled HTTP connections (default: 20).
+     *
+     * @parameter expression="${zanata.httpMaxConnections}"
+     */
+    private Integer httpMaxConnections;
+
+    /**
+     * Seconds after which idle pooled HTTP connections are closed (default:
+     * 60).
+     *
+     * @parameter expression="${zanata.httpIdleTimeout}"
+     */
+    private Integer httpIdleTimeout;
+
+    /**
+     * HTTP connect timeout in milliseconds (default: no timeout).
+     *
+     * @parameter expression="${zanata.httpConnectTimeout}"
+     */
+    private Integer httpConnectTimeout;
+
+    /**
+     * HTTP read timeout in milliseconds (default: no timeout).
+     *
+     * @parameter expression="${zanata.httpReadTimeout}"
+     */
+    private Integer httpReadTimeout;
+
+    /**
+     * Request bodies larger than this many bytes are gzip-compressed, or -1 to
+     * never compress (default: 8192).
+     *
+     * @parameter expression="${zanata.httpGzipThreshold}"
+     */
+    private Integer httpGzipThreshold;
+
+    /**
+     * Maximum number of retries for requests which fail with a connection
+     * error or temporary server error, or 0 to never retry (default: 3).
+     *
+     * @parameter expression="${zanata.httpRetries}"
+     */
+    private Integer httpRetries;
+
+    /**
+     * Show request counts, latencies, sizes and status codes for each REST
+     * endpoint (as JSON) when the command finishes.
+     *
+     * @parameter expression="${zanata.httpMetrics}" default-value="false"
+     */
+    private boolean httpMetrics = false;
+
+    /**
+     * Write HTTP requests and responses (with bodies truncated, and API key
+     * masked) to this file, one HAR entry per line. The file is rotated when
+     * it reaches 10 MB.
+     *
+     * @parameter expression="${zanata.httpCapture}"
+     */
+    private File httpCapture;
+
+    /**
+     * Maximum number of bytes of each body to write to the httpCapture file
+     * (default: 65536).
+     *
+     * @parameter expression="${zanata.httpCaptureBodyLimit}"
+     */
+    private Integer httpCaptureBodyLimit;
+
+    /**
+     * Cache server metadata (such as accepted file types) for this many
+     * seconds, unless the server says otherwise, or 0 to disable the cache
+     * (default: 600).
+     *
+     * @parameter expression="${zanata.metadataCacheTtl}"
+     */
+    private Integer metadataCacheTtl;
+
+    /**
+     * Discard cached server metadata and fetch it again.
+     *
+     * @parameter expression="${zanata.refreshMetadata}" default-value="false"
+     */
+    private boolean refreshMetadata = false;
+
+    private RestMetrics restMetrics;
+
     public ConfigurableMojo() {
     }
 
@@ -146,7 +242,9 @@ public abstract class ConfigurableMojo<O extends ConfigurableOptions> extends
     }
 
     protected void runCommand() throws Exception {
-        ZanataCommand command = initCommand();
+        ConfigurableCommand<O> command = initCommand();
+        RestClientFactory clientFactory = command.getClientFactory();
+        restMetrics = clientFactory == null ? null : clientFactory.getMetrics();
         String name = command.getName();
         getLog().info("Zanata command: " + name);
         if (command.isDeprecated()) {
@@ -308,4 +406,132 @@ public abstract class ConfigurableMojo<O extends ConfigurableOptions> extends
     public void setDisableSSLCert(boolean disableSSLCert) {
         this.disableSSLCert = disableSSLCert;
     }
+
+    @Override
+    public boolean isHttpPool() {
+        return httpPool;
+    }
+
+    @Override
+    public void setHttpPool(boolean httpPool) {
+        this.httpPool = httpPool;
+    }
+
+    @Override
+    public Integer getHttpMaxConnections() {
+        return httpMaxConnections;
+    }
+
+    @Override
+    public void setHttpMaxConnections(Integer httpMaxConnections) {
+        this.httpMaxConnections = httpMaxConnections;
+    }
+
+    @Override
+    public Integer getHttpIdleTimeout() {
+        return httpIdleTimeout;
+    }
+
+    @Override
+    public void setHttpIdleTimeout(Integer httpIdleTimeout) {
+        this.httpIdleTimeout = httpIdleTimeout;
+    }
+
+    @Override
+    public Integer getHttpConnectTimeout() {
+        return httpConnectTimeout;
+    }
+
+    @Override
+    public void setHttpConnectTimeout(Integer httpConnectTimeout) {
+        this.httpConnectTimeout = httpConnectTimeout;
+    }
+
+    @Override
+    public Integer getHttpReadTimeout() {
+        return httpReadTimeout;
+    }
+
+    @Override
+    public void setHttpReadTimeout(Integer httpReadTimeout) {
+        this.httpReadTimeout = httpReadTimeout;
+    }
+
+    @Override
+    public Integer getHttpGzipThreshold() {
+        return httpGzipThreshold;
+    }
+
+    @Override
+    public void setHttpGzipThreshold(Integer httpGzipThreshold) {
+        this.httpGzipThreshold = httpGzipThreshold;
+    }
+
+    @Override
+    public Integer getHttpRetries() {
+        return httpRetries;
+    }
+
+    @Override
+    public void setHttpRetries(Integer httpRetries) {
+        this.httpRetries = httpRetries;
+    }
+
+    @Override
+    public boolean isHttpMetrics() {
+        return httpMetrics;
+    }
+
+    @Override
+    public void setHttpMetrics(boolean httpMetrics) {
+        this.httpMetrics = httpMetrics;
+    }
+
+    @Override
+    public File getHttpCapture() {
+        return httpCapture;
+    }
+
+    @Override
+    public void setHttpCapture(File httpCapture) {
+        this.httpCapture = httpCapture;
+    }
+
+    @Override
+    public Integer getHttpCaptureBodyLimit() {
+        return httpCaptureBodyLimit;
+    }
+
+    @Override
+    public void setHttpCaptureBodyLimit(Integer httpCaptureBodyLimit) {
+        this.httpCaptureBodyLimit = httpCaptureBodyLimit;
+    }
+
+    @Override
+    public Integer getMetadataCacheTtl() {
+        return metadataCacheTtl;
+    }
+
+    @Override
+    public void setMetadataCacheTtl(Integer metadataCacheTtl) {
+        this.metadataCacheTtl = metadataCacheTtl;
+    }
+
+    @Override
+    public boolean isRefreshMetadata() {
+        return refreshMetadata;
+    }
+
+    @Override
+    public void setRefreshMetadata(boolean refreshMetadata) {
+        this.refreshMetadata = refreshMetadata;
+    }
+
+    /**
+     * @return metrics for the REST requests made by the command which this
+     *         mojo ran, or null if it has not run one
+     */
+    public RestMetrics getRestMetrics() {
+        return restMetrics;
+    }
 }
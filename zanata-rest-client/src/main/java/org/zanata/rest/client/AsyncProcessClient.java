@@ -23,6 +23,8 @@ package org.zanata.rest.client;
 
 import java.net.URI;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
 import javax.ws.rs.DefaultValue;
 
 import org.zanata.common.LocaleId;
@@ -30,6 +32,7 @@ import org.zanata.rest.dto.ProcessStatus;
 import org.zanata.rest.dto.resource.Resource;
 import org.zanata.rest.dto.resource.TranslationsResource;
 import org.zanata.rest.service.AsynchronousProcessResource;
+import com.google.common.util.concurrent.ListenableFuture;
 import com.sun.jersey.api.client.Client;
 import com.sun.jersey.api.client.WebResource;
 
@@ -46,6 +49,13 @@ public class AsyncProcessClient implements AsynchronousProcessResource {
         baseUri = factory.getBaseUri();
     }
 
+    /**
+     * @return the factory's executor for asynchronous requests
+     */
+    Executor getAsyncExecutor() {
+        return factory.getAsyncExecutor();
+    }
+
     @Override
     public ProcessStatus startSourceDocCreation(String idNoSlash,
             String projectSlug, String iterationSlug, Resource resource,
@@ -59,19 +69,34 @@ public class AsyncProcessClient implements AsynchronousProcessResource {
             String projectSlug, String iterationSlug, Resource resource,
             Set<String> extensions, @DefaultValue("true") boolean copytrans) {
         Client client = factory.getClient();
-        CacheResponseFilter filter = new CacheResponseFilter();
-        client.addFilter(filter);
         WebResource webResource = client.resource(baseUri)
                 .path(AsynchronousProcessResource.SERVICE_PATH)
                 .path("projects").path("p").path(projectSlug)
                 .path("iterations").path("i").path(iterationSlug)
                 .path("r").path(idNoSlash);
-        webResource
+        return webResource
                 .queryParams(ClientUtil.asMultivaluedMap("ext", extensions))
                 .queryParam("copyTrans", String.valueOf(copytrans))
-                .put(resource);
-        client.removeFilter(filter);
-        return filter.getEntity(ProcessStatus.class);
+                .put(ProcessStatus.class, resource);
+    }
+
+    /**
+     * As {@link #startSourceDocCreationOrUpdate}, but runs on the factory's
+     * async executor.
+     */
+    public ListenableFuture<ProcessStatus> startSourceDocCreationOrUpdateAsync(
+            final String idNoSlash, final String projectSlug,
+            final String iterationSlug, final Resource resource,
+            final Set<String> extensions, final boolean copytrans) {
+        return factory.getAsyncExecutor().submit(
+                new Callable<ProcessStatus>() {
+                    @Override
+                    public ProcessStatus call() {
+                        return startSourceDocCreationOrUpdate(idNoSlash,
+                                projectSlug, iterationSlug, resource,
+                                extensions, copytrans);
+                    }
+                });
     }
 
     @Override
@@ -80,21 +105,39 @@ public class AsyncProcessClient implements AsynchronousProcessResource {
             TranslationsResource translatedDoc, Set<String> extensions,
             String merge, @DefaultValue("false") boolean myTrans) {
         Client client = factory.getClient();
-        CacheResponseFilter filter = new CacheResponseFilter();
-        client.addFilter(filter);
         WebResource webResource = client.resource(baseUri)
                 .path(AsynchronousProcessResource.SERVICE_PATH)
                 .path("projects").path("p").path(projectSlug)
                 .path("iterations").path("i").path(iterationSlug)
                 .path("r").path(idNoSlash)
                 .path("translations").path(locale.toString());
-        webResource
+        return webResource
                 .queryParams(ClientUtil.asMultivaluedMap("ext", extensions))
                 .queryParam("merge", merge)
                 .queryParam("assignCreditToUploader", String.valueOf(myTrans))
-                .put(translatedDoc);
-        client.removeFilter(filter);
-        return filter.getEntity(ProcessStatus.class);
+                .put(ProcessStatus.class, translatedDoc);
+    }
+
+    /**
+     * As {@link #startTranslatedDocCreationOrUpdate}, but runs on the
+     * factory's async executor.
+     */
+    public ListenableFuture<ProcessStatus>
+            startTranslatedDocCreationOrUpdateAsync(final String idNoSlash,
+                    final String projectSlug, final String iterationSlug,
+                    final LocaleId locale,
+                    final TranslationsResource translatedDoc,
+                    final Set<String> extensions, final String merge,
+                    final boolean myTrans) {
+        return factory.getAsyncExecutor().submit(
+                new Callable<ProcessStatus>() {
+                    @Override
+                    public ProcessStatus call() {
+                        return startTranslatedDocCreationOrUpdate(idNoSlash,
+                                projectSlug, iterationSlug, locale,
+                                translatedDoc, extensions, merge, myTrans);
+                    }
+                });
     }
 
     @Override
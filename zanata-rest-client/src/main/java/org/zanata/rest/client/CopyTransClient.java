@@ -44,13 +44,8 @@ public class CopyTransClient implements CopyTransResource {
     @Override
     public CopyTransStatus startCopyTrans(String projectSlug,
             String iterationSlug, String docId) {
-        Client client = factory.getClient();
-        CacheResponseFilter filter = new CacheResponseFilter();
-        client.addFilter(filter);
-        webResource(client, projectSlug, iterationSlug, docId)
-                .post();
-        client.removeFilter(filter);
-        return filter.getEntity(CopyTransStatus.class);
+        return webResource(factory.getClient(), projectSlug, iterationSlug,
+                docId).post(CopyTransStatus.class);
     }
 
     private WebResource webResource(Client client, String projectSlug,
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.rest.client;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Request counts, latencies, byte counts and status codes for one REST
+ * endpoint (method and path template). Thread-safe.
+ */
+public class EndpointMetrics {
+    private long requestCount;
+    private long errorCount;
+    private long requestBytes;
+    private long responseBytes;
+    private final Map<Integer, Long> statusCounts =
+            new TreeMap<Integer, Long>();
+    private long[] latencies = new long[16];
+
+    synchronized void recordResponse(int status, long latencyMillis,
+            long requestBytes) {
+        Long count = statusCounts.get(status);
+        statusCounts.put(status, count == null ? 1 : count + 1);
+        record(latencyMillis, requestBytes);
+    }
+
+    synchronized void recordError(long latencyMillis, long requestBytes) {
+        errorCount++;
+        record(latencyMillis, requestBytes);
+    }
+
+    synchronized void addResponseBytes(long bytes) {
+        responseBytes += bytes;
+    }
+
+    private void record(long latencyMillis, long bytes) {
+        if (requestCount == latencies.length) {
+            latencies = Arrays.copyOf(latencies, latencies.length * 2);
+        }
+        latencies[(int) requestCount] = latencyMillis;
+        requestCount++;
+        requestBytes += bytes;
+    }
+
+    /**
+     * Number of requests sent, including those which failed without a
+     * response.
+     */
+    public synchronized long getRequestCount() {
+        return requestCount;
+    }
+
+    /**
+     * Number of requests which failed without a response (eg connection
+     * refused).
+     */
+    public synchronized long getErrorCount() {
+        return errorCount;
+    }
+
+    /**
+     * Request entity bytes sent, after any compression.
+     */
+    public synchronized long getRequestBytes() {
+        return requestBytes;
+    }
+
+    /**
+     * Response entity bytes read, before any decompression.
+     */
+    public synchronized long getResponseBytes() {
+        return responseBytes;
+    }
+
+    /**
+     * Number of responses with each HTTP status code.
+     */
+    public synchronized Map<Integer, Long> getStatusCounts() {
+        return new TreeMap<Integer, Long>(statusCounts);
+    }
+
+    /**
+     * Latency (time from sending the request until the response headers
+     * arrived) at the given percentile, using the nearest-rank method.
+     *
+     * @param percentile
+     *            between 0 (exclusive) and 100 (inclusive)
+     * @return latency in milliseconds, or 0 if there have been no requests
+     */
+    public synchronized long getLatencyMillis(double percentile) {
+        if (requestCount == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(latencies, (int) requestCount);
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percentile / 100 * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length, rank) - 1)];
+    }
+}
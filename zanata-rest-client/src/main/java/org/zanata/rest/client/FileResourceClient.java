@@ -23,6 +23,7 @@ package org.zanata.rest.client;
 
 import java.net.URI;
 
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 
 import org.zanata.rest.DocumentFileUploadForm;
@@ -30,7 +31,6 @@ import org.zanata.rest.StringSet;
 import org.zanata.rest.dto.ChunkUploadResponse;
 import org.zanata.rest.service.FileResource;
 
-import com.sun.jersey.api.client.Client;
 import com.sun.jersey.api.client.ClientResponse;
 import com.sun.jersey.api.client.WebResource;
 import com.sun.jersey.multipart.FormDataMultiPart;
@@ -51,12 +51,13 @@ public class FileResourceClient {
     }
 
     public StringSet acceptedFileTypes() {
-        String types = factory.getClient()
-                .resource(baseUri)
-                .path(FileResource.SERVICE_PATH)
-                .path("accepted_types")
-                .accept(MediaType.TEXT_PLAIN_TYPE)
-                .get(String.class);
+        String types = factory.getMetadata("accepted_types",
+                factory.getClient()
+                        .resource(baseUri)
+                        .path(FileResource.SERVICE_PATH)
+                        .path("accepted_types")
+                        .accept(MediaType.TEXT_PLAIN_TYPE),
+                String.class, true);
         return new StringSet(types);
     }
 
@@ -64,10 +65,7 @@ public class FileResourceClient {
             String projectSlug,
             String iterationSlug, String docId,
             DocumentFileUploadForm documentFileUploadForm) {
-        CacheResponseFilter filter = new CacheResponseFilter();
-        Client client = factory.getClient();
-        client.addFilter(filter);
-        WebResource.Builder builder = client
+        WebResource.Builder builder = factory.getClient()
                 .resource(baseUri)
                 .path("file").path("source").path(projectSlug)
                 .path(iterationSlug)
@@ -76,11 +74,7 @@ public class FileResourceClient {
         FormDataMultiPart form =
                 prepareFormDataMultiPart(documentFileUploadForm);
 
-        builder.post(form);
-        ChunkUploadResponse chunkUploadResponse =
-                filter.getEntity(ChunkUploadResponse.class);
-        client.removeFilter(filter);
-        return chunkUploadResponse;
+        return builder.post(ChunkUploadResponse.class, form);
     }
 
     private FormDataMultiPart prepareFormDataMultiPart(
@@ -107,10 +101,7 @@ public class FileResourceClient {
             String iterationSlug, String locale, String docId,
             String mergeType,
             DocumentFileUploadForm documentFileUploadForm) {
-        CacheResponseFilter filter = new CacheResponseFilter();
-        Client client = factory.getClient();
-        client.addFilter(filter);
-        WebResource.Builder builder = client.resource(baseUri)
+        WebResource.Builder builder = factory.getClient().resource(baseUri)
                 .path(FileResource.SERVICE_PATH)
                 .path("translation")
                 .path(projectSlug)
@@ -122,30 +113,60 @@ public class FileResourceClient {
         FormDataMultiPart form =
                 prepareFormDataMultiPart(documentFileUploadForm);
 
-        builder.post(form);
-        ChunkUploadResponse chunkUploadResponse =
-                filter.getEntity(ChunkUploadResponse.class);
-        client.removeFilter(filter);
-        return chunkUploadResponse;
+        return builder.post(ChunkUploadResponse.class, form);
     }
 
     public ClientResponse downloadSourceFile(String projectSlug,
             String iterationSlug,
             String fileType, String docId) {
+        return downloadSourceFile(projectSlug, iterationSlug, fileType, docId,
+                null);
+    }
+
+    /**
+     * Downloads a source file, unless it still matches the given ETag.
+     *
+     * @param eTag
+     *            ETag of the copy already held by the client, or null
+     * @return the response, which will have status 304 (Not Modified) if the
+     *         file still matches the ETag
+     */
+    public ClientResponse downloadSourceFile(String projectSlug,
+            String iterationSlug, String fileType, String docId,
+            String eTag) {
         WebResource webResource = factory.getClient().resource(baseUri)
                 .path(FileResource.SERVICE_PATH).path("source")
                 .path(projectSlug).path(iterationSlug).path(fileType);
-        return webResource.queryParam("docId", docId).get(ClientResponse.class);
+        return webResource.queryParam("docId", docId)
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .get(ClientResponse.class);
     }
 
     public ClientResponse downloadTranslationFile(String projectSlug,
             String iterationSlug, String locale, String fileExtension,
             String docId) {
+        return downloadTranslationFile(projectSlug, iterationSlug, locale,
+                fileExtension, docId, null);
+    }
+
+    /**
+     * Downloads a translation file, unless it still matches the given ETag.
+     *
+     * @param eTag
+     *            ETag of the copy already held by the client, or null
+     * @return the response, which will have status 304 (Not Modified) if the
+     *         file still matches the ETag
+     */
+    public ClientResponse downloadTranslationFile(String projectSlug,
+            String iterationSlug, String locale, String fileExtension,
+            String docId, String eTag) {
         WebResource webResource = factory.getClient().resource(baseUri)
                 .path(FileResource.SERVICE_PATH).path("translation")
                 .path(projectSlug).path(iterationSlug).path(locale)
                 .path(fileExtension);
-        return webResource.queryParam("docId", docId).get(ClientResponse.class);
+        return webResource.queryParam("docId", docId)
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .get(ClientResponse.class);
     }
 
     private static <T> FormDataMultiPart addBodyPartIfPresent(
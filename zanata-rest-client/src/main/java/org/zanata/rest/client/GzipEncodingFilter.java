@@ -0,0 +1,173 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.rest.client;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MultivaluedMap;
+
+import com.sun.jersey.api.client.AbstractClientRequestAdapter;
+import com.sun.jersey.api.client.ClientHandlerException;
+import com.sun.jersey.api.client.ClientRequest;
+import com.sun.jersey.api.client.ClientRequestAdapter;
+import com.sun.jersey.api.client.ClientResponse;
+import com.sun.jersey.api.client.filter.ClientFilter;
+
+/**
+ * Compresses request entities larger than a threshold with gzip, asks the
+ * server for gzip-compressed responses, and decompresses them.
+ * <p>
+ * The size of a request entity is not known until it has been written, so
+ * up to the threshold is held in memory before deciding whether to compress.
+ * Multipart requests (file uploads) are never compressed.
+ */
+public class GzipEncodingFilter extends ClientFilter {
+    private static final String GZIP = "gzip";
+
+    private final int thresholdBytes;
+
+    /**
+     * @param thresholdBytes
+     *            request entities larger than this are compressed; if
+     *            negative, requests are never compressed
+     */
+    public GzipEncodingFilter(int thresholdBytes) {
+        this.thresholdBytes = thresholdBytes;
+    }
+
+    @Override
+    public ClientResponse handle(ClientRequest cr)
+            throws ClientHandlerException {
+        MultivaluedMap<String, Object> headers = cr.getHeaders();
+        if (!headers.containsKey(HttpHeaders.ACCEPT_ENCODING)) {
+            headers.add(HttpHeaders.ACCEPT_ENCODING, GZIP);
+        }
+        if (thresholdBytes >= 0 && cr.getEntity() != null
+                && !headers.containsKey(HttpHeaders.CONTENT_ENCODING)
+                && !isMultipart(headers)) {
+            cr.setAdapter(new Adapter(cr.getAdapter()));
+        }
+
+        ClientResponse response = getNext().handle(cr);
+        decompress(response);
+        return response;
+    }
+
+    /**
+     * Decompresses the response entity if it is gzip-encoded, and removes the
+     * Content-Encoding header so that it will not be decompressed again.
+     */
+    static void decompress(ClientResponse response) {
+        if (response.hasEntity()
+                && GZIP.equalsIgnoreCase(response.getHeaders().getFirst(
+                        HttpHeaders.CONTENT_ENCODING))) {
+            response.getHeaders().remove(HttpHeaders.CONTENT_ENCODING);
+            try {
+                response.setEntityInputStream(new GZIPInputStream(response
+                        .getEntityInputStream()));
+            } catch (IOException e) {
+                throw new ClientHandlerException(e);
+            }
+        }
+    }
+
+    private static boolean isMultipart(MultivaluedMap<String, Object> headers) {
+        Object contentType = headers.getFirst(HttpHeaders.CONTENT_TYPE);
+        return contentType != null
+                && contentType.toString().startsWith("multipart/");
+    }
+
+    private class Adapter extends AbstractClientRequestAdapter {
+        private Adapter(ClientRequestAdapter cra) {
+            super(cra);
+        }
+
+        @Override
+        public OutputStream adapt(ClientRequest request, OutputStream out)
+                throws IOException {
+            return new ThresholdGzipOutputStream(getAdapter().adapt(request,
+                    out), request.getHeaders(), thresholdBytes);
+        }
+    }
+
+    /**
+     * Buffers output until it exceeds the threshold, then sets the
+     * Content-Encoding header and compresses everything. Since the request
+     * headers are sent when the first byte reaches the underlying stream,
+     * nothing is written to it (or flushed) before the decision is made.
+     */
+    static class ThresholdGzipOutputStream extends OutputStream {
+        private final OutputStream out;
+        private final MultivaluedMap<String, Object> headers;
+        private final int thresholdBytes;
+        private ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private OutputStream gzip;
+
+        ThresholdGzipOutputStream(OutputStream out,
+                MultivaluedMap<String, Object> headers, int thresholdBytes) {
+            this.out = out;
+            this.headers = headers;
+            this.thresholdBytes = thresholdBytes;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (gzip != null) {
+                gzip.write(b, off, len);
+                return;
+            }
+            buffer.write(b, off, len);
+            if (buffer.size() > thresholdBytes) {
+                headers.putSingle(HttpHeaders.CONTENT_ENCODING, GZIP);
+                gzip = new GZIPOutputStream(out);
+                buffer.writeTo(gzip);
+                buffer = null;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (gzip != null) {
+                gzip.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (gzip != null) {
+                gzip.close();
+            } else {
+                buffer.writeTo(out);
+                out.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,303 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.rest.client;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MultivaluedMap;
+
+import org.codehaus.jackson.map.ObjectMapper;
+import org.zanata.rest.RestConstant;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.Lists;
+import com.sun.jersey.api.client.AbstractClientRequestAdapter;
+import com.sun.jersey.api.client.ClientHandlerException;
+import com.sun.jersey.api.client.ClientRequest;
+import com.sun.jersey.api.client.ClientRequestAdapter;
+import com.sun.jersey.api.client.ClientResponse;
+import com.sun.jersey.api.client.filter.ClientFilter;
+
+/**
+ * Writes each request and response to a capture file, one JSON object per
+ * line in the form of a HAR (HTTP Archive) entry.
+ * <p>
+ * Unlike {@link TraceDebugFilter}, bodies are never buffered: they are copied
+ * as they are streamed, up to a limit, and anything after that is only
+ * counted. The entry is written when the response body has been read (or
+ * closed). The API key header is masked.
+ */
+public class HttpCaptureFilter extends ClientFilter {
+    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final long MAX_FILE_BYTES = 10 * 1024 * 1024;
+    private static final int MAX_BACKUPS = 5;
+
+    private final HttpCaptureWriter writer;
+    private final int bodyLimitBytes;
+
+    /**
+     * @param file
+     *            capture file, rotated when it reaches 10 MB (up to 5 old
+     *            files are kept)
+     * @param bodyLimitBytes
+     *            maximum number of bytes of each body to capture
+     */
+    public HttpCaptureFilter(File file, int bodyLimitBytes) {
+        this(new HttpCaptureWriter(file, MAX_FILE_BYTES, MAX_BACKUPS),
+                bodyLimitBytes);
+    }
+
+    HttpCaptureFilter(HttpCaptureWriter writer, int bodyLimitBytes) {
+        this.writer = writer;
+        this.bodyLimitBytes = bodyLimitBytes;
+    }
+
+    @Override
+    public ClientResponse handle(ClientRequest cr)
+            throws ClientHandlerException {
+        Exchange exchange = new Exchange();
+        ClientRequestAdapter originalAdapter = cr.getAdapter();
+        if (cr.getEntity() != null) {
+            cr.setAdapter(new TeeAdapter(originalAdapter,
+                    exchange.requestBody));
+        }
+        long start = System.currentTimeMillis();
+        ClientResponse response;
+        try {
+            response = getNext().handle(cr);
+        } catch (ClientHandlerException e) {
+            exchange.request(cr, start);
+            exchange.failed(e);
+            throw e;
+        } finally {
+            cr.setAdapter(originalAdapter);
+        }
+        exchange.request(cr, start);
+        exchange.response(response);
+        if (response.hasEntity()) {
+            // capture the body as the caller will see it
+            GzipEncodingFilter.decompress(response);
+            response.setEntityInputStream(new TeeInputStream(response
+                    .getEntityInputStream(), exchange));
+        } else {
+            exchange.complete();
+        }
+        return response;
+    }
+
+    private static List<Map<String, Object>> headers(
+            MultivaluedMap<String, ?> headers) {
+        List<Map<String, Object>> list = Lists.newArrayList();
+        for (Map.Entry<String, ? extends List<?>> header : headers.entrySet()) {
+            for (Object value : header.getValue()) {
+                Map<String, Object> nameValue =
+                        new LinkedHashMap<String, Object>();
+                nameValue.put("name", header.getKey());
+                String text = String.valueOf(value);
+                if (RestConstant.HEADER_API_KEY.equalsIgnoreCase(header
+                        .getKey())
+                        || HttpHeaders.AUTHORIZATION.equalsIgnoreCase(header
+                                .getKey())) {
+                    text = text.replaceAll(".", "*");
+                }
+                nameValue.put("value", text);
+                list.add(nameValue);
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Holds the first bytes of a body, and counts the rest.
+     */
+    private class BoundedBody {
+        private final ByteArrayOutputStream head = new ByteArrayOutputStream();
+        private long size;
+
+        private synchronized void write(byte[] b, int off, int len) {
+            int keep = (int) Math.max(0,
+                    Math.min(len, bodyLimitBytes - size));
+            head.write(b, off, keep);
+            size += len;
+        }
+
+        private synchronized void addTo(Map<String, Object> content) {
+            content.put("size", size);
+            content.put("text", new String(head.toByteArray(),
+                    Charsets.UTF_8));
+            content.put("_truncated", size > bodyLimitBytes);
+        }
+    }
+
+    /**
+     * One request/response pair, written once the response has been read.
+     */
+    private class Exchange {
+        private final BoundedBody requestBody = new BoundedBody();
+        private final BoundedBody responseBody = new BoundedBody();
+        private final AtomicBoolean written = new AtomicBoolean();
+        private final Map<String, Object> entry =
+                new LinkedHashMap<String, Object>();
+        private final Map<String, Object> request =
+                new LinkedHashMap<String, Object>();
+        private final Map<String, Object> response =
+                new LinkedHashMap<String, Object>();
+        private long start;
+
+        private void request(ClientRequest cr, long startMillis) {
+            start = startMillis;
+            entry.put("startedDateTime", new SimpleDateFormat(
+                    "yyyy-MM-dd'T'HH:mm:ss.SSSXXX").format(new Date(start)));
+            request.put("method", cr.getMethod());
+            request.put("url", cr.getURI().toString());
+            request.put("headers", headers(cr.getHeaders()));
+        }
+
+        private void response(ClientResponse cr) {
+            entry.put("time", System.currentTimeMillis() - start);
+            response.put("status", cr.getStatus());
+            response.put("headers", headers(cr.getHeaders()));
+        }
+
+        private void failed(Exception e) {
+            entry.put("time", System.currentTimeMillis() - start);
+            response.put("status", 0);
+            response.put("_error", String.valueOf(e.getMessage()));
+            complete();
+        }
+
+        private void complete() {
+            if (!written.compareAndSet(false, true)) {
+                return;
+            }
+            if (requestBody.size > 0) {
+                Map<String, Object> postData =
+                        new LinkedHashMap<String, Object>();
+                requestBody.addTo(postData);
+                request.put("postData", postData);
+            }
+            Map<String, Object> content = new LinkedHashMap<String, Object>();
+            responseBody.addTo(content);
+            response.put("content", content);
+            entry.put("request", request);
+            entry.put("response", response);
+            try {
+                writer.writeLine(mapper.writeValueAsString(entry));
+            } catch (IOException e) {
+                throw new ClientHandlerException(e);
+            }
+        }
+    }
+
+    private static class TeeAdapter extends AbstractClientRequestAdapter {
+        private final BoundedBody body;
+
+        private TeeAdapter(ClientRequestAdapter cra, BoundedBody body) {
+            super(cra);
+            this.body = body;
+        }
+
+        @Override
+        public OutputStream adapt(ClientRequest request, OutputStream out)
+                throws IOException {
+            // wrap the other adapters, to see the entity before compression
+            return new TeeOutputStream(getAdapter().adapt(request, out), body);
+        }
+    }
+
+    private static class TeeOutputStream extends FilterOutputStream {
+        private final BoundedBody body;
+
+        private TeeOutputStream(OutputStream out, BoundedBody body) {
+            super(out);
+            this.body = body;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            body.write(b, off, len);
+        }
+    }
+
+    private static class TeeInputStream extends FilterInputStream {
+        private final Exchange exchange;
+
+        private TeeInputStream(InputStream in, Exchange exchange) {
+            super(in);
+            this.exchange = exchange;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b < 0) {
+                exchange.complete();
+            } else {
+                exchange.responseBody.write(new byte[] { (byte) b }, 0, 1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n < 0) {
+                exchange.complete();
+            } else {
+                exchange.responseBody.write(b, off, n);
+            }
+            return n;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                exchange.complete();
+            }
+        }
+    }
+}
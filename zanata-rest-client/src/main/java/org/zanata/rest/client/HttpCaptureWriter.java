@@ -0,0 +1,103 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.rest.client;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Charsets;
+
+/**
+ * Appends lines to a capture file, rotating it when it grows past a maximum
+ * size: {@code file} is renamed to {@code file.1}, {@code file.1} to
+ * {@code file.2} and so on, and the oldest is deleted. Thread-safe.
+ */
+class HttpCaptureWriter {
+    private static final Logger log = LoggerFactory
+            .getLogger(HttpCaptureWriter.class);
+
+    private final File file;
+    private final long maxFileBytes;
+    private final int maxBackups;
+    private OutputStream out;
+    private long size;
+
+    HttpCaptureWriter(File file, long maxFileBytes, int maxBackups) {
+        this.file = file;
+        this.maxFileBytes = maxFileBytes;
+        this.maxBackups = maxBackups;
+    }
+
+    /**
+     * Writes one line. Errors are logged rather than thrown, so that a
+     * problem with the capture file does not stop the command.
+     */
+    synchronized void writeLine(String line) {
+        byte[] bytes = (line + "\n").getBytes(Charsets.UTF_8);
+        try {
+            if (out == null) {
+                open();
+            }
+            if (size > 0 && size + bytes.length > maxFileBytes) {
+                rotate();
+            }
+            out.write(bytes);
+            out.flush();
+            size += bytes.length;
+        } catch (IOException e) {
+            log.warn("unable to write HTTP capture file " + file, e);
+        }
+    }
+
+    private void open() throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("unable to create directory " + parent);
+        }
+        out = new FileOutputStream(file, true);
+        size = file.length();
+    }
+
+    private void rotate() throws IOException {
+        out.close();
+        backup(maxBackups).delete();
+        for (int i = maxBackups - 1; i >= 1; i--) {
+            File backup = backup(i);
+            if (backup.exists() && !backup.renameTo(backup(i + 1))) {
+                throw new IOException("unable to rename " + backup);
+            }
+        }
+        if (maxBackups > 0 && !file.renameTo(backup(1))) {
+            throw new IOException("unable to rename " + file);
+        }
+        out = new FileOutputStream(file, false);
+        size = 0;
+    }
+
+    private File backup(int index) {
+        return new File(file.getPath() + "." + index);
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.rest.client;
+
+import java.io.File;
+
+/**
+ * HTTP connection, compression, capture and caching settings for
+ * {@link RestClientFactory}.
+ * <p>
+ * By default each request uses Java's HttpURLConnection. If pooling is
+ * enabled, requests instead go through a pool of keep-alive connections
+ * (Apache HttpClient), which avoids a new TCP connection and TLS handshake
+ * for most requests.
+ */
+public class HttpConnectionConfig {
+    public static final int DEFAULT_MAX_CONNECTIONS = 20;
+    public static final int DEFAULT_IDLE_TIMEOUT_SECONDS = 60;
+    public static final int DEFAULT_GZIP_THRESHOLD_BYTES = 8192;
+    public static final int DEFAULT_MAX_RETRIES =
+            RetryFilter.DEFAULT_MAX_RETRIES;
+    public static final int DEFAULT_CAPTURE_BODY_LIMIT_BYTES = 65536;
+    public static final int DEFAULT_METADATA_CACHE_TTL_SECONDS = 600;
+
+    private boolean pooled;
+    private int maxConnections = DEFAULT_MAX_CONNECTIONS;
+    private int idleTimeoutSeconds = DEFAULT_IDLE_TIMEOUT_SECONDS;
+    private int connectTimeoutMillis;
+    private int readTimeoutMillis;
+    private int gzipThresholdBytes = DEFAULT_GZIP_THRESHOLD_BYTES;
+    private int maxRetries = DEFAULT_MAX_RETRIES;
+    private File captureFile;
+    private int captureBodyLimitBytes = DEFAULT_CAPTURE_BODY_LIMIT_BYTES;
+    private File metadataCacheDir;
+    private int metadataCacheTtlSeconds = DEFAULT_METADATA_CACHE_TTL_SECONDS;
+    private boolean refreshMetadata;
+
+    /**
+     * Whether to use a pool of keep-alive connections.
+     */
+    public boolean isPooled() {
+        return pooled;
+    }
+
+    public void setPooled(boolean pooled) {
+        this.pooled = pooled;
+    }
+
+    /**
+     * Maximum number of pooled connections to the server.
+     */
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    public void setMaxConnections(int maxConnections) {
+        this.maxConnections = maxConnections;
+    }
+
+    /**
+     * Pooled connections which have been idle this long are closed.
+     */
+    public int getIdleTimeoutSeconds() {
+        return idleTimeoutSeconds;
+    }
+
+    public void setIdleTimeoutSeconds(int idleTimeoutSeconds) {
+        this.idleTimeoutSeconds = idleTimeoutSeconds;
+    }
+
+    /**
+     * Connect timeout in milliseconds, or 0 for no timeout.
+     */
+    public int getConnectTimeoutMillis() {
+        return connectTimeoutMillis;
+    }
+
+    public void setConnectTimeoutMillis(int connectTimeoutMillis) {
+        this.connectTimeoutMillis = connectTimeoutMillis;
+    }
+
+    /**
+     * Socket read timeout in milliseconds, or 0 for no timeout.
+     */
+    public int getReadTimeoutMillis() {
+        return readTimeoutMillis;
+    }
+
+    public void setReadTimeoutMillis(int readTimeoutMillis) {
+        this.readTimeoutMillis = readTimeoutMillis;
+    }
+
+    /**
+     * Request entities larger than this are gzip-compressed. If negative,
+     * requests are never compressed. (Responses are always accepted in gzip
+     * form.)
+     */
+    public int getGzipThresholdBytes() {
+        return gzipThresholdBytes;
+    }
+
+    public void setGzipThresholdBytes(int gzipThresholdBytes) {
+        this.gzipThresholdBytes = gzipThresholdBytes;
+    }
+
+    /**
+     * Maximum number of times to retry an idempotent request after a
+     * connection error or transient server error, or 0 for no retries. See
+     * {@link RetryFilter}.
+     */
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    public void setMaxRetries(int maxRetries) {
+        this.maxRetries = maxRetries;
+    }
+
+    /**
+     * File to capture requests and responses to (see
+     * {@link HttpCaptureFilter}), or null for no capture.
+     */
+    public File getCaptureFile() {
+        return captureFile;
+    }
+
+    public void setCaptureFile(File captureFile) {
+        this.captureFile = captureFile;
+    }
+
+    /**
+     * Maximum number of bytes of each request or response body to capture.
+     */
+    public int getCaptureBodyLimitBytes() {
+        return captureBodyLimitBytes;
+    }
+
+    public void setCaptureBodyLimitBytes(int captureBodyLimitBytes) {
+        this.captureBodyLimitBytes = captureBodyLimitBytes;
+    }
+
+    /**
+     * Directory for the on-disk {@link MetadataCache}, or null for no cache.
+     */
+    public File getMetadataCacheDir() {
+        return metadataCacheDir;
+    }
+
+    public void setMetadataCacheDir(File metadataCacheDir) {
+        this.metadataCacheDir = metadataCacheDir;
+    }
+
+    /**
+     * How long to cache server metadata when the server does not say, or 0
+     * to disable the cache.
+     */
+    public int getMetadataCacheTtlSeconds() {
+        return metadataCacheTtlSeconds;
+    }
+
+    public void setMetadataCacheTtlSeconds(int metadataCacheTtlSeconds) {
+        this.metadataCacheTtlSeconds = metadataCacheTtlSeconds;
+    }
+
+    /**
+     * Whether to discard any cached metadata for the server before starting.
+     */
+    public boolean isRefreshMetadata() {
+        return refreshMetadata;
+    }
+
+    public void setRefreshMetadata(boolean refreshMetadata) {
+        this.refreshMetadata = refreshMetadata;
+    }
+}
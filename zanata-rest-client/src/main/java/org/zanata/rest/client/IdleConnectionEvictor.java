@@ -0,0 +1,69 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.rest.client;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.http.conn.ClientConnectionManager;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Periodically closes expired and idle connections in connection pools. One
+ * daemon thread serves every pool; a pool stops being checked once it has
+ * been garbage collected.
+ */
+class IdleConnectionEvictor {
+    private static final ScheduledExecutorService scheduler = Executors
+            .newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                    .setDaemon(true).setNameFormat("zanata-http-evictor")
+                    .build());
+
+    private IdleConnectionEvictor() {
+    }
+
+    static void evictIdleConnections(ClientConnectionManager connManager,
+            final int idleTimeoutSeconds) {
+        final WeakReference<ClientConnectionManager> connManagerRef =
+                new WeakReference<ClientConnectionManager>(connManager);
+        final AtomicReference<ScheduledFuture<?>> task =
+                new AtomicReference<ScheduledFuture<?>>();
+        long period = Math.max(1, idleTimeoutSeconds / 2);
+        task.set(scheduler.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                ClientConnectionManager manager = connManagerRef.get();
+                if (manager == null) {
+                    task.get().cancel(false);
+                    return;
+                }
+                manager.closeExpiredConnections();
+                manager.closeIdleConnections(idleTimeoutSeconds,
+                        TimeUnit.SECONDS);
+            }
+        }, period, period, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.rest.client;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.ws.rs.core.HttpHeaders;
+
+import org.codehaus.jackson.JsonNode;
+import org.codehaus.jackson.map.DeserializationConfig;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Charsets;
+import com.sun.jersey.api.client.ClientResponse;
+
+/**
+ * Caches small, rarely-changing server metadata (eg the server version and
+ * accepted file types) on disk, so that consecutive commands (or the modules
+ * of a Maven reactor build) need not fetch it again.
+ * <p>
+ * Entries live in one directory per server, as JSON files. Each entry expires
+ * after the time given by the server's Cache-Control or Expires header, or
+ * (for metadata which may use it) after a default TTL if the server gives
+ * neither. Responses marked no-store or no-cache are not cached.
+ */
+public class MetadataCache {
+    private static final Logger log = LoggerFactory
+            .getLogger(MetadataCache.class);
+    private static final Pattern MAX_AGE = Pattern
+            .compile("max-age\\s*=\\s*(\\d+)");
+
+    private final File dir;
+    private final long defaultTtlMillis;
+    private final ObjectMapper mapper = new ObjectMapper().configure(
+            DeserializationConfig.Feature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    /**
+     * @param cacheRoot
+     *            directory holding the caches for all servers
+     * @param serverKey
+     *            identifies the server (eg its URL)
+     * @param defaultTtlMillis
+     *            how long to keep entries if the server does not say
+     */
+    public MetadataCache(File cacheRoot, String serverKey,
+            long defaultTtlMillis) {
+        this.dir = new File(cacheRoot, sha1(serverKey));
+        this.defaultTtlMillis = defaultTtlMillis;
+    }
+
+    /**
+     * @return the cached value, or null if there is no fresh entry
+     */
+    public synchronized <T> T get(String key, Class<T> type) {
+        File file = fileFor(key);
+        if (!file.exists()) {
+            return null;
+        }
+        try {
+            JsonNode entry = mapper.readTree(file);
+            if (entry.path("expires").asLong() <= System.currentTimeMillis()) {
+                return null;
+            }
+            return mapper.readValue(entry.get("value"), type);
+        } catch (IOException e) {
+            log.debug("ignoring unreadable metadata cache entry " + file, e);
+            return null;
+        }
+    }
+
+    /**
+     * Caches value for as long as the response's cache headers allow.
+     *
+     * @param useDefaultTtl
+     *            whether to use the default TTL if the response has no cache
+     *            headers (if false, such a response is not cached)
+     */
+    public synchronized void put(String key, Object value,
+            ClientResponse response, boolean useDefaultTtl) {
+        long ttl = ttlMillis(response, useDefaultTtl);
+        if (ttl <= 0) {
+            return;
+        }
+        Map<String, Object> entry = new LinkedHashMap<String, Object>();
+        entry.put("expires", System.currentTimeMillis() + ttl);
+        entry.put("value", value);
+        File file = fileFor(key);
+        File temp = new File(file.getPath() + ".tmp");
+        try {
+            if (!dir.isDirectory() && !dir.mkdirs()) {
+                throw new IOException("unable to create " + dir);
+            }
+            mapper.writeValue(temp, entry);
+            if (!temp.renameTo(file)) {
+                file.delete();
+                if (!temp.renameTo(file)) {
+                    throw new IOException("unable to rename " + temp);
+                }
+            }
+        } catch (IOException e) {
+            log.debug("unable to write metadata cache entry " + file, e);
+            temp.delete();
+        }
+    }
+
+    public synchronized void invalidate(String key) {
+        fileFor(key).delete();
+    }
+
+    /**
+     * Removes all entries for this server.
+     */
+    public synchronized void clear() {
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+    }
+
+    long ttlMillis(ClientResponse response, boolean useDefaultTtl) {
+        String cacheControl =
+                response.getHeaders().getFirst(HttpHeaders.CACHE_CONTROL);
+        if (cacheControl != null) {
+            String directives = cacheControl.toLowerCase(Locale.ENGLISH);
+            if (directives.contains("no-store")
+                    || directives.contains("no-cache")) {
+                return 0;
+            }
+            Matcher maxAge = MAX_AGE.matcher(directives);
+            if (maxAge.find()) {
+                return Long.parseLong(maxAge.group(1)) * 1000;
+            }
+        }
+        String expires = response.getHeaders().getFirst(HttpHeaders.EXPIRES);
+        if (expires != null) {
+            try {
+                return httpDateFormat().parse(expires).getTime()
+                        - System.currentTimeMillis();
+            } catch (ParseException e) {
+                // RFC 7234: an invalid date means already expired
+                return 0;
+            }
+        }
+        return useDefaultTtl ? defaultTtlMillis : 0;
+    }
+
+    private static SimpleDateFormat httpDateFormat() {
+        return new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss zzz",
+                Locale.US);
+    }
+
+    private File fileFor(String key) {
+        return new File(dir, sha1(key) + ".json");
+    }
+
+    private static String sha1(String s) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-1");
+            return String.format("%040x",
+                    new BigInteger(1, md.digest(s.getBytes(Charsets.UTF_8))));
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
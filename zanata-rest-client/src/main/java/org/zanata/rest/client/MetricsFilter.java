@@ -0,0 +1,149 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.rest.client;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import com.google.common.io.CountingOutputStream;
+import com.sun.jersey.api.client.AbstractClientRequestAdapter;
+import com.sun.jersey.api.client.ClientHandlerException;
+import com.sun.jersey.api.client.ClientRequest;
+import com.sun.jersey.api.client.ClientRequestAdapter;
+import com.sun.jersey.api.client.ClientResponse;
+import com.sun.jersey.api.client.filter.ClientFilter;
+
+/**
+ * Records {@link RestMetrics} for each request.
+ * <p>
+ * This should be the innermost filter, so that each attempt of a retried
+ * request is counted separately, and byte counts are for the entities as
+ * sent and received (ie compressed, if gzip is in use).
+ */
+public class MetricsFilter extends ClientFilter {
+    private volatile RestMetrics metrics;
+
+    public MetricsFilter(RestMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Records later requests in different metrics.
+     */
+    void setMetrics(RestMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public ClientResponse handle(ClientRequest cr)
+            throws ClientHandlerException {
+        EndpointMetrics endpoint =
+                metrics.forRequest(cr.getMethod(), cr.getURI());
+        ClientRequestAdapter originalAdapter = cr.getAdapter();
+        CountingAdapter adapter = new CountingAdapter(originalAdapter);
+        cr.setAdapter(adapter);
+        long start = System.nanoTime();
+        ClientResponse response;
+        try {
+            response = getNext().handle(cr);
+        } catch (ClientHandlerException e) {
+            endpoint.recordError(elapsedMillis(start), adapter.getCount());
+            throw e;
+        } finally {
+            cr.setAdapter(originalAdapter);
+        }
+        endpoint.recordResponse(response.getStatus(), elapsedMillis(start),
+                adapter.getCount());
+        if (response.hasEntity()) {
+            response.setEntityInputStream(new CountingInputStream(response
+                    .getEntityInputStream(), endpoint));
+        }
+        return response;
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1000000;
+    }
+
+    private static class CountingAdapter extends AbstractClientRequestAdapter {
+        private CountingOutputStream counter;
+
+        private CountingAdapter(ClientRequestAdapter cra) {
+            super(cra);
+        }
+
+        @Override
+        public OutputStream adapt(ClientRequest request, OutputStream out)
+                throws IOException {
+            // count what reaches the connection, after any other adapters
+            counter = new CountingOutputStream(out);
+            return getAdapter().adapt(request, counter);
+        }
+
+        private long getCount() {
+            return counter == null ? 0 : counter.getCount();
+        }
+    }
+
+    /**
+     * Adds the bytes read from a response entity to the endpoint's metrics.
+     */
+    private static class CountingInputStream extends FilterInputStream {
+        private final EndpointMetrics endpoint;
+
+        private CountingInputStream(InputStream in, EndpointMetrics endpoint) {
+            super(in);
+            this.endpoint = endpoint;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                endpoint.addResponseBytes(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                endpoint.addResponseBytes(n);
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            endpoint.addResponseBytes(skipped);
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+    }
+}
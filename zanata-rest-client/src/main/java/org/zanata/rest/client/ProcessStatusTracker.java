@@ -0,0 +1,276 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.zanata.rest.client;
+
+import java.util.Collections;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.zanata.rest.dto.ProcessStatus;
+
+import com.google.common.base.Objects;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Tracks any number of asynchronous server processes (see
+ * {@link AsyncProcessClient}) until they finish, polling all of them from a
+ * single scheduler thread.
+ * <p>
+ * Each process is polled with an adaptive interval: it starts at the minimum
+ * poll period, grows while the process makes no progress, and drops back to
+ * the minimum whenever progress is seen. Processes which the server does not
+ * accept (because its queue is full) are resubmitted after a randomised delay
+ * which grows with the number of processes currently waiting to be accepted,
+ * so that a burst of rejected submissions does not come back all at once.
+ * <p>
+ * The scheduler thread only polls. A resubmission uploads the whole document
+ * again, so it runs on a separate executor, and polling of the other
+ * processes carries on meanwhile.
+ */
+public class ProcessStatusTracker {
+    private static final Logger log = LoggerFactory
+            .getLogger(ProcessStatusTracker.class);
+
+    public static final long DEFAULT_MIN_POLL_MILLIS = 250;
+    public static final long DEFAULT_MAX_POLL_MILLIS = 5000;
+    private static final double BACKOFF_FACTOR = 1.5;
+
+    /**
+     * Receives every status seen for a tracked process, eg to display
+     * progress. Called on the scheduler thread (or the thread which submitted
+     * the process), so it should return quickly.
+     */
+    public static interface StatusListener {
+        void statusUpdated(ProcessStatus status);
+    }
+
+    private final AsyncProcessClient client;
+    private final long minPollMillis;
+    private final long maxPollMillis;
+    private final Random random;
+    private final Executor resubmitExecutor;
+    private final ScheduledExecutorService scheduler;
+    private final AtomicInteger notAcceptedCount = new AtomicInteger();
+    private final Set<TrackedProcess> pending = Collections
+            .newSetFromMap(new ConcurrentHashMap<TrackedProcess, Boolean>());
+
+    /**
+     * Resubmits processes which were not accepted on the client factory's
+     * async executor.
+     */
+    public ProcessStatusTracker(AsyncProcessClient client) {
+        this(client, client.getAsyncExecutor());
+    }
+
+    /**
+     * @param resubmitExecutor
+     *            runs resubmissions of processes which were not accepted,
+     *            eg the executor used for uploads
+     */
+    public ProcessStatusTracker(AsyncProcessClient client,
+            Executor resubmitExecutor) {
+        this(client, resubmitExecutor, DEFAULT_MIN_POLL_MILLIS,
+                DEFAULT_MAX_POLL_MILLIS, new Random());
+    }
+
+    ProcessStatusTracker(AsyncProcessClient client, Executor resubmitExecutor,
+            long minPollMillis, long maxPollMillis, Random random) {
+        this.client = client;
+        this.resubmitExecutor = resubmitExecutor;
+        this.minPollMillis = minPollMillis;
+        this.maxPollMillis = maxPollMillis;
+        this.random = random;
+        this.scheduler =
+                Executors.newSingleThreadScheduledExecutor(
+                        new ThreadFactoryBuilder().setDaemon(true)
+                                .setNameFormat("zanata-process-tracker")
+                                .build());
+    }
+
+    /**
+     * Submits a process (by calling {@code submission} on the current thread)
+     * and tracks it until it is Finished or Failed.
+     *
+     * @param submission
+     *            starts the process on the server, returning its initial
+     *            status. It will be called again if the server does not
+     *            accept the process.
+     * @return a future for the final (Finished or Failed) status
+     */
+    public ListenableFuture<ProcessStatus> track(
+            Callable<ProcessStatus> submission) {
+        return track(submission, null);
+    }
+
+    /**
+     * As {@link #track(Callable)}, but with a listener for intermediate
+     * statuses.
+     */
+    public ListenableFuture<ProcessStatus> track(
+            Callable<ProcessStatus> submission, StatusListener listener) {
+        TrackedProcess process = new TrackedProcess(submission, listener);
+        pending.add(process);
+        process.submit();
+        return process.result;
+    }
+
+    /**
+     * Stops polling. Any processes still being tracked complete with an
+     * IllegalStateException.
+     */
+    public void shutdown() {
+        scheduler.shutdownNow();
+        for (TrackedProcess process : pending) {
+            process.fail(new IllegalStateException(
+                    "process status tracker has been shut down"));
+        }
+    }
+
+    /**
+     * @return the delay before the next attempt to submit a process which was
+     *         not accepted
+     */
+    long resubmitDelay(int waitingProcesses) {
+        long delay =
+                Math.min(maxPollMillis, minPollMillis * (1 + waitingProcesses));
+        // somewhere between 50% and 150% of the delay
+        return delay / 2 + (long) (random.nextDouble() * delay);
+    }
+
+    private class TrackedProcess implements Runnable {
+        private final Callable<ProcessStatus> submission;
+        private final StatusListener listener;
+        private final SettableFuture<ProcessStatus> result =
+                SettableFuture.create();
+        private ProcessStatus status;
+        private long pollMillis = minPollMillis;
+        private boolean notAccepted;
+
+        private TrackedProcess(Callable<ProcessStatus> submission,
+                StatusListener listener) {
+            this.submission = submission;
+            this.listener = listener;
+        }
+
+        /**
+         * Polls the process (on the scheduler thread), or hands it over to be
+         * resubmitted if it was not accepted.
+         */
+        @Override
+        public void run() {
+            if (notAccepted) {
+                try {
+                    resubmitExecutor.execute(new Runnable() {
+                        @Override
+                        public void run() {
+                            log.debug("resubmitting process which was not accepted");
+                            submit();
+                        }
+                    });
+                } catch (RuntimeException e) {
+                    fail(e);
+                }
+                return;
+            }
+            try {
+                update(client.getProcessStatus(status.getUrl()));
+            } catch (Exception e) {
+                fail(e);
+            }
+        }
+
+        private void submit() {
+            try {
+                update(submission.call());
+            } catch (Exception e) {
+                fail(e);
+            }
+        }
+
+        private void fail(Throwable e) {
+            setNotAccepted(false);
+            pending.remove(this);
+            result.setException(e);
+        }
+
+        private void update(ProcessStatus newStatus) {
+            if (listener != null) {
+                listener.statusUpdated(newStatus);
+            }
+            switch (newStatus.getStatusCode()) {
+            case Finished:
+            case Failed:
+                setNotAccepted(false);
+                pending.remove(this);
+                result.set(newStatus);
+                return;
+            case NotAccepted:
+                setNotAccepted(true);
+                status = newStatus;
+                scheduler.schedule(this,
+                        resubmitDelay(notAcceptedCount.get()),
+                        TimeUnit.MILLISECONDS);
+                return;
+            default:
+                setNotAccepted(false);
+                if (madeProgress(newStatus)) {
+                    pollMillis = minPollMillis;
+                } else {
+                    pollMillis =
+                            Math.min(maxPollMillis,
+                                    (long) (pollMillis * BACKOFF_FACTOR));
+                }
+                status = newStatus;
+                scheduler.schedule(this, pollMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        private boolean madeProgress(ProcessStatus newStatus) {
+            return status == null
+                    || status.getStatusCode() != newStatus.getStatusCode()
+                    || !Objects.equal(status.getPercentageComplete(),
+                            newStatus.getPercentageComplete());
+        }
+
+        private void setNotAccepted(boolean newValue) {
+            if (newValue != notAccepted) {
+                notAccepted = newValue;
+                if (newValue) {
+                    notAcceptedCount.incrementAndGet();
+                } else {
+                    notAcceptedCount.decrementAndGet();
+                }
+            }
+        }
+    }
+}
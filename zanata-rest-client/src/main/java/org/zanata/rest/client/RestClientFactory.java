@@ -28,6 +28,10 @@ import java.net.URL;
 import java.security.SecureRandom;
 import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.HttpsURLConnection;
@@ -36,6 +40,11 @@ import javax.net.ssl.SSLSession;
 import javax.net.ssl.TrustManager;
 import javax.net.ssl.X509TrustManager;
 
+import org.apache.http.conn.scheme.Scheme;
+import org.apache.http.conn.scheme.SchemeRegistry;
+import org.apache.http.conn.ssl.SSLSocketFactory;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.impl.conn.SchemeRegistryFactory;
 import org.apache.maven.artifact.versioning.DefaultArtifactVersion;
 import org.codehaus.jackson.jaxrs.JacksonJsonProvider;
 import org.slf4j.Logger;
@@ -44,13 +53,26 @@ import org.zanata.rest.RestConstant;
 import org.zanata.rest.dto.VersionInfo;
 
 import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.sun.jersey.api.client.Client;
+import com.sun.jersey.api.client.ClientResponse;
+import com.sun.jersey.api.client.UniformInterface;
+import com.sun.jersey.api.client.UniformInterfaceException;
 import com.sun.jersey.api.client.config.ClientConfig;
 import com.sun.jersey.api.client.config.DefaultClientConfig;
+import com.sun.jersey.client.apache4.ApacheHttpClient4;
+import com.sun.jersey.client.apache4.config.ApacheHttpClient4Config;
+import com.sun.jersey.client.apache4.config.DefaultApacheHttpClient4Config;
 import com.sun.jersey.client.urlconnection.HTTPSProperties;
 import com.sun.jersey.multipart.impl.MultiPartWriter;
 
 /**
+ * Creates the *Client classes for a server. They all share one Jersey
+ * {@link Client}, whose filters are only set up here, so the clients may be
+ * used from many threads at once.
+ *
  * @author Patrick Huang <a
  *         href="mailto:pahuang@redhat.com">pahuang@redhat.com</a>
  */
@@ -63,6 +85,11 @@ public class RestClientFactory {
 
     private Client client;
     private URI baseURI;
+    private volatile RestMetrics metrics;
+    private MetricsFilter metricsFilter;
+    private MetadataCache metadataCache;
+    private int asyncThreads = HttpConnectionConfig.DEFAULT_MAX_CONNECTIONS;
+    private ListeningExecutorService asyncExecutor;
 
     // for use by InitCommand
     protected RestClientFactory() {
@@ -71,20 +98,108 @@ public class RestClientFactory {
     public RestClientFactory(URI base, String username, String apiKey,
             VersionInfo clientApiVersion, boolean logHttp,
             boolean sslCertDisabled) {
+        this(base, username, apiKey, clientApiVersion, logHttp,
+                sslCertDisabled, new HttpConnectionConfig());
+    }
+
+    public RestClientFactory(URI base, String username, String apiKey,
+            VersionInfo clientApiVersion, boolean logHttp,
+            boolean sslCertDisabled, HttpConnectionConfig connectionConfig) {
         baseURI = base;
         this.clientApiVersion = clientApiVersion;
         clientVersion = clientApiVersion.getVersionNo();
-        DefaultClientConfig clientConfig =
-                new DefaultClientConfig(MultiPartWriter.class);
-
-        sslConfiguration(sslCertDisabled, clientConfig);
+        DefaultClientConfig clientConfig;
+        if (connectionConfig.isPooled()) {
+            clientConfig = new DefaultApacheHttpClient4Config();
+        } else {
+            clientConfig = new DefaultClientConfig();
+        }
+        clientConfig.getClasses().add(MultiPartWriter.class);
         clientConfig.getClasses().add(JacksonJsonProvider.class);
-
-        client = Client.create(clientConfig);
+        timeoutConfiguration(connectionConfig, clientConfig);
+        asyncThreads = connectionConfig.getMaxConnections();
+
+        if (connectionConfig.isPooled()) {
+            client =
+                    createPooledClient(connectionConfig, sslCertDisabled,
+                            clientConfig);
+        } else {
+            sslConfiguration(sslCertDisabled, clientConfig);
+            client = Client.create(clientConfig);
+        }
+        // the last filter added runs first, so retries happen closest to the
+        // connection (with metrics for each attempt) and each attempt is sent
+        // with the same headers
+        metrics = new RestMetrics(base);
+        metricsFilter = new MetricsFilter(metrics);
+        client.addFilter(metricsFilter);
+        if (connectionConfig.getCaptureFile() != null) {
+            client.addFilter(new HttpCaptureFilter(connectionConfig
+                    .getCaptureFile(), connectionConfig
+                    .getCaptureBodyLimitBytes()));
+        }
+        client.addFilter(new RetryFilter(connectionConfig.getMaxRetries()));
         client.addFilter(
                 new ApiKeyHeaderFilter(username, apiKey, clientVersion));
         client.addFilter(new AcceptTypeFilter());
+        client.addFilter(new GzipEncodingFilter(connectionConfig
+                .getGzipThresholdBytes()));
         client.addFilter(new TraceDebugFilter(logHttp));
+
+        if (connectionConfig.getMetadataCacheDir() != null
+                && connectionConfig.getMetadataCacheTtlSeconds() > 0) {
+            metadataCache =
+                    new MetadataCache(connectionConfig.getMetadataCacheDir(),
+                            base.toString().replaceAll("/*$", "/"),
+                            connectionConfig.getMetadataCacheTtlSeconds()
+                                    * 1000L);
+            if (connectionConfig.isRefreshMetadata()) {
+                metadataCache.clear();
+            }
+        }
+    }
+
+    private static void timeoutConfiguration(
+            HttpConnectionConfig connectionConfig, ClientConfig clientConfig) {
+        if (connectionConfig.getConnectTimeoutMillis() > 0) {
+            clientConfig.getProperties().put(
+                    ClientConfig.PROPERTY_CONNECT_TIMEOUT,
+                    connectionConfig.getConnectTimeoutMillis());
+        }
+        if (connectionConfig.getReadTimeoutMillis() > 0) {
+            clientConfig.getProperties().put(
+                    ClientConfig.PROPERTY_READ_TIMEOUT,
+                    connectionConfig.getReadTimeoutMillis());
+        }
+    }
+
+    /**
+     * Creates a client which sends requests through a pool of keep-alive
+     * connections.
+     */
+    private static Client createPooledClient(
+            HttpConnectionConfig connectionConfig, boolean sslCertDisabled,
+            ClientConfig clientConfig) {
+        SchemeRegistry schemeRegistry = SchemeRegistryFactory.createDefault();
+        if (sslCertDisabled) {
+            schemeRegistry.register(new Scheme("https", 443,
+                    new SSLSocketFactory(trustAllSslContext(),
+                            SSLSocketFactory.ALLOW_ALL_HOSTNAME_VERIFIER)));
+        }
+        PoolingClientConnectionManager connManager =
+                new PoolingClientConnectionManager(schemeRegistry);
+        // all requests go to the same server
+        connManager.setMaxTotal(connectionConfig.getMaxConnections());
+        connManager.setDefaultMaxPerRoute(connectionConfig
+                .getMaxConnections());
+        IdleConnectionEvictor.evictIdleConnections(connManager,
+                connectionConfig.getIdleTimeoutSeconds());
+        clientConfig.getProperties().put(
+                ApacheHttpClient4Config.PROPERTY_CONNECTION_MANAGER,
+                connManager);
+        log.debug("Using pooled HTTP connections (max {})",
+                connectionConfig.getMaxConnections());
+        return ApacheHttpClient4.create(clientConfig);
     }
 
     private static void sslConfiguration(boolean sslCertDisabled,
@@ -92,8 +207,27 @@ public class RestClientFactory {
         if (!sslCertDisabled) {
             return;
         }
+        final SSLContext sslContext = trustAllSslContext();
+        HttpsURLConnection
+                .setDefaultSSLSocketFactory(sslContext
+                        .getSocketFactory());
+        clientConfig.getProperties().put(
+                HTTPSProperties.PROPERTY_HTTPS_PROPERTIES,
+                new HTTPSProperties(
+                        new HostnameVerifier() {
+                            @Override
+                            public boolean verify(String s,
+                                    SSLSession sslSession) {
+                                // whatever your matching policy states
+                                return true;
+                            }
+                        }, sslContext
+                ));
+    }
+
+    private static SSLContext trustAllSslContext() {
         try {
-            final SSLContext sslContext = SSLContext.getInstance("TLS");
+            SSLContext sslContext = SSLContext.getInstance("TLS");
 
             // Create a trust manager that does not validate certificate chains
             // against our server
@@ -101,30 +235,101 @@ public class RestClientFactory {
             trustAllCerts =
                     new TrustManager[] { new AcceptAllX509TrustManager() };
             sslContext.init(null, trustAllCerts, new SecureRandom());
-            HttpsURLConnection
-                    .setDefaultSSLSocketFactory(sslContext
-                            .getSocketFactory());
-            clientConfig.getProperties().put(
-                    HTTPSProperties.PROPERTY_HTTPS_PROPERTIES,
-                    new HTTPSProperties(
-                            new HostnameVerifier() {
-                                @Override
-                                public boolean verify(String s,
-                                        SSLSession sslSession) {
-                                    // whatever your matching policy states
-                                    return true;
-                                }
-                            }, sslContext
-                    ));
+            return sslContext;
         } catch (Exception e) {
             log.warn("error creating SSL client", e);
-            Throwables.propagate(e);
+            throw Throwables.propagate(e);
+        }
+    }
+
+    /**
+     * @return metrics for all requests made through this factory's clients
+     */
+    public RestMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Starts collecting metrics afresh, eg when this factory is shared by
+     * several commands which each report their own requests. Metrics already
+     * returned by {@link #getMetrics()} stop changing.
+     *
+     * @return the new (empty) metrics
+     */
+    public RestMetrics resetMetrics() {
+        RestMetrics newMetrics = new RestMetrics(baseURI);
+        metricsFilter.setMetrics(newMetrics);
+        metrics = newMetrics;
+        return newMetrics;
+    }
+
+    /**
+     * Sets the executor which runs requests for the clients' asynchronous
+     * methods (eg {@link SourceDocResourceClient#getResourceAsync}).
+     */
+    public synchronized void setAsyncExecutor(ExecutorService executor) {
+        asyncExecutor = MoreExecutors.listeningDecorator(executor);
+    }
+
+    /**
+     * @return the executor for the clients' asynchronous methods. Unless one
+     *         has been set, this has one daemon thread for each connection
+     *         the client may open, created as needed.
+     */
+    public synchronized ListeningExecutorService getAsyncExecutor() {
+        if (asyncExecutor == null) {
+            ThreadPoolExecutor executor =
+                    new ThreadPoolExecutor(asyncThreads, asyncThreads, 60,
+                            TimeUnit.SECONDS,
+                            new LinkedBlockingQueue<Runnable>(),
+                            new ThreadFactoryBuilder().setDaemon(true)
+                                    .setNameFormat("zanata-rest-async-%d")
+                                    .build());
+            executor.allowCoreThreadTimeOut(true);
+            asyncExecutor = MoreExecutors.listeningDecorator(executor);
         }
+        return asyncExecutor;
     }
 
     public VersionInfo getServerVersionInfo() {
-        return client.resource(getBaseUri()).path("version")
-                .get(VersionInfo.class);
+        // only cached if the server says so: a stale version would make the
+        // version check report the wrong server version after an upgrade
+        return getMetadata("version",
+                client.resource(getBaseUri()).path("version"),
+                VersionInfo.class, false);
+    }
+
+    /**
+     * GETs a small piece of server metadata, using the metadata cache (if
+     * enabled).
+     *
+     * @param cacheKey
+     *            identifies the metadata within this server's cache
+     * @param useDefaultTtl
+     *            whether to cache the metadata for the default TTL if the
+     *            response has no cache headers (otherwise it is only cached
+     *            if the server allows it)
+     * @throws UniformInterfaceException
+     *             if the server returns an error status (as for a typed GET)
+     */
+    <T> T getMetadata(String cacheKey, UniformInterface request,
+            Class<T> type, boolean useDefaultTtl) {
+        if (metadataCache != null) {
+            T cached = metadataCache.get(cacheKey, type);
+            if (cached != null) {
+                log.debug("using cached {}", cacheKey);
+                return cached;
+            }
+        }
+        ClientResponse response = request.get(ClientResponse.class);
+        if (response.getStatus() >= 300) {
+            throw new UniformInterfaceException(response);
+        }
+        T value = response.getEntity(type);
+        if (metadataCache != null) {
+            metadataCache.put(cacheKey, value, response, useDefaultTtl);
+        }
+        return value;
     }
 
     public void performVersionCheck() {
@@ -139,6 +344,18 @@ public class RestClientFactory {
         warnMismatchAPIVersion(clientScm, serverScm);
     }
 
+    /**
+     * @return the server API version, as found by
+     *         {@link #performVersionCheck()}, or fetched from the server if no
+     *         version check was performed
+     */
+    public synchronized String getServerVersion() {
+        if (serverVersion == null) {
+            serverVersion = getServerVersionInfo().getVersionNo();
+        }
+        return serverVersion;
+    }
+
     private void warnMismatchAPIVersion(String clientScm, String serverScm) {
         if (!serverVersion.equals(clientVersion)) {
             log.warn("client API version is {}, but server API version is {}",
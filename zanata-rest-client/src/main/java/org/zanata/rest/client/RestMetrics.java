@@ -0,0 +1,143 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.rest.client;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.codehaus.jackson.map.ObjectMapper;
+
+import com.google.common.base.Joiner;
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+
+/**
+ * Collects {@link EndpointMetrics} for every request made through a
+ * {@link RestClientFactory} (see {@link MetricsFilter}).
+ * <p>
+ * Requests are grouped by HTTP method and path template, eg
+ * {@code PUT /rest/async/projects/p/{}/iterations/i/{}/r/{}}: path segments
+ * which are not fixed parts of the Zanata REST API (project and version
+ * slugs, document ids, locales and so on) are replaced by {@code {}}.
+ */
+public class RestMetrics {
+    private static final Set<String> API_SEGMENTS = ImmutableSet.of(
+            "rest", "async", "projects", "project", "p", "iterations", "i",
+            "r", "translations", "locales", "locale", "process", "copytrans",
+            "proj", "iter", "doc", "file", "source", "translation", "upload",
+            "download", "accepted_types", "stats", "version", "contributor",
+            "accounts", "u", "glossary", "config");
+    private static final double[] PERCENTILES = { 50, 95, 99 };
+
+    private final String basePath;
+    private final ConcurrentMap<String, EndpointMetrics> endpoints =
+            new ConcurrentHashMap<String, EndpointMetrics>();
+
+    /**
+     * @param baseUri
+     *            the server's base URI; its path is left out of endpoint
+     *            names
+     */
+    public RestMetrics(URI baseUri) {
+        String path = baseUri.getPath();
+        basePath = path == null ? "" : path.replaceAll("/+$", "");
+    }
+
+    /**
+     * @return metrics for the endpoint matching method and uri, created if
+     *         necessary
+     */
+    EndpointMetrics forRequest(String method, URI uri) {
+        String endpoint = endpointOf(method, uri);
+        EndpointMetrics metrics = endpoints.get(endpoint);
+        if (metrics == null) {
+            EndpointMetrics newMetrics = new EndpointMetrics();
+            metrics = endpoints.putIfAbsent(endpoint, newMetrics);
+            if (metrics == null) {
+                metrics = newMetrics;
+            }
+        }
+        return metrics;
+    }
+
+    String endpointOf(String method, URI uri) {
+        String path = uri.getRawPath() == null ? "" : uri.getRawPath();
+        if (path.startsWith(basePath)) {
+            path = path.substring(basePath.length());
+        }
+        List<String> template = Lists.newArrayList();
+        for (String segment : Splitter.on('/').omitEmptyStrings().split(
+                path)) {
+            template.add(API_SEGMENTS.contains(segment) ? segment : "{}");
+        }
+        return method + " /" + Joiner.on('/').join(template);
+    }
+
+    /**
+     * @return metrics for each endpoint which has been used, sorted by
+     *         endpoint
+     */
+    public Map<String, EndpointMetrics> getEndpoints() {
+        return new TreeMap<String, EndpointMetrics>(endpoints);
+    }
+
+    public boolean isEmpty() {
+        return endpoints.isEmpty();
+    }
+
+    /**
+     * @return a JSON summary of the metrics for each endpoint
+     */
+    public String toJson() {
+        Map<String, Object> summary = new LinkedHashMap<String, Object>();
+        for (Map.Entry<String, EndpointMetrics> entry : getEndpoints()
+                .entrySet()) {
+            EndpointMetrics metrics = entry.getValue();
+            Map<String, Object> values = new LinkedHashMap<String, Object>();
+            values.put("requests", metrics.getRequestCount());
+            values.put("errors", metrics.getErrorCount());
+            Map<String, Long> latency = new LinkedHashMap<String, Long>();
+            for (double percentile : PERCENTILES) {
+                latency.put("p" + (int) percentile,
+                        metrics.getLatencyMillis(percentile));
+            }
+            values.put("latencyMillis", latency);
+            values.put("requestBytes", metrics.getRequestBytes());
+            values.put("responseBytes", metrics.getResponseBytes());
+            values.put("statusCounts", metrics.getStatusCounts());
+            summary.put(entry.getKey(), values);
+        }
+        try {
+            return new ObjectMapper().writerWithDefaultPrettyPrinter()
+                    .writeValueAsString(summary);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
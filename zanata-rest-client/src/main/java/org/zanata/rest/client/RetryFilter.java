@@ -0,0 +1,180 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.rest.client;
+
+import java.io.InputStream;
+import java.util.Random;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sun.jersey.api.client.ClientHandlerException;
+import com.sun.jersey.api.client.ClientRequest;
+import com.sun.jersey.api.client.ClientResponse;
+import com.sun.jersey.api.client.filter.ClientFilter;
+
+/**
+ * Retries idempotent requests which fail with a connection error or a
+ * transient server error (5xx other than 501 and 505), with exponential
+ * backoff and jitter. GET, HEAD, PUT and DELETE requests are treated as
+ * idempotent (PUTs replace a whole document or translation set); POSTs, and
+ * requests whose entity is a stream which cannot be sent twice, are not
+ * retried.
+ * <p>
+ * A {@link CircuitBreaker} shared by all requests stops the client from
+ * sending anything for a while once the server has failed repeatedly.
+ * <p>
+ * If every attempt fails, the last response (or exception) is passed back to
+ * the caller unchanged.
+ */
+public class RetryFilter extends ClientFilter {
+    private static final Logger log = LoggerFactory
+            .getLogger(RetryFilter.class);
+
+    public static final int DEFAULT_MAX_RETRIES = 3;
+    private static final long BASE_DELAY_MILLIS = 1000;
+    private static final long MAX_DELAY_MILLIS = 30000;
+    private static final int BREAKER_FAILURE_THRESHOLD = 8;
+    private static final long BREAKER_OPEN_MILLIS = 30000;
+
+    private final int maxRetries;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+    private final CircuitBreaker circuitBreaker;
+    private final Random random;
+
+    /**
+     * @param maxRetries
+     *            maximum number of times to retry a request (0 to disable
+     *            retries)
+     */
+    public RetryFilter(int maxRetries) {
+        this(maxRetries, BASE_DELAY_MILLIS, MAX_DELAY_MILLIS,
+                new CircuitBreaker(BREAKER_FAILURE_THRESHOLD,
+                        BREAKER_OPEN_MILLIS), new Random());
+    }
+
+    RetryFilter(int maxRetries, long baseDelayMillis, long maxDelayMillis,
+            CircuitBreaker circuitBreaker, Random random) {
+        this.maxRetries = maxRetries;
+        this.baseDelayMillis = baseDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+        this.circuitBreaker = circuitBreaker;
+        this.random = random;
+    }
+
+    @Override
+    public ClientResponse handle(ClientRequest cr)
+            throws ClientHandlerException {
+        boolean retryable = isIdempotent(cr);
+        for (int attempt = 0;; attempt++) {
+            if (!circuitBreaker.allowRequest()) {
+                throw new ClientHandlerException(
+                        "Server is not responding; requests suspended for "
+                                + circuitBreaker.millisUntilRetry() + " ms");
+            }
+            boolean lastAttempt = !retryable || attempt >= maxRetries;
+            ClientResponse response;
+            try {
+                response = getNext().handle(cr);
+            } catch (ClientHandlerException e) {
+                circuitBreaker.recordFailure();
+                if (lastAttempt) {
+                    throw e;
+                }
+                log.warn("{} {} failed ({}); retrying", cr.getMethod(),
+                        cr.getURI(), e.getMessage());
+                sleep(retryDelay(attempt, null));
+                continue;
+            } catch (RuntimeException | Error e) {
+                // not retried, but the breaker must still hear about it, or
+                // it would wait forever for a trial request to finish
+                circuitBreaker.recordFailure();
+                throw e;
+            }
+            if (!isTransientError(response.getStatus())) {
+                circuitBreaker.recordSuccess();
+                return response;
+            }
+            circuitBreaker.recordFailure();
+            if (lastAttempt) {
+                return response;
+            }
+            log.warn("{} {} returned {}; retrying", cr.getMethod(),
+                    cr.getURI(), response.getStatus());
+            Long retryAfter = retryAfterMillis(response);
+            response.close();
+            sleep(retryDelay(attempt, retryAfter));
+        }
+    }
+
+    static boolean isIdempotent(ClientRequest cr) {
+        if (cr.getEntity() instanceof InputStream) {
+            return false;
+        }
+        String method = cr.getMethod();
+        return "GET".equals(method) || "HEAD".equals(method)
+                || "PUT".equals(method) || "DELETE".equals(method);
+    }
+
+    static boolean isTransientError(int status) {
+        return status >= 500 && status != 501 && status != 505;
+    }
+
+    /**
+     * @return the delay before retry number attempt+1: a random time between
+     *         half and all of base * 2^attempt (capped at the maximum), or
+     *         the server's Retry-After if that is longer
+     */
+    long retryDelay(int attempt, Long retryAfterMillis) {
+        long delay =
+                Math.min(maxDelayMillis, baseDelayMillis << Math.min(attempt,
+                        20));
+        delay = delay / 2 + (long) (random.nextDouble() * (delay / 2));
+        if (retryAfterMillis != null) {
+            delay = Math.max(delay, Math.min(maxDelayMillis, retryAfterMillis));
+        }
+        return delay;
+    }
+
+    private static Long retryAfterMillis(ClientResponse response) {
+        String retryAfter = response.getHeaders().getFirst("Retry-After");
+        if (retryAfter == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(retryAfter.trim()) * 1000;
+        } catch (NumberFormatException e) {
+            // an HTTP date; just use the normal backoff
+            return null;
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ClientHandlerException("Interrupted while waiting to retry",
+                    e);
+        }
+    }
+}
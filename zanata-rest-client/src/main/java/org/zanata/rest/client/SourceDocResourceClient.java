@@ -24,10 +24,14 @@ package org.zanata.rest.client;
 import java.net.URI;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import javax.ws.rs.core.HttpHeaders;
 
 import org.zanata.rest.dto.resource.Resource;
 import org.zanata.rest.dto.resource.ResourceMeta;
+import com.google.common.util.concurrent.ListenableFuture;
 import com.sun.jersey.api.client.Client;
+import com.sun.jersey.api.client.ClientResponse;
 import com.sun.jersey.api.client.GenericType;
 
 import com.sun.jersey.api.client.WebResource;
@@ -85,20 +89,47 @@ public class SourceDocResourceClient {
         return webResource.get(Resource.class);
     }
 
+    /**
+     * Fetches a source document only if it has changed.
+     *
+     * @param eTag
+     *            ETag of the copy the caller already has, or null
+     * @return the response, with status 304 (Not Modified) if the document
+     *         still matches the ETag. The caller must close the response.
+     */
+    public ClientResponse getResourceIfNoneMatch(String idNoSlash,
+            Set<String> extensions, String eTag) {
+        Client client = factory.getClient();
+        return getBaseServiceResource(client)
+                .path(idNoSlash)
+                .queryParams(ClientUtil.asMultivaluedMap("ext", extensions))
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .get(ClientResponse.class);
+    }
+
+    /**
+     * As {@link #getResource}, but runs on the factory's async executor.
+     */
+    public ListenableFuture<Resource> getResourceAsync(final String idNoSlash,
+            final Set<String> extensions) {
+        return factory.getAsyncExecutor().submit(new Callable<Resource>() {
+            @Override
+            public Resource call() {
+                return getResource(idNoSlash, extensions);
+            }
+        });
+    }
+
     public String putResource(String idNoSlash, Resource resource,
             Set<String> extensions, boolean copyTrans) {
         Client client = factory.getClient();
-        CacheResponseFilter filter = new CacheResponseFilter();
-        client.addFilter(filter);
         WebResource webResource = getBaseServiceResource(client)
                 .path(idNoSlash)
                 .queryParams(ClientUtil.asMultivaluedMap(
                         "ext", extensions))
                 .queryParam("copyTrans", String.valueOf(copyTrans));
 
-        webResource.put(resource);
-        client.removeFilter(filter);
-        return filter.getEntity(String.class);
+        return webResource.put(String.class, resource);
     }
 
     public String deleteResource(String idNoSlash) {
@@ -107,4 +138,17 @@ public class SourceDocResourceClient {
         return webResource.path(idNoSlash).delete(String.class);
     }
 
+    /**
+     * As {@link #deleteResource}, but runs on the factory's async executor.
+     */
+    public ListenableFuture<String> deleteResourceAsync(
+            final String idNoSlash) {
+        return factory.getAsyncExecutor().submit(new Callable<String>() {
+            @Override
+            public String call() {
+                return deleteResource(idNoSlash);
+            }
+        });
+    }
+
 }
@@ -23,6 +23,7 @@ package org.zanata.rest.client;
 
 import java.net.URI;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import javax.ws.rs.HeaderParam;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.QueryParam;
@@ -30,6 +31,7 @@ import javax.ws.rs.core.HttpHeaders;
 
 import org.zanata.common.LocaleId;
 import org.zanata.rest.dto.resource.TranslationsResource;
+import com.google.common.util.concurrent.ListenableFuture;
 import com.sun.jersey.api.client.Client;
 import com.sun.jersey.api.client.ClientResponse;
 import com.sun.jersey.api.client.WebResource;
@@ -72,6 +74,24 @@ public class TransDocResourceClient {
                 .get(ClientResponse.class);
     }
 
+    /**
+     * As {@link #getTranslations}, but runs on the factory's async executor.
+     * The caller must close the response.
+     */
+    public ListenableFuture<ClientResponse> getTranslationsAsync(
+            final String idNoSlash, final LocaleId locale,
+            final Set<String> extensions, final boolean createSkeletons,
+            final String eTag) {
+        return factory.getAsyncExecutor().submit(
+                new Callable<ClientResponse>() {
+                    @Override
+                    public ClientResponse call() {
+                        return getTranslations(idNoSlash, locale, extensions,
+                                createSkeletons, eTag);
+                    }
+                });
+    }
+
     private WebResource getBaseServiceResource(Client client) {
         return client.resource(baseUri)
                 .path("projects").path("p")
@@ -21,6 +21,8 @@
 
 package org.zanata.rest.client;
 
+import java.util.concurrent.TimeUnit;
+
 import org.hamcrest.Matchers;
 import org.junit.Before;
 import org.junit.ClassRule;
@@ -73,6 +75,32 @@ public class AsyncProcessClientTest {
                 ProcessStatus.ProcessStatusCode.Running));
     }
 
+    @Test
+    public void testStartSourceDocCreationOrUpdateAsync() throws Exception {
+        ProcessStatus processStatus =
+                client.startSourceDocCreationOrUpdateAsync("message",
+                        "about-fedora", "master", new Resource("message"),
+                        Sets.newHashSet("gettext"), false)
+                        .get(10, TimeUnit.SECONDS);
+
+        assertThat(processStatus.getStatusCode(), Matchers.equalTo(
+                ProcessStatus.ProcessStatusCode.Running));
+    }
+
+    @Test
+    public void testStartTranslatedDocCreationOrUpdateAsync()
+            throws Exception {
+        ProcessStatus processStatus =
+                client.startTranslatedDocCreationOrUpdateAsync("message",
+                        "about-fedora", "master", LocaleId.DE,
+                        new TranslationsResource(),
+                        Sets.newHashSet("gettext"), "auto", false)
+                        .get(10, TimeUnit.SECONDS);
+
+        assertThat(processStatus.getStatusCode(), Matchers.equalTo(
+                ProcessStatus.ProcessStatusCode.Running));
+    }
+
     @Test
     public void testGetProcessStatus() throws Exception {
         ProcessStatus processStatus = client.getProcessStatus("a");
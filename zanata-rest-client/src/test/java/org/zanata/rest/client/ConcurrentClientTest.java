@@ -0,0 +1,115 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.rest.client;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.hamcrest.Matchers;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.zanata.rest.dto.CopyTransStatus;
+import org.zanata.rest.dto.ProcessStatus;
+import org.zanata.rest.dto.resource.Resource;
+import org.zanata.rest.service.StubbingServerRule;
+
+import com.google.common.collect.Sets;
+
+import static org.junit.Assert.assertThat;
+
+/**
+ * Calls clients from one {@link RestClientFactory} on many threads at once,
+ * to make sure that no request sees another request's response.
+ */
+public class ConcurrentClientTest {
+    private static final int THREADS = 8;
+    private static final int REQUESTS = 200;
+
+    @ClassRule
+    public static StubbingServerRule
+            stubbingServerRule = new StubbingServerRule();
+    private RestClientFactory factory;
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        factory =
+                MockServerTestUtil.createClientFactory(stubbingServerRule
+                        .getServerBaseUri());
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void clientsCanBeCalledFromManyThreads() throws Exception {
+        final SourceDocResourceClient sourceDocClient =
+                new SourceDocResourceClient(factory, "about-fedora", "master");
+        final AsyncProcessClient asyncProcessClient =
+                new AsyncProcessClient(factory);
+        final CopyTransClient copyTransClient = new CopyTransClient(factory);
+        List<Future<Void>> results = new ArrayList<Future<Void>>();
+
+        for (int i = 0; i < REQUESTS; i++) {
+            final String name = "doc" + i;
+            results.add(executor.submit(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    // the stub server echoes the name of the document
+                    String result =
+                            sourceDocClient.putResource("test",
+                                    new Resource(name),
+                                    Sets.newHashSet("gettext"), false);
+                    assertThat(result, Matchers.equalTo(name));
+
+                    ProcessStatus status =
+                            asyncProcessClient.startSourceDocCreationOrUpdate(
+                                    name, "about-fedora", "master",
+                                    new Resource(name),
+                                    Sets.newHashSet("gettext"), false);
+                    assertThat(status.getStatusCode(),
+                            Matchers.notNullValue());
+
+                    CopyTransStatus copyTransStatus =
+                            copyTransClient.startCopyTrans("about-fedora",
+                                    "master", name);
+                    assertThat(copyTransStatus.isInProgress(),
+                            Matchers.is(true));
+                    return null;
+                }
+            }));
+        }
+        for (Future<Void> result : results) {
+            // rethrows any assertion failure from the worker thread
+            result.get(30, TimeUnit.SECONDS);
+        }
+    }
+}
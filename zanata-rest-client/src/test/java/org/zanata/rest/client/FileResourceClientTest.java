@@ -47,6 +47,8 @@ import org.zanata.rest.dto.resource.Resource;
 import org.zanata.rest.dto.resource.TranslationsResource;
 import org.zanata.rest.service.StubbingServerRule;
 
+import com.sun.jersey.api.client.ClientResponse;
+
 import static org.junit.Assert.*;
 
 public class FileResourceClientTest {
@@ -168,6 +170,18 @@ public class FileResourceClientTest {
                 Matchers.hasSize(1));
     }
 
-}
+    @Test
+    public void testDownloadTranslationFileIfNoneMatch() {
+        ClientResponse response =
+                client.downloadTranslationFile("about-fedora", "master", "es",
+                        "po", "About-Fedora", "abc");
 
+        assertThat(response.getStatus(), Matchers.equalTo(200));
+        TranslationsResource translationsResource =
+                new PoReader2().extractTarget(new InputSource(response
+                        .getEntity(InputStream.class)));
+        assertThat(translationsResource.getTextFlowTargets(),
+                Matchers.hasSize(1));
+    }
 
+}
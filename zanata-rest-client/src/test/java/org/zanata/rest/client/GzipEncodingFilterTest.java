@@ -0,0 +1,135 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.rest.client;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.zip.GZIPInputStream;
+
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MultivaluedMap;
+
+import org.hamcrest.Matchers;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.zanata.common.ContentType;
+import org.zanata.common.LocaleId;
+import org.zanata.rest.dto.resource.Resource;
+import org.zanata.rest.dto.resource.TextFlow;
+import org.zanata.rest.service.StubbingServerRule;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.Sets;
+import com.google.common.io.ByteStreams;
+import com.sun.jersey.core.util.MultivaluedMapImpl;
+
+import static org.junit.Assert.assertThat;
+
+public class GzipEncodingFilterTest {
+    private static final Logger log = LoggerFactory
+            .getLogger(GzipEncodingFilterTest.class);
+
+    @ClassRule
+    public static StubbingServerRule
+            stubbingServerRule = new StubbingServerRule();
+
+    private static byte[] write(byte[] content,
+            MultivaluedMap<String, Object> headers, int thresholdBytes)
+            throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        GzipEncodingFilter.ThresholdGzipOutputStream stream =
+                new GzipEncodingFilter.ThresholdGzipOutputStream(out,
+                        headers, thresholdBytes);
+        // write in chunks, as a message body writer would
+        for (int off = 0; off < content.length; off += 1000) {
+            stream.write(content, off, Math.min(1000, content.length - off));
+        }
+        stream.close();
+        return out.toByteArray();
+    }
+
+    @Test
+    public void smallEntityIsNotCompressed() throws Exception {
+        byte[] content = "<resource name=\"small\"/>".getBytes("UTF-8");
+        MultivaluedMap<String, Object> headers = new MultivaluedMapImpl();
+
+        byte[] written = write(content, headers, 1024);
+
+        assertThat(written, Matchers.equalTo(content));
+        assertThat(headers.containsKey(HttpHeaders.CONTENT_ENCODING),
+                Matchers.is(false));
+    }
+
+    @Test
+    public void largeEntityIsCompressed() throws Exception {
+        StringBuilder xml = new StringBuilder("<resource>");
+        for (int i = 0; i < 5000; i++) {
+            xml.append("<text-flow id=\"").append(i)
+                    .append("\"><content>Hello world ").append(i)
+                    .append("</content></text-flow>");
+        }
+        xml.append("</resource>");
+        byte[] content = xml.toString().getBytes("UTF-8");
+        MultivaluedMap<String, Object> headers = new MultivaluedMapImpl();
+
+        long start = System.nanoTime();
+        byte[] written = write(content, headers, 1024);
+        long micros = (System.nanoTime() - start) / 1000;
+
+        assertThat(headers.getFirst(HttpHeaders.CONTENT_ENCODING),
+                Matchers.<Object> equalTo("gzip"));
+        assertThat(ByteStreams.toByteArray(new GZIPInputStream(
+                new ByteArrayInputStream(written))), Matchers.equalTo(content));
+        assertThat(written.length, Matchers.lessThan(content.length));
+        log.info("gzip: {} bytes -> {} bytes in {} us", content.length,
+                written.length, micros);
+    }
+
+    @Test
+    public void serverAcceptsCompressedRequestEntity() throws Exception {
+        HttpConnectionConfig connectionConfig = new HttpConnectionConfig();
+        connectionConfig.setGzipThresholdBytes(0);
+        SourceDocResourceClient client =
+                new SourceDocResourceClient(
+                        MockServerTestUtil.createClientFactory(
+                                stubbingServerRule.getServerBaseUri(),
+                                connectionConfig), "about-fedora", "master");
+        Resource resource = new Resource("compressed");
+        resource.setContentType(ContentType.TextPlain);
+        for (int i = 0; i < 100; i++) {
+            resource.getTextFlows().add(
+                    new TextFlow("tf" + i, LocaleId.EN_US, Strings.repeat(
+                            "Hello world ", 10)));
+        }
+
+        String result =
+                client.putResource("test", resource,
+                        Sets.newHashSet("gettext"), false);
+
+        // the stub server echoes the document name, so it must have
+        // decompressed the request
+        assertThat(result, Matchers.equalTo("compressed"));
+        assertThat(client.getResource("test", Sets.newHashSet("gettext"))
+                .getName(), Matchers.equalTo("test"));
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.zanata.rest.client;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.codehaus.jackson.map.ObjectMapper;
+import org.hamcrest.Matchers;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.zanata.rest.RestConstant;
+import org.zanata.rest.dto.resource.Resource;
+import org.zanata.rest.service.StubbingServerRule;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Strings;
+import com.google.common.collect.Sets;
+import com.google.common.io.Files;
+
+import static org.junit.Assert.assertThat;
+
+public class HttpCaptureFilterTest {
+    @ClassRule
+    public static StubbingServerRule
+            stubbingServerRule = new StubbingServerRule();
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private File captureFile;
+
+    @Before
+    public void setUp() throws Exception {
+        captureFile = new File(tempFolder.getRoot(), "capture.har.jsonl");
+    }
+
+    private RestClientFactory createClientFactory(int bodyLimitBytes) {
+        HttpConnectionConfig connectionConfig = new HttpConnectionConfig();
+        connectionConfig.setCaptureFile(captureFile);
+        connectionConfig.setCaptureBodyLimitBytes(bodyLimitBytes);
+        return MockServerTestUtil.createClientFactory(
+                stubbingServerRule.getServerBaseUri(), connectionConfig);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Map<String, Object>> readEntries() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        List<Map<String, Object>> entries =
+                new ArrayList<Map<String, Object>>();
+        for (String line : Files.readLines(captureFile, Charsets.UTF_8)) {
+            entries.add(mapper.readValue(line, Map.class));
+        }
+        return entries;
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void capturesRequestAndResponseWithMaskedApiKey() throws Exception {
+        SourceDocResourceClient client =
+                new SourceDocResourceClient(createClientFactory(1000),
+                        "about-fedora", "master");
+        client.putResource("test", new Resource("newName"),
+                Sets.newHashSet("gettext"), true);
+
+        List<Map<String, Object>> entries = readEntries();
+        assertThat(entries, Matchers.hasSize(1));
+        Map<String, Object> request =
+                (Map<String, Object>) entries.get(0).get("request");
+        Map<String, Object> response =
+                (Map<String, Object>) entries.get(0).get("response");
+        assertThat(request.get("method"), Matchers.<Object> equalTo("PUT"));
+        Map<String, Object> postData =
+                (Map<String, Object>) request.get("postData");
+        assertThat((String) postData.get("text"),
+                Matchers.containsString("newName"));
+        assertThat(response.get("status"), Matchers.<Object> equalTo(200));
+        for (Map<String, Object> header : (List<Map<String, Object>>) request
+                .get("headers")) {
+            if (RestConstant.HEADER_API_KEY.equals(header.get("name"))) {
+                assertThat((String) header.get("value"),
+                        Matchers.equalTo(Strings.repeat("*", 32)));
+            }
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void truncatesBodiesToLimit() throws Exception {
+        createClientFactory(4).getProjectsClient().getProjects();
+
+        Map<String, Object> response =
+                (Map<String, Object>) readEntries().get(0).get("response");
+        Map<String, Object> content =
+                (Map<String, Object>) response.get("content");
+        assertThat(((String) content.get("text")).length(),
+                Matchers.lessThanOrEqualTo(4));
+        assertThat(((Number) content.get("size")).longValue(),
+                Matchers.greaterThan(4L));
+        assertThat(content.get("_truncated"), Matchers.<Object> equalTo(true));
+    }
+
+    @Test
+    public void writerRotatesFileWhenFull() throws Exception {
+        HttpCaptureWriter writer = new HttpCaptureWriter(captureFile, 10, 2);
+
+        writer.writeLine("one");
+        writer.writeLine("two");
+        writer.writeLine("three");
+        writer.writeLine("four");
+
+        assertThat(Files.toString(captureFile, Charsets.UTF_8),
+                Matchers.equalTo("four\n"));
+        assertThat(Files.toString(new File(captureFile + ".1"),
+                Charsets.UTF_8), Matchers.equalTo("three\n"));
+        assertThat(Files.toString(new File(captureFile + ".2"),
+                Charsets.UTF_8), Matchers.equalTo("one\ntwo\n"));
+    }
+}
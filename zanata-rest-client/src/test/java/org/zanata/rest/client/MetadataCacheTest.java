@@ -0,0 +1,157 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.zanata.rest.client;
+
+import java.io.ByteArrayInputStream;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+
+import org.hamcrest.Matchers;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.zanata.rest.dto.VersionInfo;
+import org.zanata.rest.service.StubbingServerRule;
+
+import com.sun.jersey.api.client.ClientResponse;
+import com.sun.jersey.core.header.InBoundHeaders;
+
+import static org.junit.Assert.assertThat;
+
+public class MetadataCacheTest {
+    @ClassRule
+    public static StubbingServerRule
+            stubbingServerRule = new StubbingServerRule();
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private MetadataCache cache;
+
+    @Before
+    public void setUp() {
+        cache = new MetadataCache(tempFolder.getRoot(), "http://example.com/",
+                60000);
+    }
+
+    private static ClientResponse response(String header, String value) {
+        InBoundHeaders headers = new InBoundHeaders();
+        if (header != null) {
+            headers.add(header, value);
+        }
+        return new ClientResponse(200, headers, new ByteArrayInputStream(
+                new byte[0]), null);
+    }
+
+    private RestClientFactory createClientFactory(boolean refresh) {
+        HttpConnectionConfig connectionConfig = new HttpConnectionConfig();
+        connectionConfig.setMetadataCacheDir(tempFolder.getRoot());
+        connectionConfig.setRefreshMetadata(refresh);
+        return MockServerTestUtil.createClientFactory(
+                stubbingServerRule.getServerBaseUri(), connectionConfig);
+    }
+
+    private static long requests(RestClientFactory factory,
+            String endpoint) {
+        EndpointMetrics metrics =
+                factory.getMetrics().getEndpoints().get(endpoint);
+        return metrics == null ? 0 : metrics.getRequestCount();
+    }
+
+    private static long acceptedTypesRequests(RestClientFactory factory) {
+        return requests(factory, "GET /file/accepted_types");
+    }
+
+    @Test
+    public void ttlFollowsServerCacheHeaders() {
+        assertThat(cache.ttlMillis(response(null, null), true),
+                Matchers.equalTo(60000L));
+        assertThat(cache.ttlMillis(response(null, null), false),
+                Matchers.equalTo(0L));
+        assertThat(cache.ttlMillis(response("Cache-Control",
+                "public, max-age=30"), true), Matchers.equalTo(30000L));
+        assertThat(cache.ttlMillis(response("Cache-Control", "no-store"),
+                true), Matchers.equalTo(0L));
+        assertThat(cache.ttlMillis(response("Cache-Control",
+                "no-cache, max-age=30"), true), Matchers.equalTo(0L));
+
+        SimpleDateFormat format =
+                new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss zzz",
+                        Locale.US);
+        format.setTimeZone(TimeZone.getTimeZone("GMT"));
+        String inTenMinutes =
+                format.format(new Date(System.currentTimeMillis() + 600000));
+        assertThat(cache.ttlMillis(response("Expires", inTenMinutes), true),
+                Matchers.allOf(Matchers.greaterThan(590000L),
+                        Matchers.lessThanOrEqualTo(600000L)));
+        assertThat(cache.ttlMillis(response("Expires", "0"), true),
+                Matchers.equalTo(0L));
+    }
+
+    @Test
+    public void storesAndExpiresEntries() {
+        VersionInfo version = new VersionInfo("3.6.0", "date", "scm");
+
+        cache.put("version", version, response(null, null), true);
+        assertThat(cache.get("version", VersionInfo.class).getVersionNo(),
+                Matchers.equalTo("3.6.0"));
+
+        cache.put("expired", version, response("Cache-Control", "max-age=0"),
+                true);
+        assertThat(cache.get("expired", VersionInfo.class),
+                Matchers.nullValue());
+
+        cache.invalidate("version");
+        assertThat(cache.get("version", VersionInfo.class),
+                Matchers.nullValue());
+    }
+
+    @Test
+    public void acceptedTypesAreFetchedOnceAcrossClientFactories() {
+        RestClientFactory first = createClientFactory(false);
+        String types =
+                new FileResourceClient(first).acceptedFileTypes().toString();
+        new FileResourceClient(first).acceptedFileTypes();
+        assertThat(acceptedTypesRequests(first), Matchers.equalTo(1L));
+
+        RestClientFactory second = createClientFactory(false);
+        assertThat(new FileResourceClient(second).acceptedFileTypes()
+                .toString(), Matchers.equalTo(types));
+        assertThat(acceptedTypesRequests(second), Matchers.equalTo(0L));
+
+        RestClientFactory refreshed = createClientFactory(true);
+        new FileResourceClient(refreshed).acceptedFileTypes();
+        assertThat(acceptedTypesRequests(refreshed), Matchers.equalTo(1L));
+    }
+
+    @Test
+    public void versionIsNotCachedWithoutCacheHeaders() {
+        createClientFactory(false).getServerVersionInfo();
+
+        RestClientFactory second = createClientFactory(false);
+        second.getServerVersionInfo();
+        assertThat(requests(second, "GET /version"), Matchers.equalTo(1L));
+    }
+}
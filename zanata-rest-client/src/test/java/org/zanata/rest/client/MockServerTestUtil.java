@@ -36,10 +36,16 @@ import static org.junit.Assert.assertThat;
 public class MockServerTestUtil {
 
     public static RestClientFactory createClientFactory(URI serverBaseUri) {
+        return createClientFactory(serverBaseUri, new HttpConnectionConfig());
+    }
+
+    public static RestClientFactory createClientFactory(URI serverBaseUri,
+            HttpConnectionConfig connectionConfig) {
         return new RestClientFactory(serverBaseUri,
                 "admin",
                 "b6d7044e9ee3b2447c28fb7c50d86d98", new VersionInfo(
-                "3.6.0-SNAPSHOT", "unknown", "unknown"), true, true) {
+                "3.6.0-SNAPSHOT", "unknown", "unknown"), true, true,
+                connectionConfig) {
             @Override
             protected String getUrlPrefix() {
                 return "";
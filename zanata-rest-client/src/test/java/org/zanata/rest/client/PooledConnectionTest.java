@@ -0,0 +1,104 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.rest.client;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.hamcrest.Matchers;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.zanata.rest.dto.resource.ResourceMeta;
+import org.zanata.rest.service.StubbingServerRule;
+
+import static org.junit.Assert.assertThat;
+
+/**
+ * Compares pooled keep-alive connections with the default connector against
+ * the stub server. The timings are only logged, since they depend on the
+ * machine.
+ */
+public class PooledConnectionTest {
+    private static final Logger log = LoggerFactory
+            .getLogger(PooledConnectionTest.class);
+    private static final int THREADS = 4;
+    private static final int REQUESTS = 200;
+
+    @ClassRule
+    public static StubbingServerRule
+            stubbingServerRule = new StubbingServerRule();
+
+    private long timeRequests(HttpConnectionConfig connectionConfig)
+            throws Exception {
+        final SourceDocResourceClient client =
+                new SourceDocResourceClient(
+                        MockServerTestUtil.createClientFactory(
+                                stubbingServerRule.getServerBaseUri(),
+                                connectionConfig), "about-fedora", "master");
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            long start = System.nanoTime();
+            List<Future<List<ResourceMeta>>> results =
+                    new ArrayList<Future<List<ResourceMeta>>>();
+            for (int i = 0; i < REQUESTS; i++) {
+                results.add(executor.submit(
+                        new Callable<List<ResourceMeta>>() {
+                            @Override
+                            public List<ResourceMeta> call() {
+                                return client.getResourceMeta(null);
+                            }
+                        }));
+            }
+            for (Future<List<ResourceMeta>> result : results) {
+                assertThat(result.get(30, TimeUnit.SECONDS),
+                        Matchers.hasSize(2));
+            }
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void pooledConnectionsServeConcurrentRequests() throws Exception {
+        HttpConnectionConfig pooled = new HttpConnectionConfig();
+        pooled.setPooled(true);
+        pooled.setMaxConnections(THREADS);
+        pooled.setConnectTimeoutMillis(5000);
+        pooled.setReadTimeoutMillis(5000);
+
+        // warm up the stub server first
+        timeRequests(new HttpConnectionConfig());
+        long defaultMillis = timeRequests(new HttpConnectionConfig());
+        long pooledMillis = timeRequests(pooled);
+
+        log.info("{} requests on {} threads: default connector {} ms, "
+                + "pooled connector {} ms", REQUESTS, THREADS,
+                defaultMillis, pooledMillis);
+    }
+}
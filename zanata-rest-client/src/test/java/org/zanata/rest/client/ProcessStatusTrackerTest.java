@@ -0,0 +1,220 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.zanata.rest.client;
+
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hamcrest.Matchers;
+import org.junit.After;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.zanata.rest.dto.ProcessStatus;
+import org.zanata.rest.dto.ProcessStatus.ProcessStatusCode;
+import org.zanata.rest.dto.resource.Resource;
+import org.zanata.rest.service.StubbingServerRule;
+
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.Callables;
+import com.google.common.util.concurrent.ListenableFuture;
+
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ProcessStatusTrackerTest {
+    @ClassRule
+    public static StubbingServerRule
+            stubbingServerRule = new StubbingServerRule();
+    private ProcessStatusTracker tracker;
+    private ExecutorService resubmitter = Executors.newCachedThreadPool();
+
+    @After
+    public void tearDown() {
+        if (tracker != null) {
+            tracker.shutdown();
+        }
+        resubmitter.shutdownNow();
+    }
+
+    private static ProcessStatus status(ProcessStatusCode code) {
+        ProcessStatus status = new ProcessStatus();
+        status.setStatusCode(code);
+        status.setUrl("process");
+        return status;
+    }
+
+    @Test
+    public void tracksProcessOnServerUntilFinished() throws Exception {
+        final AsyncProcessClient client =
+                new AsyncProcessClient(MockServerTestUtil
+                        .createClientFactory(stubbingServerRule
+                                .getServerBaseUri()));
+        tracker = new ProcessStatusTracker(client);
+
+        ProcessStatus status =
+                tracker.track(new Callable<ProcessStatus>() {
+                    @Override
+                    public ProcessStatus call() {
+                        return client.startSourceDocCreationOrUpdate(
+                                "message", "about-fedora", "master",
+                                new Resource("message"),
+                                Sets.newHashSet("gettext"), false);
+                    }
+                }).get(10, TimeUnit.SECONDS);
+
+        assertThat(status.getStatusCode(),
+                Matchers.equalTo(ProcessStatusCode.Finished));
+    }
+
+    @Test
+    public void resubmitsProcessWhichWasNotAccepted() throws Exception {
+        AsyncProcessClient client = mock(AsyncProcessClient.class);
+        when(client.getProcessStatus("process")).thenReturn(
+                status(ProcessStatusCode.Running),
+                status(ProcessStatusCode.Finished));
+        tracker = new ProcessStatusTracker(client, resubmitter, 1, 10,
+                new Random(1));
+        final AtomicInteger submissions = new AtomicInteger();
+
+        ProcessStatus status =
+                tracker.track(new Callable<ProcessStatus>() {
+                    @Override
+                    public ProcessStatus call() {
+                        if (submissions.incrementAndGet() < 3) {
+                            return status(ProcessStatusCode.NotAccepted);
+                        }
+                        return status(ProcessStatusCode.Running);
+                    }
+                }).get(10, TimeUnit.SECONDS);
+
+        assertThat(status.getStatusCode(),
+                Matchers.equalTo(ProcessStatusCode.Finished));
+        assertThat(submissions.get(), Matchers.equalTo(3));
+    }
+
+    @Test
+    public void failedProcessCompletesWithFailedStatus() throws Exception {
+        AsyncProcessClient client = mock(AsyncProcessClient.class);
+        when(client.getProcessStatus("process")).thenReturn(
+                status(ProcessStatusCode.Waiting),
+                status(ProcessStatusCode.Failed));
+        tracker = new ProcessStatusTracker(client, resubmitter, 1, 10,
+                new Random(1));
+
+        ProcessStatus status =
+                tracker.track(new Callable<ProcessStatus>() {
+                    @Override
+                    public ProcessStatus call() {
+                        return status(ProcessStatusCode.Running);
+                    }
+                }).get(10, TimeUnit.SECONDS);
+
+        assertThat(status.getStatusCode(),
+                Matchers.equalTo(ProcessStatusCode.Failed));
+    }
+
+    @Test
+    public void resubmitDelayGrowsWithWaitingProcessesUpToMaximum()
+            throws Exception {
+        tracker =
+                new ProcessStatusTracker(mock(AsyncProcessClient.class),
+                        resubmitter, 100, 1000, new Random(1));
+
+        for (int i = 0; i < 20; i++) {
+            assertThat(tracker.resubmitDelay(0),
+                    Matchers.allOf(Matchers.greaterThanOrEqualTo(50L),
+                            Matchers.lessThan(150L)));
+            assertThat(tracker.resubmitDelay(3),
+                    Matchers.allOf(Matchers.greaterThanOrEqualTo(200L),
+                            Matchers.lessThan(600L)));
+            assertThat(tracker.resubmitDelay(50),
+                    Matchers.allOf(Matchers.greaterThanOrEqualTo(500L),
+                            Matchers.lessThan(1500L)));
+        }
+    }
+
+    @Test
+    public void pollsOtherProcessesWhileResubmitting() throws Exception {
+        AsyncProcessClient client = mock(AsyncProcessClient.class);
+        ProcessStatus otherStatus = status(ProcessStatusCode.Running);
+        otherStatus.setUrl("other");
+        when(client.getProcessStatus("other")).thenReturn(
+                status(ProcessStatusCode.Finished));
+        when(client.getProcessStatus("process")).thenReturn(
+                status(ProcessStatusCode.Finished));
+        tracker = new ProcessStatusTracker(client, resubmitter, 1, 10,
+                new Random(1));
+        final CountDownLatch otherFinished = new CountDownLatch(1);
+        final AtomicInteger submissions = new AtomicInteger();
+
+        ListenableFuture<ProcessStatus> slow =
+                tracker.track(new Callable<ProcessStatus>() {
+                    @Override
+                    public ProcessStatus call() throws Exception {
+                        if (submissions.incrementAndGet() == 1) {
+                            return status(ProcessStatusCode.NotAccepted);
+                        }
+                        // a slow upload, which must not hold up polling
+                        otherFinished.await(10, TimeUnit.SECONDS);
+                        return status(ProcessStatusCode.Running);
+                    }
+                });
+        ListenableFuture<ProcessStatus> other =
+                tracker.track(Callables.returning(otherStatus));
+
+        assertThat(other.get(5, TimeUnit.SECONDS).getStatusCode(),
+                Matchers.equalTo(ProcessStatusCode.Finished));
+        otherFinished.countDown();
+        assertThat(slow.get(10, TimeUnit.SECONDS).getStatusCode(),
+                Matchers.equalTo(ProcessStatusCode.Finished));
+    }
+
+    @Test
+    public void shutdownFailsPendingProcesses() throws Exception {
+        AsyncProcessClient client = mock(AsyncProcessClient.class);
+        when(client.getProcessStatus("process")).thenReturn(
+                status(ProcessStatusCode.Running));
+        tracker = new ProcessStatusTracker(client, resubmitter, 1000, 1000,
+                new Random(1));
+
+        ListenableFuture<ProcessStatus> future =
+                tracker.track(Callables.returning(
+                        status(ProcessStatusCode.Running)));
+        tracker.shutdown();
+
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            fail("expected ExecutionException");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(),
+                    Matchers.instanceOf(IllegalStateException.class));
+        }
+    }
+}
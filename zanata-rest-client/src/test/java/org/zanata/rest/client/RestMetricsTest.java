@@ -0,0 +1,113 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.zanata.rest.client;
+
+import java.net.URI;
+import java.util.Map;
+
+import org.hamcrest.Matchers;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.zanata.rest.service.StubbingServerRule;
+
+import com.google.common.collect.Iterables;
+
+import static org.junit.Assert.assertThat;
+
+public class RestMetricsTest {
+    @ClassRule
+    public static StubbingServerRule
+            stubbingServerRule = new StubbingServerRule();
+
+    @Test
+    public void endpointNamesReplaceSlugsAndIds() throws Exception {
+        RestMetrics metrics =
+                new RestMetrics(new URI("http://example.com/zanata/"));
+
+        assertThat(metrics.endpointOf("PUT", new URI(
+                "http://example.com/zanata/rest/async/projects/p/about-fedora"
+                        + "/iterations/i/master/r/doc1?ext=gettext")),
+                Matchers.equalTo(
+                        "PUT /rest/async/projects/p/{}/iterations/i/{}/r/{}"));
+        assertThat(metrics.endpointOf("GET", new URI(
+                "http://example.com/zanata/rest/projects/p/about-fedora"
+                        + "/iterations/i/master/r/doc1/translations/de")),
+                Matchers.equalTo("GET /rest/projects/p/{}/iterations/i/{}"
+                        + "/r/{}/translations/{}"));
+    }
+
+    @Test
+    public void latencyPercentilesUseNearestRank() {
+        EndpointMetrics metrics = new EndpointMetrics();
+        for (int i = 100; i > 0; i--) {
+            metrics.recordResponse(200, i, 0);
+        }
+
+        assertThat(metrics.getLatencyMillis(50), Matchers.equalTo(50L));
+        assertThat(metrics.getLatencyMillis(95), Matchers.equalTo(95L));
+        assertThat(metrics.getLatencyMillis(99), Matchers.equalTo(99L));
+        assertThat(metrics.getLatencyMillis(100), Matchers.equalTo(100L));
+    }
+
+    @Test
+    public void recordsRequestsMadeThroughClientFactory() {
+        RestClientFactory factory =
+                MockServerTestUtil.createClientFactory(stubbingServerRule
+                        .getServerBaseUri());
+        ProjectsClient client = factory.getProjectsClient();
+
+        client.getProjects();
+        client.getProjects();
+
+        Map<String, EndpointMetrics> endpoints =
+                factory.getMetrics().getEndpoints();
+        assertThat(endpoints.size(), Matchers.equalTo(1));
+        EndpointMetrics metrics = Iterables.getOnlyElement(endpoints.values());
+        assertThat(metrics.getRequestCount(), Matchers.equalTo(2L));
+        assertThat(metrics.getStatusCounts().get(200), Matchers.equalTo(2L));
+        assertThat(metrics.getResponseBytes(), Matchers.greaterThan(0L));
+        assertThat(factory.getMetrics().toJson(),
+                Matchers.containsString("\"p95\""));
+    }
+
+    @Test
+    public void resetStartsNewMetrics() {
+        RestClientFactory factory =
+                MockServerTestUtil.createClientFactory(stubbingServerRule
+                        .getServerBaseUri());
+        ProjectsClient client = factory.getProjectsClient();
+        client.getProjects();
+        RestMetrics before = factory.getMetrics();
+
+        RestMetrics after = factory.resetMetrics();
+        client.getProjects();
+        client.getProjects();
+
+        assertThat(factory.getMetrics(), Matchers.sameInstance(after));
+        assertThat(Iterables.getOnlyElement(
+                before.getEndpoints().values()).getRequestCount(),
+                Matchers.equalTo(1L));
+        assertThat(Iterables.getOnlyElement(
+                after.getEndpoints().values()).getRequestCount(),
+                Matchers.equalTo(2L));
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.zanata.rest.client;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Random;
+
+import org.hamcrest.Matchers;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sun.jersey.api.client.Client;
+import com.sun.jersey.api.client.ClientHandler;
+import com.sun.jersey.api.client.ClientHandlerException;
+import com.sun.jersey.api.client.ClientRequest;
+import com.sun.jersey.api.client.ClientResponse;
+import com.sun.jersey.core.header.InBoundHeaders;
+
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class RetryFilterTest {
+    private ScriptedHandler handler;
+    private Client client;
+
+    @Before
+    public void setUp() {
+        handler = new ScriptedHandler();
+        client = new Client(handler);
+    }
+
+    private void addRetryFilter(int maxRetries, CircuitBreaker breaker) {
+        client.addFilter(new RetryFilter(maxRetries, 1, 5, breaker,
+                new Random(1)));
+    }
+
+    private ClientResponse get() {
+        return client.resource("http://example.com/x").get(
+                ClientResponse.class);
+    }
+
+    @Test
+    public void retriesGetAfterServiceUnavailable() {
+        addRetryFilter(3, new CircuitBreaker(10, 1000));
+        handler.respond(503, 503, 200);
+
+        assertThat(get().getStatus(), Matchers.equalTo(200));
+        assertThat(handler.requests, Matchers.equalTo(3));
+    }
+
+    @Test
+    public void retriesConnectionFailure() {
+        addRetryFilter(3, new CircuitBreaker(10, 1000));
+        handler.respond(new ClientHandlerException("connection reset"), 200);
+
+        assertThat(get().getStatus(), Matchers.equalTo(200));
+        assertThat(handler.requests, Matchers.equalTo(2));
+    }
+
+    @Test
+    public void returnsLastResponseWhenRetriesAreUsedUp() {
+        addRetryFilter(2, new CircuitBreaker(10, 1000));
+        handler.respond(503, 502, 504, 200);
+
+        assertThat(get().getStatus(), Matchers.equalTo(504));
+        assertThat(handler.requests, Matchers.equalTo(3));
+    }
+
+    @Test
+    public void doesNotRetryPost() {
+        addRetryFilter(3, new CircuitBreaker(10, 1000));
+        handler.respond(503, 200);
+
+        ClientResponse response =
+                client.resource("http://example.com/x").post(
+                        ClientResponse.class, "entity");
+
+        assertThat(response.getStatus(), Matchers.equalTo(503));
+        assertThat(handler.requests, Matchers.equalTo(1));
+    }
+
+    @Test
+    public void doesNotRetryClientErrors() {
+        addRetryFilter(3, new CircuitBreaker(10, 1000));
+        handler.respond(404, 200);
+
+        assertThat(get().getStatus(), Matchers.equalTo(404));
+        assertThat(handler.requests, Matchers.equalTo(1));
+    }
+
+    @Test
+    public void openCircuitFailsFastUntilTrialRequestSucceeds() {
+        FakeClockBreaker breaker = new FakeClockBreaker(2, 1000);
+        addRetryFilter(0, breaker);
+        handler.respond(503, 503, 200, 200);
+
+        get();
+        get();
+        try {
+            get();
+            fail("expected the open circuit to refuse the request");
+        } catch (ClientHandlerException e) {
+            assertThat(handler.requests, Matchers.equalTo(2));
+        }
+
+        breaker.time = 1000;
+        assertThat(get().getStatus(), Matchers.equalTo(200));
+        assertThat(get().getStatus(), Matchers.equalTo(200));
+        assertThat(handler.requests, Matchers.equalTo(4));
+    }
+
+    @Test
+    public void unexpectedExceptionDoesNotLeaveTrialRequestInFlight() {
+        FakeClockBreaker breaker = new FakeClockBreaker(1, 1000);
+        addRetryFilter(0, breaker);
+        handler.respond(503, new IllegalStateException("bug"), 200);
+
+        get();
+        breaker.time = 1000;
+        try {
+            get();
+            fail("expected the trial request to fail");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+
+        breaker.time = 2000;
+        assertThat(get().getStatus(), Matchers.equalTo(200));
+        assertThat(handler.requests, Matchers.equalTo(3));
+    }
+
+    @Test
+    public void retryDelayGrowsExponentiallyUpToMaximum() {
+        RetryFilter filter =
+                new RetryFilter(3, 100, 1000, new CircuitBreaker(10, 1000),
+                        new Random(1));
+
+        for (int i = 0; i < 20; i++) {
+            assertThat(filter.retryDelay(0, null),
+                    Matchers.allOf(Matchers.greaterThanOrEqualTo(50L),
+                            Matchers.lessThanOrEqualTo(100L)));
+            assertThat(filter.retryDelay(2, null),
+                    Matchers.allOf(Matchers.greaterThanOrEqualTo(200L),
+                            Matchers.lessThanOrEqualTo(400L)));
+            assertThat(filter.retryDelay(10, null),
+                    Matchers.allOf(Matchers.greaterThanOrEqualTo(500L),
+                            Matchers.lessThanOrEqualTo(1000L)));
+            assertThat(filter.retryDelay(0, 800L), Matchers.equalTo(800L));
+        }
+    }
+
+    private static class FakeClockBreaker extends CircuitBreaker {
+        private long time;
+
+        FakeClockBreaker(int failureThreshold, long openMillis) {
+            super(failureThreshold, openMillis);
+        }
+
+        @Override
+        long now() {
+            return time;
+        }
+    }
+
+    private static class ScriptedHandler implements ClientHandler {
+        private final Deque<Object> script = new ArrayDeque<Object>();
+        private int requests;
+
+        void respond(Object... responses) {
+            for (Object response : responses) {
+                script.add(response);
+            }
+        }
+
+        @Override
+        public ClientResponse handle(ClientRequest cr) {
+            requests++;
+            Object next = script.removeFirst();
+            if (next instanceof RuntimeException) {
+                throw (RuntimeException) next;
+            }
+            return new ClientResponse((Integer) next, new InBoundHeaders(),
+                    new ByteArrayInputStream(new byte[0]), null);
+        }
+    }
+}
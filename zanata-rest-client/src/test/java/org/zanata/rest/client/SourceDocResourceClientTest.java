@@ -25,6 +25,7 @@ import static org.junit.Assert.assertThat;
 
 import java.net.URISyntaxException;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import org.hamcrest.Matchers;
 import org.junit.Before;
@@ -34,6 +35,7 @@ import org.zanata.rest.dto.resource.Resource;
 import org.zanata.rest.dto.resource.ResourceMeta;
 import org.zanata.rest.service.StubbingServerRule;
 import com.google.common.collect.Sets;
+import com.sun.jersey.api.client.ClientResponse;
 
 public class SourceDocResourceClientTest {
     @ClassRule
@@ -73,6 +75,32 @@ public class SourceDocResourceClientTest {
         assertThat(result, Matchers.equalTo("newName"));
     }
 
+    @Test
+    public void testGetResourceIfNoneMatch() {
+        ClientResponse response = client.getResourceIfNoneMatch("test",
+                Sets.newHashSet("gettext", "comment"), "abc");
+
+        assertThat(response.getStatus(), Matchers.equalTo(200));
+        assertThat(response.getEntity(Resource.class).getName(),
+                Matchers.equalTo("test"));
+    }
+
+    @Test
+    public void testGetResourceAsync() throws Exception {
+        Resource resource = client.getResourceAsync("test",
+                Sets.newHashSet("gettext", "comment")).get(10,
+                TimeUnit.SECONDS);
+
+        assertThat(resource.getName(), Matchers.equalTo("test"));
+    }
+
+    @Test
+    public void testDeleteResourceAsync() throws Exception {
+        String result =
+                client.deleteResourceAsync("test").get(10, TimeUnit.SECONDS);
+        assertThat(result, Matchers.isEmptyOrNullString());
+    }
+
     @Test
     public void testDeleteResource() {
         String result = client.deleteResource("test");
@@ -21,6 +21,8 @@
 
 package org.zanata.rest.client;
 
+import java.util.concurrent.TimeUnit;
+
 import org.hamcrest.Matchers;
 import org.junit.Before;
 import org.junit.ClassRule;
@@ -57,6 +59,17 @@ public class TransDocResourceClientTest {
         assertThat(translations.getTextFlowTargets(), Matchers.hasSize(1));
     }
 
+    @Test
+    public void testGetTranslationsAsync() throws Exception {
+        TranslationsResource translations =
+                client.getTranslationsAsync("test", LocaleId.DE,
+                        Sets.newHashSet("gettext", "comment"), true, "abc")
+                        .get(10, TimeUnit.SECONDS)
+                        .getEntity(TranslationsResource.class);
+
+        assertThat(translations.getTextFlowTargets(), Matchers.hasSize(1));
+    }
+
 }
 
 